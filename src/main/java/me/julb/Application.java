@@ -23,6 +23,8 @@
  */
 package me.julb;
 
+import me.julb.applications.github.actions.ManageMilestoneBulkCommand;
+import me.julb.applications.github.actions.ManageMilestoneCheckpoint;
 import me.julb.sdk.github.actions.spi.GitHubActionServiceLoader;
 
 import lombok.AccessLevel;
@@ -36,10 +38,18 @@ import lombok.RequiredArgsConstructor;
 public class Application {
 
     /**
-     * Main method.
+     * Main method.<br>
+     * Without arguments, the action is executed. The <code>checkpoint</code> command is handled by the
+     * {@link ManageMilestoneCheckpoint}, and the other arguments by the {@link ManageMilestoneBulkCommand}.
      * @param args the arguments.
      */
     public static void main(String[] args) {
-        GitHubActionServiceLoader.getImplementation().orElseThrow().execute();
+        if (args.length > 0 && ManageMilestoneCheckpoint.COMMAND.equals(args[0])) {
+            new ManageMilestoneCheckpoint().execute(args);
+        } else if (args.length > 0) {
+            new ManageMilestoneBulkCommand().execute(args);
+        } else {
+            GitHubActionServiceLoader.getImplementation().orElseThrow().execute();
+        }
     }
 }
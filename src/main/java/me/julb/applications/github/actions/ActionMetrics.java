@@ -0,0 +1,321 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.NonNull;
+
+/**
+ * The metrics of a run, written as an OpenMetrics text file, e.g. for the textfile collector of the node exporter.
+ * <br>
+ * The metrics are recorded with lock-free adders so that the concurrent calls of a run can record them without
+ * contention. All the samples are labelled with the repository of the run.
+ * @author Julb.
+ */
+class ActionMetrics {
+
+    /**
+     * The prefix of the metric names.
+     */
+    static final String PREFIX = "gh_action_manage_milestone_";
+
+    /**
+     * The upper bounds of the phase duration buckets, in seconds.
+     */
+    static final double[] PHASE_DURATION_BUCKETS = {0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    /**
+     * The API calls, by method, endpoint and status labels.
+     */
+    private final ConcurrentMap<String, LongAdder> apiCalls = new ConcurrentHashMap<>();
+
+    /**
+     * The listing pages scanned, by endpoint labels.
+     */
+    private final ConcurrentMap<String, LongAdder> pages = new ConcurrentHashMap<>();
+
+    /**
+     * The writes performed.
+     */
+    private final LongAdder writesPerformed = new LongAdder();
+
+    /**
+     * The writes skipped as the resource was already up-to-date.
+     */
+    private final LongAdder writesSkipped = new LongAdder();
+
+    /**
+     * The API calls retried.
+     */
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * The lowest number of API calls remaining in the rate limit, or {@link Long#MAX_VALUE} if unknown.
+     */
+    private final LongAccumulator rateLimitRemaining = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    /**
+     * The phase durations, by phase labels.
+     */
+    private final ConcurrentMap<String, Histogram> phaseDurations = new ConcurrentHashMap<>();
+
+    /**
+     * Records an API call.
+     * @param method the HTTP method.
+     * @param endpoint the endpoint, with placeholders for the path parameters.
+     * @param status the response status, or <code>0</code> if the call failed without response.
+     */
+    void recordApiCall(@NonNull String method, @NonNull String endpoint, int status) {
+        var labels = String.format(
+                "method=\"%s\",endpoint=\"%s\",status=\"%d\"", escape(method), escape(endpoint), status);
+        adder(apiCalls, labels).increment();
+    }
+
+    /**
+     * Records a listing page scanned.
+     * @param endpoint the endpoint, with placeholders for the path parameters.
+     */
+    void recordPage(@NonNull String endpoint) {
+        adder(pages, String.format("endpoint=\"%s\"", escape(endpoint))).increment();
+    }
+
+    /**
+     * Records a write performed.
+     */
+    void recordWritePerformed() {
+        writesPerformed.increment();
+    }
+
+    /**
+     * Records a write skipped as the resource was already up-to-date.
+     */
+    void recordWriteSkipped() {
+        writesSkipped.increment();
+    }
+
+    /**
+     * Records an API call retried.
+     */
+    void recordRetry() {
+        retries.increment();
+    }
+
+    /**
+     * Records the number of API calls remaining in the rate limit.
+     * @param remaining the number of API calls remaining.
+     */
+    void recordRateLimitRemaining(long remaining) {
+        rateLimitRemaining.accumulate(remaining);
+    }
+
+    /**
+     * Records the duration of a phase.
+     * @param phase the phase name.
+     * @param duration the phase duration.
+     */
+    void recordPhase(@NonNull String phase, @NonNull Duration duration) {
+        var labels = String.format("phase=\"%s\"", escape(phase));
+        var histogram = phaseDurations.get(labels);
+        if (histogram == null) {
+            histogram = phaseDurations.computeIfAbsent(labels, key -> new Histogram(PHASE_DURATION_BUCKETS));
+        }
+        histogram.observe(duration.toNanos() / 1e9);
+    }
+
+    /**
+     * Writes the metrics to the file, replacing it atomically so that a collector never reads a partial file.
+     * @param file the file.
+     * @param repository the repository of the run.
+     * @throws IOException if an error occurs.
+     */
+    void write(@NonNull Path file, @NonNull String repository) throws IOException {
+        var absoluteFile = file.toAbsolutePath();
+        var temporaryFile = absoluteFile.resolveSibling(absoluteFile.getFileName() + ".tmp");
+        Files.writeString(temporaryFile, toOpenMetrics(repository), StandardCharsets.UTF_8);
+        Files.move(
+                temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Formats the metrics in the OpenMetrics text format.
+     * @param repository the repository of the run.
+     * @return the metrics.
+     */
+    String toOpenMetrics(@NonNull String repository) {
+        var repositoryLabel = String.format("repository=\"%s\"", escape(repository));
+        var builder = new StringBuilder();
+
+        appendFamily(builder, "api_calls", "counter", "The GitHub API calls, by endpoint and status.");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(apiCalls).entrySet()) {
+            appendSample(builder, "api_calls_total", repositoryLabel, entry.getKey(), entry.getValue().sum());
+        }
+
+        appendFamily(builder, "api_pages", "counter", "The listing pages scanned, by endpoint.");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(pages).entrySet()) {
+            appendSample(builder, "api_pages_total", repositoryLabel, entry.getKey(), entry.getValue().sum());
+        }
+
+        appendFamily(builder, "api_retries", "counter", "The GitHub API calls retried.");
+        appendSample(builder, "api_retries_total", repositoryLabel, null, retries.sum());
+
+        appendFamily(builder, "writes", "counter", "The writes performed, or skipped as already up-to-date.");
+        appendSample(builder, "writes_total", repositoryLabel, "result=\"performed\"", writesPerformed.sum());
+        appendSample(builder, "writes_total", repositoryLabel, "result=\"skipped\"", writesSkipped.sum());
+
+        var remaining = rateLimitRemaining.get();
+        if (remaining != Long.MAX_VALUE) {
+            appendFamily(builder, "rate_limit_remaining", "gauge", "The lowest GitHub API rate limit remaining.");
+            appendSample(builder, "rate_limit_remaining", repositoryLabel, null, remaining);
+        }
+
+        appendFamily(builder, "phase_duration_seconds", "histogram", "The duration of the phases of the run.");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(phaseDurations).entrySet()) {
+            var labels = entry.getKey();
+            var histogram = entry.getValue();
+            var cumulativeCount = 0L;
+            for (var i = 0; i < histogram.bucketCounts.length; i++) {
+                cumulativeCount += histogram.bucketCounts[i].sum();
+                var bound = i < histogram.upperBounds.length ? Double.toString(histogram.upperBounds[i]) : "+Inf";
+                appendSample(
+                        builder,
+                        "phase_duration_seconds_bucket",
+                        repositoryLabel,
+                        String.format("%s,le=\"%s\"", labels, bound),
+                        cumulativeCount);
+            }
+            appendSample(builder, "phase_duration_seconds_sum", repositoryLabel, labels, histogram.sum.sum());
+            appendSample(builder, "phase_duration_seconds_count", repositoryLabel, labels, cumulativeCount);
+        }
+
+        return builder.append("# EOF\n").toString();
+    }
+
+    /**
+     * Gets the adder of the labels, creating it if needed.
+     * @param adders the adders by labels.
+     * @param labels the labels.
+     * @return the adder.
+     */
+    private static LongAdder adder(ConcurrentMap<String, LongAdder> adders, String labels) {
+        // Look up first: the lookup does not lock, unlike computeIfAbsent.
+        var adder = adders.get(labels);
+        return adder != null ? adder : adders.computeIfAbsent(labels, key -> new LongAdder());
+    }
+
+    /**
+     * Appends the metadata of a metric family.
+     * @param builder the builder.
+     * @param name the family name, without prefix.
+     * @param type the family type.
+     * @param help the family description.
+     */
+    private static void appendFamily(StringBuilder builder, String name, String type, String help) {
+        builder.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+        builder.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+    }
+
+    /**
+     * Appends a sample.
+     * @param builder the builder.
+     * @param name the sample name, without prefix.
+     * @param repositoryLabel the repository label.
+     * @param labels the other labels, or <code>null</code> if none.
+     * @param value the value.
+     */
+    private static void appendSample(
+            StringBuilder builder, String name, String repositoryLabel, String labels, Number value) {
+        builder.append(PREFIX).append(name).append('{').append(repositoryLabel);
+        if (labels != null) {
+            builder.append(',').append(labels);
+        }
+        builder.append("} ").append(value).append('\n');
+    }
+
+    /**
+     * Escapes a label value.
+     * @param value the label value.
+     * @return the escaped label value.
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * A histogram with fixed buckets.
+     */
+    static class Histogram {
+        /**
+         * The upper bounds of the buckets.
+         */
+        private final double[] upperBounds;
+
+        /**
+         * The number of observations by bucket, the last one being the <code>+Inf</code> bucket.
+         */
+        private final LongAdder[] bucketCounts;
+
+        /**
+         * The sum of the observations.
+         */
+        private final DoubleAdder sum = new DoubleAdder();
+
+        /**
+         * Default constructor.
+         * @param upperBounds the upper bounds of the buckets, in ascending order.
+         */
+        Histogram(double[] upperBounds) {
+            this.upperBounds = upperBounds;
+            this.bucketCounts = new LongAdder[upperBounds.length + 1];
+            for (var i = 0; i < bucketCounts.length; i++) {
+                bucketCounts[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records an observation.
+         * @param value the observation.
+         */
+        void observe(double value) {
+            var bucket = 0;
+            while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+                bucket++;
+            }
+            bucketCounts[bucket].increment();
+            sum.add(value);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * A cassette of API calls: the request and response pairs of a run with their timings, recorded to be replayed
+ * offline. <br>
+ * The authorization headers and the tokens of the bodies are redacted.
+ * @author Julb.
+ */
+@Data
+@NoArgsConstructor
+class ApiCassette {
+
+    /**
+     * The value replacing the redacted data.
+     */
+    static final String REDACTED = "REDACTED";
+
+    /**
+     * The headers redacted, in lower case.
+     */
+    private static final Set<String> REDACTED_HEADERS =
+            Set.of("authorization", "proxy-authorization", "cookie", "set-cookie");
+
+    /**
+     * The headers describing the encoding of the body, in lower case: the body is recorded decoded.
+     */
+    private static final Set<String> ENCODING_HEADERS =
+            Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    /**
+     * The pattern of the tokens in a JSON body.
+     */
+    private static final Pattern TOKEN_FIELD = Pattern.compile("(\"token\"\\s*:\\s*)\"[^\"]*\"");
+
+    /**
+     * The JSON mapper.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * The API URL the calls were recorded against.
+     */
+    @JsonProperty("api_url")
+    private String apiUrl;
+
+    /**
+     * The calls, in the order they were sent.
+     */
+    private List<Interaction> interactions = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     * @param apiUrl the API URL the calls were recorded against.
+     */
+    ApiCassette(@NonNull String apiUrl) {
+        this.apiUrl = apiUrl;
+    }
+
+    /**
+     * Adds a call.
+     * @param interaction the call.
+     */
+    synchronized void add(@NonNull Interaction interaction) {
+        interactions.add(interaction);
+    }
+
+    /**
+     * Reads a cassette.
+     * @param file the cassette file.
+     * @return the cassette.
+     * @throws IOException if an error occurs.
+     */
+    static ApiCassette read(@NonNull Path file) throws IOException {
+        return OBJECT_MAPPER.readValue(file.toFile(), ApiCassette.class);
+    }
+
+    /**
+     * Writes the cassette. The file is replaced atomically.
+     * @param file the cassette file.
+     * @throws IOException if an error occurs.
+     */
+    synchronized void write(@NonNull Path file) throws IOException {
+        var absoluteFile = file.toAbsolutePath();
+        var temporaryFile = absoluteFile.resolveSibling(absoluteFile.getFileName() + ".tmp");
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(temporaryFile.toFile(), this);
+        Files.move(
+                temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Copies the headers to record, redacting the authorization ones and dropping the body encoding ones.
+     * @param headers the headers.
+     * @return the headers to record.
+     */
+    static Map<String, List<String>> redactHeaders(@NonNull Map<String, List<String>> headers) {
+        var redactedHeaders = new LinkedHashMap<String, List<String>>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            // The status line has no name.
+            if (header.getKey() == null) {
+                continue;
+            }
+            var name = header.getKey().toLowerCase(Locale.ROOT);
+            if (REDACTED_HEADERS.contains(name)) {
+                redactedHeaders.put(header.getKey(), List.of(REDACTED));
+            } else if (!ENCODING_HEADERS.contains(name)) {
+                redactedHeaders.put(header.getKey(), List.copyOf(header.getValue()));
+            }
+        }
+        return redactedHeaders;
+    }
+
+    /**
+     * Redacts the tokens of a JSON body, e.g. of an installation token.
+     * @param body the body.
+     * @return the redacted body.
+     */
+    static String redactBody(@NonNull String body) {
+        return TOKEN_FIELD.matcher(body).replaceAll("$1\"" + REDACTED + "\"");
+    }
+
+    /**
+     * A call. <br>
+     * @author Julb.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Interaction {
+        /**
+         * The request method.
+         */
+        private String method;
+
+        /**
+         * The request path and query, relative to the API URL.
+         */
+        private String path;
+
+        /**
+         * The request headers.
+         */
+        @JsonProperty("request_headers")
+        private Map<String, List<String>> requestHeaders;
+
+        /**
+         * The response status code.
+         */
+        private int status;
+
+        /**
+         * The response headers.
+         */
+        @JsonProperty("response_headers")
+        private Map<String, List<String>> responseHeaders;
+
+        /**
+         * The response body.
+         */
+        private String body;
+
+        /**
+         * The delay between the start of the recording and the request, in milliseconds.
+         */
+        @JsonProperty("offset_ms")
+        private long offsetMillis;
+
+        /**
+         * The delay between the request and the response, in milliseconds.
+         */
+        @JsonProperty("duration_ms")
+        private long durationMillis;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * A response served from a body read in full. <br>
+ * The body is already decoded: the <code>Content-Encoding</code> header is dropped so that it is not decoded again.
+ * @author Julb.
+ */
+class BufferedGitHubConnectorResponse extends GitHubConnectorResponse {
+
+    /**
+     * The body.
+     */
+    private final byte[] body;
+
+    /**
+     * Default constructor.
+     * @param connectorRequest the request.
+     * @param statusCode the status code.
+     * @param headers the headers.
+     * @param body the decoded body.
+     */
+    BufferedGitHubConnectorResponse(
+            GitHubConnectorRequest connectorRequest, int statusCode, Map<String, List<String>> headers, byte[] body) {
+        super(connectorRequest, statusCode, decodedHeaders(headers));
+        this.body = body;
+    }
+
+    /**
+     * Gets the headers of the decoded body.
+     * @param headers the headers.
+     * @return the headers without <code>Content-Encoding</code>.
+     */
+    private static Map<String, List<String>> decodedHeaders(Map<String, List<String>> headers) {
+        var decodedHeaders = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> {
+            // The status line of some connectors is stored under a null name.
+            if (name != null) {
+                decodedHeaders.put(name, values);
+            }
+        });
+        decodedHeaders.remove("Content-Encoding");
+        return decodedHeaders;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected InputStream rawBodyStream() {
+        return new ByteArrayInputStream(body);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // Nothing to release.
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A connector recording the API calls and their timings in an {@link ApiCassette}. <br>
+ * The response body is read in full, recorded, and served back to the client from memory.
+ * @author Julb.
+ */
+class CassetteRecordingGitHubConnector implements GitHubConnector {
+
+    /**
+     * The connector sending the calls.
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * The cassette.
+     */
+    @Getter
+    private final ApiCassette cassette;
+
+    /**
+     * The start of the recording, in nanoseconds.
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Default constructor.
+     * @param delegate the connector sending the calls.
+     * @param apiUrl the API URL the calls are sent to.
+     */
+    CassetteRecordingGitHubConnector(@NonNull GitHubConnector delegate, @NonNull String apiUrl) {
+        this.delegate = delegate;
+        this.cassette = new ApiCassette(apiUrl.replaceAll("/+$", ""));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        var requestNanos = System.nanoTime();
+        byte[] body;
+        int status;
+        Map<String, List<String>> headers;
+        try (var response = delegate.send(connectorRequest)) {
+            status = response.statusCode();
+            headers = ApiCassette.redactHeaders(response.allHeaders());
+            try (var bodyStream = response.bodyStream()) {
+                body = bodyStream == null ? new byte[0] : bodyStream.readAllBytes();
+            }
+        }
+        var responseNanos = System.nanoTime();
+
+        cassette.add(new ApiCassette.Interaction(
+                connectorRequest.method(),
+                toPath(connectorRequest.url().toString()),
+                ApiCassette.redactHeaders(connectorRequest.allHeaders()),
+                status,
+                headers,
+                ApiCassette.redactBody(new String(body, StandardCharsets.UTF_8)),
+                TimeUnit.NANOSECONDS.toMillis(requestNanos - startNanos),
+                TimeUnit.NANOSECONDS.toMillis(responseNanos - requestNanos)));
+
+        return new BufferedGitHubConnectorResponse(connectorRequest, status, headers, body);
+    }
+
+    /**
+     * Gets the path and query of a URL, relative to the API URL.
+     * @param url the URL.
+     * @return the path and query relative to the API URL.
+     */
+    String toPath(@NonNull String url) {
+        if (url.startsWith(cassette.getApiUrl())) {
+            var path = url.substring(cassette.getApiUrl().length());
+            return path.isEmpty() ? "/" : path;
+        }
+        return url;
+    }
+}
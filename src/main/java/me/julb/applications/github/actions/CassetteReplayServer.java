@@ -0,0 +1,254 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.NonNull;
+
+/**
+ * A local server replaying the calls of an {@link ApiCassette} on the recorded schedule. <br>
+ * The replay starts with the first request. Each call is answered at its recorded offset from the start plus its
+ * recorded duration, and never before its recorded duration, so that a client faster than the recording is paced
+ * like the recorded run. The calls are matched by method, path and query, in the recorded order; once the recorded
+ * calls of a request are exhausted, the last one is served again. The API URL of the recording is rewritten to the
+ * URL of the server in the bodies and headers, so that the pagination links point to the server.
+ * @author Julb.
+ */
+class CassetteReplayServer implements AutoCloseable {
+
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer httpServer;
+
+    /**
+     * The executor handling the requests.
+     */
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "cassette-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The API URL the calls were recorded against.
+     */
+    private final String recordedApiUrl;
+
+    /**
+     * The recorded calls not served yet, by method, path and query.
+     */
+    private final Map<String, Deque<ApiCassette.Interaction>> interactions = new HashMap<>();
+
+    /**
+     * The number of requests not recorded.
+     */
+    private final AtomicInteger missCount = new AtomicInteger();
+
+    /**
+     * The offset of the first recorded call, in milliseconds.
+     */
+    private final long firstOffsetMillis;
+
+    /**
+     * The time of the first request, in nanoseconds, or <code>null</code> until the replay starts.
+     */
+    private Long startNanos;
+
+    /**
+     * Default constructor.
+     * @param httpServer the HTTP server.
+     * @param cassette the cassette.
+     */
+    private CassetteReplayServer(HttpServer httpServer, ApiCassette cassette) {
+        this.httpServer = httpServer;
+        this.recordedApiUrl = cassette.getApiUrl();
+        this.firstOffsetMillis = cassette.getInteractions().stream()
+                .mapToLong(ApiCassette.Interaction::getOffsetMillis)
+                .min()
+                .orElse(0);
+        for (ApiCassette.Interaction interaction : cassette.getInteractions()) {
+            interactions
+                    .computeIfAbsent(key(interaction.getMethod(), interaction.getPath()), key -> new ArrayDeque<>())
+                    .add(interaction);
+        }
+    }
+
+    /**
+     * Starts a server replaying the cassette on a free port of the loopback interface.
+     * @param cassette the cassette.
+     * @return the server.
+     * @throws IOException if an error occurs.
+     */
+    static CassetteReplayServer start(@NonNull ApiCassette cassette) throws IOException {
+        var httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        var server = new CassetteReplayServer(httpServer, cassette);
+        httpServer.createContext("/", server::handle);
+        httpServer.setExecutor(server.executor);
+        httpServer.start();
+        return server;
+    }
+
+    /**
+     * Gets the API URL of the server.
+     * @return the API URL.
+     */
+    String getUrl() {
+        return String.format(
+                "http://%s:%d",
+                httpServer.getAddress().getHostString(),
+                httpServer.getAddress().getPort());
+    }
+
+    /**
+     * Gets the number of requests not recorded.
+     * @return the number of requests not recorded.
+     */
+    int getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serves the next recorded call of the request.
+     * @param exchange the exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            var method = exchange.getRequestMethod();
+            var override = exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override");
+            if (override != null) {
+                method = override;
+            }
+
+            var receivedNanos = System.nanoTime();
+            var interaction = next(key(method, exchange.getRequestURI().toString()));
+            if (interaction == null) {
+                missCount.incrementAndGet();
+                var body = String.format("{\"message\":\"Not recorded: %s %s\"}", method, exchange.getRequestURI())
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(404, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos(interaction, receivedNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            for (Map.Entry<String, List<String>> header : interaction.getResponseHeaders().entrySet()) {
+                for (String value : header.getValue()) {
+                    exchange.getResponseHeaders().add(header.getKey(), rewrite(value));
+                }
+            }
+            var body = rewrite(interaction.getBody()).getBytes(StandardCharsets.UTF_8);
+            if (body.length == 0) {
+                exchange.sendResponseHeaders(interaction.getStatus(), -1);
+                return;
+            }
+            exchange.sendResponseHeaders(interaction.getStatus(), body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    /**
+     * Gets the delay before the response of a recorded call: until its recorded offset from the start of the replay
+     * plus its recorded duration, and at least its recorded duration.
+     * @param interaction the recorded call.
+     * @param receivedNanos the time the request was received, in nanoseconds.
+     * @return the delay, in nanoseconds.
+     */
+    private synchronized long delayNanos(ApiCassette.Interaction interaction, long receivedNanos) {
+        var dueNanos = startNanos
+                + TimeUnit.MILLISECONDS.toNanos(
+                        interaction.getOffsetMillis() - firstOffsetMillis + interaction.getDurationMillis());
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(interaction.getDurationMillis()), dueNanos - receivedNanos);
+    }
+
+    /**
+     * Gets the next recorded call of the request, keeping the last one to serve it again. The first request starts
+     * the replay.
+     * @param key the request key.
+     * @return the recorded call, or <code>null</code> if the request was not recorded.
+     */
+    private synchronized ApiCassette.Interaction next(String key) {
+        if (startNanos == null) {
+            startNanos = System.nanoTime();
+        }
+        var recorded = interactions.get(key);
+        if (recorded == null) {
+            return null;
+        }
+        return recorded.size() > 1 ? recorded.poll() : recorded.peek();
+    }
+
+    /**
+     * Rewrites the recorded API URL to the URL of the server.
+     * @param value the recorded value.
+     * @return the rewritten value.
+     */
+    private String rewrite(String value) {
+        return value == null ? "" : value.replace(recordedApiUrl, getUrl());
+    }
+
+    /**
+     * Builds the key of a request.
+     * @param method the method.
+     * @param path the path and query.
+     * @return the key.
+     */
+    private static String key(String method, String path) {
+        return method + " " + path;
+    }
+}
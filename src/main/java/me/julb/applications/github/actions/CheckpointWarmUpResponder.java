@@ -0,0 +1,291 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The responder answering the calls of the action during the warm-up before a CRaC checkpoint. <br>
+ * It serves the API root, the rate limit, the repository, and the listing, creation, update and deletion of its
+ * milestones from memory, on a single thread, and closes the connections after each response so that no socket is
+ * left open at checkpoint.
+ * @author Julb.
+ */
+class CheckpointWarmUpResponder implements AutoCloseable {
+
+    /**
+     * The repository path pattern.
+     */
+    private static final Pattern REPOSITORY_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)$");
+
+    /**
+     * The milestones path pattern.
+     */
+    private static final Pattern MILESTONES_PATH = Pattern.compile("^/repos/([^/]+/[^/]+)/milestones$");
+
+    /**
+     * The milestone path pattern.
+     */
+    private static final Pattern MILESTONE_PATH = Pattern.compile("^/repos/[^/]+/[^/]+/milestones/(\\d+)$");
+
+    /**
+     * The JSON mapper.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer httpServer;
+
+    /**
+     * The milestones.
+     */
+    private final List<Map<String, Object>> milestones = new ArrayList<>();
+
+    /**
+     * The last milestone number.
+     */
+    private final AtomicInteger lastNumber = new AtomicInteger();
+
+    /**
+     * The number of requests served.
+     */
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * Default constructor.
+     * @param httpServer the HTTP server.
+     */
+    private CheckpointWarmUpResponder(HttpServer httpServer) {
+        this.httpServer = httpServer;
+    }
+
+    /**
+     * Starts a responder on a port of the loopback interface.
+     * @param port the port.
+     * @return the responder.
+     * @throws IOException if an error occurs.
+     */
+    static CheckpointWarmUpResponder start(int port) throws IOException {
+        var httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        var responder = new CheckpointWarmUpResponder(httpServer);
+        httpServer.createContext("/", responder::handle);
+        httpServer.start();
+        return responder;
+    }
+
+    /**
+     * Gets the number of requests served.
+     * @return the number of requests served.
+     */
+    int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Removes all the milestones.
+     */
+    synchronized void reset() {
+        milestones.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+    }
+
+    /**
+     * Handles a request.
+     * @param exchange the exchange.
+     * @throws IOException if an error occurs.
+     */
+    private synchronized void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (NoSuchElementException e) {
+                respond(exchange, 404, Map.of("message", "Not Found"));
+            }
+        }
+    }
+
+    /**
+     * Routes a request to its handler.
+     * @param exchange the exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void route(HttpExchange exchange) throws IOException {
+        var method = exchange.getRequestMethod();
+        var override = exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override");
+        if (override != null) {
+            method = override;
+        }
+        var path = exchange.getRequestURI().getPath();
+        var apiUrl = String.format("http://%s", exchange.getRequestHeaders().getFirst("Host"));
+
+        var repositoryMatcher = REPOSITORY_PATH.matcher(path);
+        var milestonesMatcher = MILESTONES_PATH.matcher(path);
+        var milestoneMatcher = MILESTONE_PATH.matcher(path);
+        if ("/".equals(path)) {
+            respond(exchange, 200, Map.of("rate_limit_url", apiUrl + "/rate_limit"));
+        } else if ("/rate_limit".equals(path)) {
+            var rate = Map.of(
+                    "limit", 5000,
+                    "remaining", 4999,
+                    "used", 1,
+                    "reset", Instant.now().plusSeconds(3600).getEpochSecond());
+            var resources = Map.of("core", rate, "search", rate, "graphql", rate, "integration_manifest", rate);
+            respond(exchange, 200, Map.of("rate", rate, "resources", resources));
+        } else if (repositoryMatcher.matches()) {
+            var owner = repositoryMatcher.group(1);
+            var fullName = String.format("%s/%s", owner, repositoryMatcher.group(2));
+            var repository = new LinkedHashMap<String, Object>();
+            repository.put("id", 1);
+            repository.put("name", repositoryMatcher.group(2));
+            repository.put("full_name", fullName);
+            repository.put("owner", Map.of("login", owner, "id", 1, "type", "User"));
+            repository.put("url", String.format("%s%s", apiUrl, path));
+            repository.put("html_url", String.format("https://github.com/%s", fullName));
+            respond(exchange, 200, repository);
+        } else if (milestonesMatcher.matches() && "GET".equals(method)) {
+            respond(exchange, 200, milestones);
+        } else if (milestonesMatcher.matches() && "POST".equals(method)) {
+            var attributes = readBody(exchange);
+            if (milestones.stream().anyMatch(m -> Objects.equals(m.get("title"), attributes.get("title")))) {
+                var error = Map.of("resource", "Milestone", "code", "already_exists", "field", "title");
+                respond(exchange, 422, Map.of("message", "Validation Failed", "errors", List.of(error)));
+            } else {
+                var milestonesUrl = String.format("%s%s", apiUrl, path);
+                respond(exchange, 201, createMilestone(milestonesUrl, milestonesMatcher.group(1), attributes));
+            }
+        } else if (milestoneMatcher.matches()) {
+            var number = Integer.parseInt(milestoneMatcher.group(1));
+            var milestone = milestones.stream()
+                    .filter(m -> Integer.valueOf(number).equals(m.get("number")))
+                    .findFirst()
+                    .orElseThrow();
+            if ("DELETE".equals(method)) {
+                milestones.remove(milestone);
+                respond(exchange, 204, null);
+            } else if ("PATCH".equals(method)) {
+                milestone.putAll(readBody(exchange));
+                milestone.put("updated_at", Instant.now().toString());
+                respond(exchange, 200, milestone);
+            } else {
+                respond(exchange, 200, milestone);
+            }
+        } else {
+            respond(exchange, 404, Map.of("message", "Not Found"));
+        }
+    }
+
+    /**
+     * Creates a milestone.
+     * @param milestonesUrl the URL of the milestones.
+     * @param repositoryName the repository full name.
+     * @param attributes the milestone attributes.
+     * @return the milestone.
+     */
+    private Map<String, Object> createMilestone(
+            String milestonesUrl, String repositoryName, Map<String, Object> attributes) {
+        var number = lastNumber.incrementAndGet();
+        var now = Instant.now().toString();
+        var milestone = new LinkedHashMap<String, Object>();
+        milestone.put("id", number);
+        milestone.put("number", number);
+        milestone.put("url", String.format("%s/%d", milestonesUrl, number));
+        milestone.put("html_url", String.format("https://github.com/%s/milestone/%d", repositoryName, number));
+        milestone.put("title", attributes.get("title"));
+        milestone.put("description", attributes.get("description"));
+        milestone.put("state", attributes.getOrDefault("state", "open"));
+        milestone.put("due_on", attributes.get("due_on"));
+        milestone.put("open_issues", 0);
+        milestone.put("closed_issues", 0);
+        milestone.put("created_at", now);
+        milestone.put("updated_at", now);
+        milestones.add(milestone);
+        return milestone;
+    }
+
+    /**
+     * Reads the JSON body of the request.
+     * @param exchange the exchange.
+     * @return the body attributes.
+     * @throws IOException if an error occurs.
+     */
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        var body = exchange.getRequestBody().readAllBytes();
+        if (body.length == 0) {
+            return new LinkedHashMap<>();
+        }
+        return objectMapper.readValue(body, new TypeReference<LinkedHashMap<String, Object>>() {});
+    }
+
+    /**
+     * Writes the JSON response, with rate limit headers, and closes the connection.
+     * @param exchange the exchange.
+     * @param status the status code.
+     * @param body the body, or <code>null</code> if there is no body.
+     * @throws IOException if an error occurs.
+     */
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", "4999");
+        headers.set("X-RateLimit-Used", "1");
+        headers.set("X-RateLimit-Resource", "core");
+        headers.set("X-RateLimit-Reset", Long.toString(Instant.now().plusSeconds(3600).getEpochSecond()));
+        headers.set("Connection", "close");
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        var bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A connector failing fast while the GitHub API is degraded. <br>
+ * The outcome of the last {@link #WINDOW_SIZE} calls is tracked: a call fails when it raises an error, answers
+ * with a server error or answers slower than the slow call duration. Once {@link #MINIMUM_CALLS} calls are tracked
+ * and the failure rate reaches the threshold, the circuit opens and the calls fail immediately. After
+ * {@link #OPEN_DURATION}, a single probe call is let through: the circuit closes if it succeeds, and opens again
+ * otherwise.
+ * @author Julb.
+ */
+class CircuitBreakerGitHubConnector implements GitHubConnector {
+    /**
+     * The number of calls tracked.
+     */
+    static final int WINDOW_SIZE = 20;
+
+    /**
+     * The number of calls tracked before the failure rate is evaluated.
+     */
+    static final int MINIMUM_CALLS = 5;
+
+    /**
+     * The duration during which the circuit stays open before a probe call.
+     */
+    static final Duration OPEN_DURATION = Duration.ofSeconds(5);
+
+    /**
+     * The state of the circuit.
+     */
+    enum State {
+        /**
+         * The calls are let through.
+         */
+        CLOSED,
+
+        /**
+         * The calls fail immediately.
+         */
+        OPEN,
+
+        /**
+         * A probe call is let through.
+         */
+        HALF_OPEN;
+    }
+
+    /**
+     * The connector sending the calls.
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * The failure rate percentage from which the circuit opens.
+     */
+    private final int failureRateThreshold;
+
+    /**
+     * The duration above which a call is considered failed.
+     */
+    private final Duration slowCallDuration;
+
+    /**
+     * The clock.
+     */
+    private final Clock clock;
+
+    /**
+     * The listener notified of the state changes.
+     */
+    private final Consumer<String> stateListener;
+
+    /**
+     * The outcome of the last calls, <code>true</code> for a failure.
+     */
+    private final boolean[] window = new boolean[WINDOW_SIZE];
+
+    /**
+     * The number of calls tracked in the window.
+     */
+    private int windowCount;
+
+    /**
+     * The number of failed calls tracked in the window.
+     */
+    private int windowFailureCount;
+
+    /**
+     * The index of the next call outcome in the window.
+     */
+    private int windowIndex;
+
+    /**
+     * The state of the circuit.
+     */
+    @Getter
+    private State state = State.CLOSED;
+
+    /**
+     * The instant when the circuit opened.
+     */
+    private Instant openedAt;
+
+    /**
+     * Default constructor.
+     * @param delegate the connector sending the calls.
+     * @param failureRateThreshold the failure rate percentage from which the circuit opens.
+     * @param slowCallDuration the duration above which a call is considered failed.
+     * @param clock the clock.
+     * @param stateListener the listener notified of the state changes.
+     */
+    CircuitBreakerGitHubConnector(
+            @NonNull GitHubConnector delegate,
+            int failureRateThreshold,
+            @NonNull Duration slowCallDuration,
+            @NonNull Clock clock,
+            @NonNull Consumer<String> stateListener) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException(
+                    String.format("failure rate threshold must be between 1 and 100: %d", failureRateThreshold));
+        }
+        this.delegate = delegate;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.clock = clock;
+        this.stateListener = stateListener;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        var probe = acquirePermission(connectorRequest);
+
+        var start = clock.instant();
+        try {
+            var response = delegate.send(connectorRequest);
+            recordOutcome(probe, response.statusCode() >= 500 || isSlow(start));
+            return response;
+        } catch (IOException | RuntimeException e) {
+            recordOutcome(probe, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks if the call started at the given instant is slow.
+     * @param start the instant when the call started.
+     * @return <code>true</code> if the call is slow, <code>false</code> otherwise.
+     */
+    private boolean isSlow(Instant start) {
+        return Duration.between(start, clock.instant()).compareTo(slowCallDuration) > 0;
+    }
+
+    /**
+     * Lets the call through, or fails if the circuit is open.
+     * @param connectorRequest the call.
+     * @return <code>true</code> if the call is the probe, <code>false</code> otherwise.
+     * @throws IOException if the circuit is open.
+     */
+    private synchronized boolean acquirePermission(GitHubConnectorRequest connectorRequest) throws IOException {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(OPEN_DURATION))) {
+            transitionTo(State.HALF_OPEN);
+            return true;
+        }
+        if (state != State.CLOSED) {
+            throw new IOException(String.format(
+                    "circuit breaker %s: failing fast %s %s",
+                    state.name().toLowerCase(Locale.ROOT),
+                    connectorRequest.method(),
+                    connectorRequest.url()));
+        }
+        return false;
+    }
+
+    /**
+     * Records the outcome of a call.
+     * @param probe <code>true</code> if the call is the probe, <code>false</code> otherwise.
+     * @param failure <code>true</code> if the call failed, <code>false</code> otherwise.
+     */
+    private synchronized void recordOutcome(boolean probe, boolean failure) {
+        if (probe) {
+            if (failure) {
+                open();
+            } else {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (windowCount == WINDOW_SIZE && window[windowIndex]) {
+            windowFailureCount--;
+        }
+        window[windowIndex] = failure;
+        windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+        windowCount = Math.min(WINDOW_SIZE, windowCount + 1);
+        if (failure) {
+            windowFailureCount++;
+        }
+
+        if (state == State.CLOSED
+                && windowCount >= MINIMUM_CALLS
+                && windowFailureCount * 100 >= failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+
+    /**
+     * Opens the circuit.
+     */
+    private void open() {
+        openedAt = clock.instant();
+        transitionTo(State.OPEN);
+    }
+
+    /**
+     * Forgets the outcome of the calls tracked.
+     */
+    private void resetWindow() {
+        windowCount = 0;
+        windowFailureCount = 0;
+        windowIndex = 0;
+    }
+
+    /**
+     * Changes the state of the circuit.
+     * @param newState the new state.
+     */
+    private void transitionTo(State newState) {
+        stateListener.accept(String.format(
+                "circuit breaker: [state: %s => %s, failures: %d/%d]",
+                state, newState, windowFailureCount, windowCount));
+        state = newState;
+    }
+}
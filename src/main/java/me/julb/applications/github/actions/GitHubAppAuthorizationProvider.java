@@ -0,0 +1,299 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.authorization.AuthorizationProvider;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The authorization provider authenticating as a GitHub App installation. <br>
+ * The installation token is minted from a JWT signed with the App private key, and cached until shortly before it
+ * expires. When several threads find the token expiring, only one of them mints a new token. The token is minted
+ * through the connector of the run, so that it is recorded to and replayed from the cassette like the other calls.
+ * @author Julb.
+ */
+class GitHubAppAuthorizationProvider implements AuthorizationProvider {
+
+    /**
+     * The delay before expiry after which the installation token is refreshed.
+     */
+    static final Duration TOKEN_REFRESH_MARGIN = Duration.ofMinutes(5);
+
+    /**
+     * The validity of the JWT, below the 10 minutes allowed by GitHub.
+     */
+    static final Duration JWT_VALIDITY = Duration.ofMinutes(9);
+
+    /**
+     * The DER encoding of the RSA algorithm identifier.
+     */
+    private static final byte[] RSA_ALGORITHM_IDENTIFIER = {
+        0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00
+    };
+
+    /**
+     * The GitHub API URL.
+     */
+    private final String apiUrl;
+
+    /**
+     * The connector sending the calls minting the token.
+     */
+    private final GitHubConnector connector;
+
+    /**
+     * The App ID.
+     */
+    private final String appId;
+
+    /**
+     * The App private key.
+     */
+    private final PrivateKey privateKey;
+
+    /**
+     * The installation ID, or {@link Optional#empty()} to use the installation of the repository.
+     */
+    private final Optional<Long> installationId;
+
+    /**
+     * The repository full name used to find the installation.
+     */
+    private final String repositoryName;
+
+    /**
+     * The clock.
+     */
+    private final Clock clock;
+
+    /**
+     * The cached installation token.
+     */
+    private volatile InstallationToken installationToken;
+
+    /**
+     * Default constructor.
+     * @param apiUrl the GitHub API URL.
+     * @param connector the connector sending the calls minting the token.
+     * @param appId the App ID.
+     * @param privateKeyPem the App private key, PEM-encoded in PKCS#1 or PKCS#8.
+     * @param installationId the installation ID, or {@link Optional#empty()} to use the installation of the repository.
+     * @param repositoryName the repository full name used to find the installation.
+     * @param clock the clock.
+     */
+    GitHubAppAuthorizationProvider(
+            @NonNull String apiUrl,
+            @NonNull GitHubConnector connector,
+            @NonNull String appId,
+            @NonNull String privateKeyPem,
+            @NonNull Optional<Long> installationId,
+            @NonNull String repositoryName,
+            @NonNull Clock clock) {
+        this.apiUrl = apiUrl;
+        this.connector = connector;
+        this.appId = appId;
+        this.privateKey = parsePrivateKey(privateKeyPem);
+        this.installationId = installationId;
+        this.repositoryName = repositoryName;
+        this.clock = clock;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getEncodedAuthorization() throws IOException {
+        var token = installationToken;
+        if (isExpiring(token)) {
+            synchronized (this) {
+                // Another thread may have refreshed the token meanwhile.
+                token = installationToken;
+                if (isExpiring(token)) {
+                    token = createInstallationToken();
+                    installationToken = token;
+                }
+            }
+        }
+        return String.format("token %s", token.getValue());
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Checks if the installation token needs to be refreshed.
+     * @param token the installation token, or <code>null</code> if none has been minted.
+     * @return <code>true</code> if the token needs to be refreshed, <code>false</code> otherwise.
+     */
+    private boolean isExpiring(InstallationToken token) {
+        return token == null || !clock.instant().plus(TOKEN_REFRESH_MARGIN).isBefore(token.getExpiresAt());
+    }
+
+    /**
+     * Mints a new installation token.
+     * @return the installation token.
+     * @throws IOException if an error occurs.
+     */
+    InstallationToken createInstallationToken() throws IOException {
+        var ghApp = new GitHubBuilder()
+                .withEndpoint(apiUrl)
+                .withConnector(connector)
+                .withJwtToken(createJwt())
+                .build()
+                .getApp();
+
+        var ghAppInstallation = installationId.isPresent()
+                ? ghApp.getInstallationById(installationId.get())
+                : ghApp.getInstallationByRepository(
+                        repositoryName.substring(0, repositoryName.indexOf('/')),
+                        repositoryName.substring(repositoryName.indexOf('/') + 1));
+
+        var ghAppInstallationToken = ghAppInstallation.createToken().create();
+        return new InstallationToken(
+                ghAppInstallationToken.getToken(),
+                ghAppInstallationToken.getExpiresAt().toInstant());
+    }
+
+    /**
+     * Creates the JWT authenticating the App.
+     * @return the JWT.
+     * @throws IOException if an error occurs.
+     */
+    String createJwt() throws IOException {
+        // Issue the token in the past to tolerate clock drift.
+        var issuedAt = clock.instant().minusSeconds(60);
+        var header = base64Url("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        var payload = base64Url(String.format(
+                        "{\"iat\":%d,\"exp\":%d,\"iss\":\"%s\"}",
+                        issuedAt.getEpochSecond(),
+                        issuedAt.plus(JWT_VALIDITY).getEpochSecond(),
+                        appId)
+                .getBytes(StandardCharsets.UTF_8));
+
+        try {
+            var signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(privateKey);
+            signature.update(String.format("%s.%s", header, payload).getBytes(StandardCharsets.US_ASCII));
+            return String.format("%s.%s.%s", header, payload, base64Url(signature.sign()));
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Encodes the bytes in unpadded Base64 URL.
+     * @param bytes the bytes.
+     * @return the encoded bytes.
+     */
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Parses the PEM-encoded RSA private key.
+     * @param privateKeyPem the private key, PEM-encoded in PKCS#1 or PKCS#8.
+     * @return the private key.
+     */
+    static PrivateKey parsePrivateKey(@NonNull String privateKeyPem) {
+        var pkcs1 = privateKeyPem.contains("BEGIN RSA PRIVATE KEY");
+        var der = Base64.getMimeDecoder().decode(privateKeyPem.replaceAll("-----[A-Z ]+-----", ""));
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(pkcs1 ? toPkcs8(der) : der));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("invalid GitHub App private key.", e);
+        }
+    }
+
+    /**
+     * Wraps a PKCS#1 RSA private key, as downloaded from GitHub, in a PKCS#8 structure.
+     * @param pkcs1 the DER-encoded PKCS#1 key.
+     * @return the DER-encoded PKCS#8 key.
+     */
+    static byte[] toPkcs8(byte[] pkcs1) {
+        var content = new ByteArrayOutputStream();
+        content.writeBytes(new byte[] {0x02, 0x01, 0x00});
+        content.writeBytes(RSA_ALGORITHM_IDENTIFIER);
+        content.writeBytes(derTlv(0x04, pkcs1));
+        return derTlv(0x30, content.toByteArray());
+    }
+
+    /**
+     * Encodes a DER tag-length-value.
+     * @param tag the tag.
+     * @param value the value.
+     * @return the encoded tag-length-value.
+     */
+    private static byte[] derTlv(int tag, byte[] value) {
+        var tlv = new ByteArrayOutputStream();
+        tlv.write(tag);
+        if (value.length < 0x80) {
+            tlv.write(value.length);
+        } else {
+            var lengthBytes = (Integer.SIZE - Integer.numberOfLeadingZeros(value.length) + 7) / 8;
+            tlv.write(0x80 | lengthBytes);
+            for (var i = lengthBytes - 1; i >= 0; i--) {
+                tlv.write(value.length >>> (8 * i));
+            }
+        }
+        tlv.writeBytes(value);
+        return tlv.toByteArray();
+    }
+
+    /**
+     * An installation token. <br>
+     * @author Julb.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @RequiredArgsConstructor
+    static class InstallationToken {
+        /**
+         * The token value.
+         */
+        private final String value;
+
+        /**
+         * The token expiry.
+         */
+        private final Instant expiresAt;
+    }
+}
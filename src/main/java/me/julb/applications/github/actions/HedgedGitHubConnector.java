@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.NonNull;
+
+/**
+ * A connector hedging the <code>GET</code> calls of the repository and of the milestones through a
+ * {@link HedgedReader}, so that a slow page of a listing is sent again on its own rather than the whole listing. The
+ * other calls are sent once: the writes are not idempotent, and the other reads are off the path of a run.
+ * @author Julb.
+ */
+class HedgedGitHubConnector implements GitHubConnector {
+
+    /**
+     * The pattern of the hedged paths: the repository, the milestones and a milestone.
+     */
+    private static final Pattern HEDGED_PATH = Pattern.compile(".*/repos/[^/]+/[^/]+(/milestones(/\\d+)?)?");
+
+    /**
+     * The connector sending the calls.
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * The reader hedging the calls.
+     */
+    private final HedgedReader hedgedReader;
+
+    /**
+     * Default constructor.
+     * @param delegate the connector sending the calls.
+     * @param hedgedReader the reader hedging the calls.
+     */
+    HedgedGitHubConnector(@NonNull GitHubConnector delegate, @NonNull HedgedReader hedgedReader) {
+        this.delegate = delegate;
+        this.hedgedReader = hedgedReader;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        if (!"GET".equals(connectorRequest.method())
+                || !HEDGED_PATH.matcher(connectorRequest.url().getPath()).matches()) {
+            return delegate.send(connectorRequest);
+        }
+        return hedgedReader.read(() -> delegate.send(connectorRequest), HedgedGitHubConnector::close);
+    }
+
+    /**
+     * Closes the response of a call which answered after another one won.
+     * @param response the response.
+     */
+    static void close(@NonNull GitHubConnectorResponse response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            // The response is dropped anyway.
+        }
+    }
+}
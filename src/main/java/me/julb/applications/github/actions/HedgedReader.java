@@ -0,0 +1,365 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import lombok.NonNull;
+
+/**
+ * Runs idempotent read calls, sending a duplicate call when the first one is slower than the hedge delay. <br>
+ * The first call to answer wins and the other one is cancelled, or discarded if it answers anyway. The duplicate calls
+ * are capped to {@link #HEDGE_BUDGET_PERCENT} percent of the calls, plus one. The hedge delay is the
+ * {@link #LATENCY_PERCENTILE}th percentile of the latencies observed, once {@link #LATENCY_MIN_SAMPLES} calls
+ * answered, and the configured delay until then.
+ * @author Julb.
+ */
+class HedgedReader implements Closeable {
+    /**
+     * The percentage of calls which may be duplicated.
+     */
+    static final int HEDGE_BUDGET_PERCENT = 10;
+
+    /**
+     * The percentile of the latencies observed used as hedge delay.
+     */
+    static final int LATENCY_PERCENTILE = 95;
+
+    /**
+     * The number of latencies observed from which the hedge delay is derived from them.
+     */
+    static final int LATENCY_MIN_SAMPLES = 20;
+
+    /**
+     * The number of latest latencies the hedge delay is derived from.
+     */
+    static final int LATENCY_WINDOW = 200;
+
+    /**
+     * The delay after which a duplicate call is sent until enough latencies are observed, or {@link Optional#empty()}
+     * if the calls are not hedged.
+     */
+    private final Optional<Duration> delay;
+
+    /**
+     * The latest latencies observed, in nanoseconds, as a ring buffer.
+     */
+    private final long[] latencies = new long[LATENCY_WINDOW];
+
+    /**
+     * The number of latencies observed.
+     */
+    private long latencyCount;
+
+    /**
+     * The run deadline.
+     */
+    private final RunDeadline deadline;
+
+    /**
+     * The executor running the hedged calls.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The number of calls.
+     */
+    private final AtomicInteger callCount = new AtomicInteger();
+
+    /**
+     * The number of duplicate calls sent.
+     */
+    private final AtomicInteger firedCount = new AtomicInteger();
+
+    /**
+     * The number of duplicate calls which answered first.
+     */
+    private final AtomicInteger wonCount = new AtomicInteger();
+
+    /**
+     * Default constructor.
+     * @param delay the delay after which a duplicate call is sent, or {@link Optional#empty()} to disable hedging.
+     * @param deadline the run deadline.
+     */
+    HedgedReader(@NonNull Optional<Duration> delay, @NonNull RunDeadline deadline) {
+        this.delay = delay;
+        this.deadline = deadline;
+        this.executor = delay.isPresent()
+                ? Executors.newCachedThreadPool(runnable -> {
+                    // Daemon threads: a lingering loser call must not delay the exit.
+                    var thread = new Thread(runnable, "hedged-read");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Creates a reader running the calls directly.
+     * @return the reader.
+     */
+    static HedgedReader disabled() {
+        return new HedgedReader(Optional.empty(), RunDeadline.unbounded());
+    }
+
+    /**
+     * Checks if the calls are hedged.
+     * @return <code>true</code> if the calls are hedged, <code>false</code> otherwise.
+     */
+    boolean isEnabled() {
+        return delay.isPresent();
+    }
+
+    /**
+     * Gets the number of calls.
+     * @return the number of calls.
+     */
+    int getCallCount() {
+        return callCount.get();
+    }
+
+    /**
+     * Gets the number of duplicate calls sent.
+     * @return the number of duplicate calls sent.
+     */
+    int getFiredCount() {
+        return firedCount.get();
+    }
+
+    /**
+     * Gets the number of duplicate calls which answered first.
+     * @return the number of duplicate calls which answered first.
+     */
+    int getWonCount() {
+        return wonCount.get();
+    }
+
+    /**
+     * Gets the current hedge delay: the percentile of the latencies observed, or the configured delay until enough
+     * latencies are observed.
+     * @return the hedge delay, or {@link Optional#empty()} if the calls are not hedged.
+     */
+    synchronized Optional<Duration> getDelay() {
+        if (delay.isEmpty() || latencyCount < LATENCY_MIN_SAMPLES) {
+            return delay;
+        }
+        var sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_WINDOW));
+        Arrays.sort(sorted);
+        var index = (int) Math.ceil(sorted.length * LATENCY_PERCENTILE / 100.0) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.max(0, index)]));
+    }
+
+    /**
+     * Records the latency of a call which answered.
+     * @param latency the latency.
+     */
+    synchronized void recordLatency(@NonNull Duration latency) {
+        latencies[(int) (latencyCount % LATENCY_WINDOW)] = latency.toNanos();
+        latencyCount++;
+    }
+
+    /**
+     * Runs the read call, hedged if enabled.
+     * @param <T> the result type.
+     * @param call the idempotent read call.
+     * @return the result of the first call to succeed.
+     * @throws IOException if all the calls fail.
+     */
+    <T> T read(@NonNull ReadCall<T> call) throws IOException {
+        return read(call, (T result) -> {
+            // Nothing to release.
+        });
+    }
+
+    /**
+     * Runs the read call, hedged if enabled.
+     * @param <T> the result type.
+     * @param call the idempotent read call.
+     * @param discard the release of the result of a call which answered after another one won, e.g. to close it.
+     * @return the result of the first call to succeed.
+     * @throws IOException if all the calls fail.
+     */
+    <T> T read(@NonNull ReadCall<T> call, @NonNull Consumer<T> discard) throws IOException {
+        var hedgeDelay = getDelay();
+        if (hedgeDelay.isEmpty()) {
+            return call.read();
+        }
+
+        callCount.incrementAndGet();
+
+        // The first call to answer claims the win: a call answering later discards its result.
+        var claimed = new AtomicBoolean();
+        ReadCall<T> attempt = () -> {
+            var start = System.nanoTime();
+            var result = call.read();
+            recordLatency(Duration.ofNanos(System.nanoTime() - start));
+            if (!claimed.compareAndSet(false, true)) {
+                discard.accept(result);
+                throw new IOException("hedged read answered after another one");
+            }
+            return result;
+        };
+
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        var primary = completionService.submit(attempt::read);
+        Future<T> hedge = null;
+        Future<T> winner = null;
+        try {
+            var completed = completionService.poll(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS);
+            if (completed == null && tryFireHedge()) {
+                hedge = completionService.submit(attempt::read);
+            }
+
+            var pending = hedge == null ? 1 : 2;
+            ExecutionException failure = null;
+            while (pending > 0) {
+                if (completed == null) {
+                    completed = take(completionService);
+                }
+                pending--;
+                try {
+                    var result = completed.get();
+                    winner = completed;
+                    if (completed == hedge) {
+                        wonCount.incrementAndGet();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    // Wait for the other call, if any.
+                    failure = failure == null ? e : failure;
+                    completed = null;
+                }
+            }
+
+            if (failure.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(failure.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            // A call answering from now on discards its result.
+            claimed.set(true);
+            cancel(primary, winner, discard);
+            if (hedge != null) {
+                cancel(hedge, winner, discard);
+            }
+        }
+    }
+
+    /**
+     * Cancels a call which did not win, discarding its result if it answered already.
+     * @param <T> the result type.
+     * @param call the call.
+     * @param winner the call which won, or <code>null</code> if none.
+     * @param discard the release of the result.
+     */
+    private static <T> void cancel(Future<T> call, Future<T> winner, Consumer<T> discard) {
+        if (call == winner || call.cancel(true) || call.isCancelled()) {
+            return;
+        }
+        try {
+            discard.accept(call.get());
+        } catch (ExecutionException e) {
+            // The call failed: nothing to release.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the next call to complete, until the run deadline.
+     * @param <T> the result type.
+     * @param completionService the completion service running the calls.
+     * @return the completed call.
+     * @throws IOException if the run deadline passes.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    private <T> Future<T> take(CompletionService<T> completionService) throws IOException, InterruptedException {
+        var remaining = deadline.remaining();
+        if (remaining.isEmpty()) {
+            return completionService.take();
+        }
+        var completed = completionService.poll(remaining.get().toNanos(), TimeUnit.NANOSECONDS);
+        if (completed == null) {
+            throw new RunDeadlineExceededException(deadline.getTimeout().orElseThrow(), deadline.getPhase());
+        }
+        return completed;
+    }
+
+    /**
+     * Stops the threads running the hedged calls.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserves a duplicate call in the hedge budget.
+     * @return <code>true</code> if the duplicate call can be sent, <code>false</code> otherwise.
+     */
+    private boolean tryFireHedge() {
+        while (true) {
+            var fired = firedCount.get();
+            if (fired >= 1 + callCount.get() * HEDGE_BUDGET_PERCENT / 100) {
+                return false;
+            }
+            if (firedCount.compareAndSet(fired, fired + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * An idempotent read call.
+     * @param <T> the result type.
+     */
+    @FunctionalInterface
+    interface ReadCall<T> {
+        /**
+         * Runs the call.
+         * @return the result.
+         * @throws IOException if an error occurs.
+         */
+        T read() throws IOException;
+    }
+}
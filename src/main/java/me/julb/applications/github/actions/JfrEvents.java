@@ -0,0 +1,148 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events of the action. <br>
+ * They are committed only while a recording is running, so that they cost next to nothing otherwise.
+ * @author Julb.
+ */
+final class JfrEvents {
+
+    /**
+     * The category of the events.
+     */
+    private static final String CATEGORY = "Manage Milestone";
+
+    /**
+     * Private constructor.
+     */
+    private JfrEvents() {}
+
+    /**
+     * An API call, from the request to the response headers. <br>
+     * @author Julb.
+     */
+    @Name("me.julb.milestone.ApiCall")
+    @Label("API Call")
+    @Category(CATEGORY)
+    @Description("An API call sent to GitHub")
+    static class ApiCall extends Event {
+        /**
+         * The request method.
+         */
+        @Label("Method")
+        String method;
+
+        /**
+         * The endpoint.
+         */
+        @Label("Endpoint")
+        String endpoint;
+
+        /**
+         * The response status code, or <code>0</code> if the call failed without response.
+         */
+        @Label("Status")
+        int status;
+    }
+
+    /**
+     * A listing page fetched. <br>
+     * @author Julb.
+     */
+    @Name("me.julb.milestone.PageFetch")
+    @Label("Page Fetch")
+    @Category(CATEGORY)
+    @Description("A page of a listing fetched from GitHub")
+    static class PageFetch extends Event {
+        /**
+         * The endpoint.
+         */
+        @Label("Endpoint")
+        String endpoint;
+
+        /**
+         * The page number, <code>1</code> for the first page.
+         */
+        @Label("Page")
+        int page;
+    }
+
+    /**
+     * A milestone looked up by title or by selector. <br>
+     * @author Julb.
+     */
+    @Name("me.julb.milestone.MilestoneMatch")
+    @Label("Milestone Match")
+    @Category(CATEGORY)
+    @Description("A milestone looked up by title or by selector")
+    static class MilestoneMatch extends Event {
+        /**
+         * The title or selector looked up.
+         */
+        @Label("Title")
+        String title;
+
+        /**
+         * The number of the milestone matched, or <code>0</code> if none matched.
+         */
+        @Label("Number")
+        int number;
+    }
+
+    /**
+     * A write performed or skipped as the milestone or issue already had the value. <br>
+     * @author Julb.
+     */
+    @Name("me.julb.milestone.WriteDecision")
+    @Label("Write Decision")
+    @Category(CATEGORY)
+    @Description("A write performed, or skipped as the value is already set")
+    static class WriteDecision extends Event {
+        /**
+         * The field written: milestone, description, due_on, state or issue.
+         */
+        @Label("Field")
+        String field;
+
+        /**
+         * The milestone title or number, or the issue number.
+         */
+        @Label("Target")
+        String target;
+
+        /**
+         * <code>true</code> if the write was performed, <code>false</code> if skipped.
+         */
+        @Label("Performed")
+        boolean performed;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.NonNull;
+
+/**
+ * A connector emitting a {@link JfrEvents.ApiCall} event per API call, and a {@link JfrEvents.PageFetch} event per
+ * listing page.
+ * @author Julb.
+ */
+class JfrGitHubConnector implements GitHubConnector {
+
+    /**
+     * The pattern of the page query parameter.
+     */
+    private static final Pattern PAGE_PARAMETER = Pattern.compile("(?:^|&)page=(\\d+)");
+
+    /**
+     * The connector sending the calls.
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * Default constructor.
+     * @param delegate the connector sending the calls.
+     */
+    JfrGitHubConnector(@NonNull GitHubConnector delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        var apiCall = new JfrEvents.ApiCall();
+        var pageFetch = new JfrEvents.PageFetch();
+        apiCall.begin();
+        pageFetch.begin();
+        var status = 0;
+        try {
+            var response = delegate.send(connectorRequest);
+            status = response.statusCode();
+            return response;
+        } finally {
+            apiCall.end();
+            pageFetch.end();
+            if (apiCall.shouldCommit() || pageFetch.shouldCommit()) {
+                var method = connectorRequest.method();
+                var endpoint = MetricsGitHubConnector.toEndpoint(connectorRequest.url().getPath());
+                apiCall.method = method;
+                apiCall.endpoint = endpoint;
+                apiCall.status = status;
+                apiCall.commit();
+
+                if ("GET".equals(method)
+                        && status > 0
+                        && status < 400
+                        && MetricsGitHubConnector.LISTING_ENDPOINT.matcher(endpoint).matches()) {
+                    pageFetch.endpoint = endpoint;
+                    pageFetch.page = toPage(connectorRequest.url().getQuery());
+                    pageFetch.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the page number of a query.
+     * @param query the query, or <code>null</code> if none.
+     * @return the page number, <code>1</code> if not set.
+     */
+    static int toPage(String query) {
+        if (query == null) {
+            return 1;
+        }
+        var matcher = PAGE_PARAMETER.matcher(query);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+}
@@ -0,0 +1,645 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHMilestone;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import me.julb.sdk.github.actions.kit.GitHubActionsKit;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The command to import or export the milestones of several repositories as NDJSON. <br>
+ * Usage:
+ * <ul>
+ * <li><code>import &lt;file|-&gt; [checkpoint]</code>: applies the records read from the file or the standard input.
+ * The checkpoint file records the progress so that an interrupted import resumes where it stopped.</li>
+ * <li><code>export &lt;file|-&gt; &lt;owner/name&gt;...</code>: writes the milestones of the repositories to the file
+ * or the standard output.</li>
+ * <li><code>snapshot &lt;directory&gt; &lt;owner/name&gt;...</code>: refreshes the milestone snapshots of the
+ * repositories stored in the directory, and writes the changes since the previous snapshots to
+ * <code>delta.ndjson</code>.</li>
+ * <li><code>consume &lt;directory|file&gt;</code>: applies the milestone requests queued as NDJSON records, coalesced
+ * per milestone so that a burst of requests for the same milestone costs one write.</li>
+ * </ul>
+ * @author Julb.
+ */
+public class ManageMilestoneBulkCommand {
+
+    /**
+     * The page size when listing milestones.
+     */
+    static final int PAGE_SIZE = 100;
+
+    /**
+     * The number of repositories whose milestones are kept in memory.
+     */
+    static final int REPOSITORY_CACHE_SIZE = 64;
+
+    /**
+     * The GitHub action kit.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private GitHubActionsKit ghActionsKit = GitHubActionsKit.INSTANCE;
+
+    /**
+     * The GitHub API.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private GitHub ghApi;
+
+    /**
+     * The JSON mapper.
+     */
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+
+    /**
+     * The milestones of the recently imported repositories, by repository full name.
+     */
+    @SuppressWarnings("serial")
+    private final Map<String, RepositoryMilestones> repositories = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RepositoryMilestones> eldest) {
+            return size() > REPOSITORY_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The deduplication of the identical read calls in flight, shared by the commands run concurrently.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private SingleFlight singleFlight = SingleFlight.SHARED;
+
+    /**
+     * Executes the command.
+     * @param args the command arguments.
+     */
+    public void execute(@NonNull String[] args) {
+        try {
+            if (args.length >= 2 && "import".equals(args[0])) {
+                connectApi();
+                var checkpointPath = args.length > 2 ? Optional.of(Path.of(args[2])) : Optional.<Path>empty();
+                try (var reader = openReader(args[1])) {
+                    var importedCount = importMilestones(reader, checkpointPath);
+                    ghActionsKit.notice(String.format("imported %d milestone record(s).", importedCount));
+                }
+                debugSingleFlight();
+            } else if (args.length >= 3 && "export".equals(args[0])) {
+                // The workflow commands go to the standard error while the records are written to the standard output.
+                var stdout = System.out;
+                if ("-".equals(args[1])) {
+                    System.setOut(System.err);
+                }
+                try {
+                    connectApi();
+                    try (var writer = openWriter(args[1], stdout)) {
+                        var exportedCount = exportMilestones(writer, Arrays.asList(args).subList(2, args.length));
+                        ghActionsKit.notice(String.format("exported %d milestone record(s).", exportedCount));
+                    }
+                } finally {
+                    System.setOut(stdout);
+                }
+            } else if (args.length >= 3 && "snapshot".equals(args[0])) {
+                var ghAction = new ManageMilestoneGitHubAction();
+                ghAction.setGhActionsKit(ghActionsKit);
+                var connector = ghAction.createConnector();
+                var apiUrl = ghAction.getApiUrl();
+                var snapshotter = new MilestoneSnapshotter(
+                        connector, apiUrl, ghAction.createAuthorizationProvider(apiUrl, connector), objectMapper);
+                snapshotMilestones(snapshotter, Path.of(args[1]), Arrays.asList(args).subList(2, args.length));
+            } else if (args.length == 2 && "consume".equals(args[0])) {
+                connectApi();
+                var appliedCount = consumeMilestones(Path.of(args[1]));
+                ghActionsKit.notice(String.format("applied %d coalesced milestone request(s).", appliedCount));
+                debugSingleFlight();
+            } else {
+                throw new IllegalArgumentException("usage: import <file|-> [checkpoint]"
+                        + " | export <file|-> <owner/name>..."
+                        + " | snapshot <directory> <owner/name>..."
+                        + " | consume <directory|file>");
+            }
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Connects to GitHub API, the same way the action does.
+     * @throws IOException if an error occurs.
+     */
+    void connectApi() throws IOException {
+        if (ghApi == null) {
+            var ghAction = new ManageMilestoneGitHubAction();
+            ghAction.setGhActionsKit(ghActionsKit);
+            ghAction.setBulk(true);
+            ghAction.connectApi();
+            ghApi = ghAction.getGhApi();
+        }
+    }
+
+    /**
+     * Traces the number of reads which shared a read in flight.
+     */
+    void debugSingleFlight() {
+        ghActionsKit.debug(String.format(
+                "single-flight reads: [calls: %d, shared: %d]",
+                singleFlight.getCallCount(),
+                singleFlight.getSharedCount()));
+    }
+
+    /**
+     * Imports the NDJSON milestone records, with at most {@link ManageMilestoneGitHubAction#WRITE_PARALLELISM}
+     * concurrent records.
+     * @param reader the NDJSON reader.
+     * @param checkpointPath the checkpoint file, or {@link Optional#empty()} if the import cannot be resumed.
+     * @return the number of records imported.
+     * @throws IOException if an error occurs.
+     */
+    long importMilestones(@NonNull Reader reader, @NonNull Optional<Path> checkpointPath) throws IOException {
+        var checkpoint = MilestoneImportCheckpoint.load(checkpointPath);
+        var resumeIndex = checkpoint.getWatermark();
+        if (resumeIndex > 0) {
+            ghActionsKit.notice(String.format("resuming the import after %d record(s).", resumeIndex));
+        }
+
+        var permits = new Semaphore(ManageMilestoneGitHubAction.WRITE_PARALLELISM);
+        var failure = new AtomicReference<Exception>();
+        var executor = Executors.newFixedThreadPool(ManageMilestoneGitHubAction.WRITE_PARALLELISM);
+        try (MappingIterator<MilestoneRecord> records =
+                objectMapper.readerFor(MilestoneRecord.class).readValues(reader)) {
+            for (long index = 0; failure.get() == null && records.hasNextValue(); index++) {
+                var milestoneRecord = records.nextValue();
+                if (index < resumeIndex) {
+                    continue;
+                }
+
+                // Bound the records in flight so that the input is streamed.
+                var recordIndex = index;
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        importMilestone(milestoneRecord);
+                        checkpoint.complete(recordIndex);
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            executor.shutdownNow();
+            checkpoint.save();
+        }
+
+        if (failure.get() instanceof IOException ioException) {
+            throw ioException;
+        } else if (failure.get() != null) {
+            throw new IOException(failure.get());
+        }
+
+        return checkpoint.getWatermark() - resumeIndex;
+    }
+
+    /**
+     * Imports a milestone record through the create, update and delete logic of the action.<br>
+     * Records of the same milestone are applied one at a time, under the lock of the milestone, so that the writes do
+     * not block the records of the other milestones.
+     * @param milestoneRecord the milestone record.
+     * @throws IOException if an error occurs.
+     */
+    void importMilestone(@NonNull MilestoneRecord milestoneRecord) throws IOException {
+        if (milestoneRecord.getRepo() == null || milestoneRecord.getTitle() == null) {
+            throw new IllegalArgumentException(
+                    String.format("milestone record without repo or title: %s", milestoneRecord));
+        }
+
+        var repositoryMilestones = getRepositoryMilestones(milestoneRecord.getRepo());
+
+        var ghAction = new ManageMilestoneGitHubAction();
+        ghAction.setGhActionsKit(ghActionsKit);
+        ghAction.setGhApi(ghApi);
+        ghAction.setGhRepository(repositoryMilestones.getRepository());
+
+        var titleKey = repositoryMilestones.getTitleIndex().keyOf(milestoneRecord.getTitle());
+        var milestones = repositoryMilestones.getMilestones();
+        synchronized (repositoryMilestones.lockOf(titleKey)) {
+            var ghMilestone =
+                    applyMilestoneRecord(ghAction, milestoneRecord, Optional.ofNullable(milestones.get(titleKey)));
+            if (ghMilestone == null) {
+                milestones.remove(titleKey);
+            } else {
+                milestones.put(titleKey, ghMilestone);
+            }
+        }
+    }
+
+    /**
+     * Applies the milestone record.<br>
+     * A record without state leaves the state of the existing milestone unchanged, and creates an open milestone.
+     * @param ghAction the action bound to the repository of the record.
+     * @param milestoneRecord the milestone record.
+     * @param existingMilestone the existing milestone, or {@link Optional#empty()} if the milestone does not exist.
+     * @return the milestone after the record is applied, or <code>null</code> if the milestone is deleted.
+     * @throws IOException if an error occurs.
+     */
+    GHMilestone applyMilestoneRecord(
+            @NonNull ManageMilestoneGitHubAction ghAction,
+            @NonNull MilestoneRecord milestoneRecord,
+            @NonNull Optional<GHMilestone> existingMilestone)
+            throws IOException {
+        if (milestoneRecord.getState() == InputMilestoneState.DELETED) {
+            ghAction.deleteGHMilestone(existingMilestone);
+            return null;
+        }
+
+        // Skip the write if the milestone is up-to-date.
+        if (existingMilestone.isPresent()
+                && !ghAction.isGHMilestoneChanged(existingMilestone.get(), milestoneRecord)) {
+            return existingMilestone.get();
+        }
+
+        return ghAction.createGHMilestone(
+                milestoneRecord.getTitle(),
+                ManageMilestoneGitHubAction.toGHMilestoneState(milestoneRecord, existingMilestone),
+                Optional.ofNullable(milestoneRecord.getDescription()),
+                Optional.ofNullable(milestoneRecord.getDueOn()).map(ManageMilestoneGitHubAction::parseDueOn),
+                existingMilestone);
+    }
+
+    /**
+     * Applies the milestone requests of the queue, coalesced per milestone, then removes them from the queue.<br>
+     * The requests are NDJSON milestone records, read in order from the files of the queue directory sorted by name,
+     * or from the queue file. The requests are removed once applied only, so that a failed run leaves them to the
+     * next one.
+     * @param queue the queue directory or file.
+     * @return the number of milestones the requests were coalesced into.
+     * @throws IOException if an error occurs.
+     */
+    int consumeMilestones(@NonNull Path queue) throws IOException {
+        var queueFiles = claimQueueFiles(queue);
+
+        var coalescedRecords = new LinkedHashMap<String, List<MilestoneRecord>>();
+        long requestCount = 0;
+        for (Path queueFile : queueFiles) {
+            try (var reader = Files.newBufferedReader(queueFile, StandardCharsets.UTF_8);
+                    MappingIterator<MilestoneRecord> records =
+                            objectMapper.readerFor(MilestoneRecord.class).readValues(reader)) {
+                while (records.hasNextValue()) {
+                    coalesceMilestoneRecord(coalescedRecords, records.nextValue());
+                    requestCount++;
+                }
+            }
+        }
+        ghActionsKit.debug(String.format(
+                "queue: [files: %d, requests: %d, milestones: %d]",
+                queueFiles.size(),
+                requestCount,
+                coalescedRecords.size()));
+
+        var ghAction = new ManageMilestoneGitHubAction();
+        ghAction.setGhActionsKit(ghActionsKit);
+        ghAction.forEachConcurrently(coalescedRecords.values(), (List<MilestoneRecord> milestoneRecords) -> {
+            for (MilestoneRecord milestoneRecord : milestoneRecords) {
+                importMilestone(milestoneRecord);
+            }
+            return true;
+        });
+
+        for (Path queueFile : queueFiles) {
+            Files.delete(queueFile);
+        }
+        return coalescedRecords.size();
+    }
+
+    /**
+     * Claims the files of the queue.<br>
+     * A queue directory is claimed as is: the producers write each request file under a name starting with a dot or
+     * ending with <code>.tmp</code>, then rename it. A queue file is renamed with a <code>.processing</code> suffix so
+     * that the producers append to a new file; if a previous run left a claimed file, it is consumed first and the
+     * queue file is left to the next run.
+     * @param queue the queue directory or file.
+     * @return the claimed files, in consumption order.
+     * @throws IOException if an error occurs.
+     */
+    static List<Path> claimQueueFiles(@NonNull Path queue) throws IOException {
+        if (Files.isDirectory(queue)) {
+            try (var paths = Files.list(queue)) {
+                return paths.filter(Files::isRegularFile)
+                        .filter(path -> !path.getFileName().toString().startsWith("."))
+                        .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+
+        var claimedFile = queue.resolveSibling(queue.getFileName() + ".processing");
+        if (Files.notExists(claimedFile) && Files.exists(queue)) {
+            Files.move(queue, claimedFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return Files.exists(claimedFile) ? List.of(claimedFile) : List.of();
+    }
+
+    /**
+     * Coalesces the milestone request with the previous requests of the same milestone: each field set by the request
+     * overrides the previous value, and a deletion discards the previous requests. A request following a deletion is
+     * kept after it, so that the milestone is deleted then created again as when the requests are applied one by one.
+     * @param coalescedRecords the coalesced requests to apply in order, by repository and normalized title.
+     * @param milestoneRecord the milestone request.
+     */
+    static void coalesceMilestoneRecord(
+            @NonNull Map<String, List<MilestoneRecord>> coalescedRecords, @NonNull MilestoneRecord milestoneRecord) {
+        if (milestoneRecord.getRepo() == null || milestoneRecord.getTitle() == null) {
+            throw new IllegalArgumentException(
+                    String.format("milestone record without repo or title: %s", milestoneRecord));
+        }
+
+        var key = String.format(
+                "%s %s",
+                milestoneRecord.getRepo().toLowerCase(Locale.ROOT),
+                MilestoneTitleIndex.normalize(milestoneRecord.getTitle()));
+        coalescedRecords.merge(
+                key, List.of(milestoneRecord), (List<MilestoneRecord> previous, List<MilestoneRecord> latest) -> {
+                    if (milestoneRecord.getState() == InputMilestoneState.DELETED) {
+                        return latest;
+                    }
+                    var records = new ArrayList<MilestoneRecord>(previous);
+                    var last = records.get(records.size() - 1);
+                    if (last.getState() == InputMilestoneState.DELETED) {
+                        records.add(milestoneRecord);
+                    } else {
+                        records.set(
+                                records.size() - 1,
+                                new MilestoneRecord(
+                                        milestoneRecord.getRepo(),
+                                        milestoneRecord.getTitle(),
+                                        Optional.ofNullable(milestoneRecord.getState())
+                                                .orElse(last.getState()),
+                                        Optional.ofNullable(milestoneRecord.getDescription())
+                                                .orElse(last.getDescription()),
+                                        Optional.ofNullable(milestoneRecord.getDueOn())
+                                                .orElse(last.getDueOn())));
+                    }
+                    return records;
+                });
+    }
+
+    /**
+     * Gets the repository and its milestones, listing them once even if requested concurrently.
+     * @param repositoryName the repository full name.
+     * @return the repository and its milestones.
+     * @throws IOException if an error occurs.
+     */
+    RepositoryMilestones getRepositoryMilestones(@NonNull String repositoryName) throws IOException {
+        synchronized (repositories) {
+            var cached = repositories.get(repositoryName);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        return singleFlight.read(
+                () -> {
+                    // A concurrent call may have completed since the cache was checked.
+                    synchronized (repositories) {
+                        var cached = repositories.get(repositoryName);
+                        if (cached != null) {
+                            return cached;
+                        }
+                    }
+
+                    var ghRepository = ghApi.getRepository(repositoryName);
+                    var titleIndex = new MilestoneTitleIndex(
+                            ghRepository.listMilestones(GHIssueState.ALL).withPageSize(PAGE_SIZE));
+                    var milestones = new ConcurrentHashMap<String, GHMilestone>();
+                    for (Map.Entry<String, List<GHMilestone>> entry : titleIndex.getMilestonesByKey().entrySet()) {
+                        milestones.put(entry.getKey(), entry.getValue().get(0));
+                    }
+                    var repositoryMilestones = new RepositoryMilestones(ghRepository, titleIndex, milestones);
+                    synchronized (repositories) {
+                        repositories.put(repositoryName, repositoryMilestones);
+                    }
+                    return repositoryMilestones;
+                },
+                repositoryName,
+                "repositoryMilestones");
+    }
+
+    /**
+     * Exports the milestones of the repositories as NDJSON, one page at a time.
+     * @param writer the NDJSON writer.
+     * @param repositoryNames the repository full names.
+     * @return the number of records exported.
+     * @throws IOException if an error occurs.
+     */
+    long exportMilestones(@NonNull Writer writer, @NonNull List<String> repositoryNames) throws IOException {
+        long exportedCount = 0;
+        for (String repositoryName : repositoryNames) {
+            var ghRepository = ghApi.getRepository(repositoryName);
+            for (GHMilestone ghMilestone : ghRepository.listMilestones(GHIssueState.ALL).withPageSize(PAGE_SIZE)) {
+                writer.write(objectMapper.writeValueAsString(toMilestoneRecord(repositoryName, ghMilestone)));
+                writer.write('\n');
+                exportedCount++;
+            }
+            writer.flush();
+        }
+        return exportedCount;
+    }
+
+    /**
+     * Refreshes the milestone snapshots of the repositories, and writes the changes since the previous snapshots.
+     * @param snapshotter the snapshotter.
+     * @param directory the directory storing the snapshots.
+     * @param repositoryNames the repository full names.
+     * @return the number of changes.
+     * @throws IOException if an error occurs.
+     */
+    long snapshotMilestones(
+            @NonNull MilestoneSnapshotter snapshotter, @NonNull Path directory, @NonNull List<String> repositoryNames)
+            throws IOException {
+        long changeCount = 0;
+        Files.createDirectories(directory);
+        try (var deltaWriter = Files.newBufferedWriter(directory.resolve("delta.ndjson"), StandardCharsets.UTF_8)) {
+            for (String repositoryName : repositoryNames) {
+                var snapshotPath = directory.resolve(repositoryName + ".json");
+
+                // Load the previous snapshot, if any.
+                var previous = new MilestoneSnapshot();
+                previous.setRepo(repositoryName);
+                if (Files.exists(snapshotPath)) {
+                    previous = objectMapper.readValue(snapshotPath.toFile(), MilestoneSnapshot.class);
+                }
+
+                var current = snapshotter.refresh(previous);
+                for (MilestoneSnapshot.Change change : current.diff(previous)) {
+                    deltaWriter.write(objectMapper.writeValueAsString(change));
+                    deltaWriter.write('\n');
+                    changeCount++;
+                }
+
+                // Write then move so that an interrupted run keeps the previous snapshot.
+                Files.createDirectories(snapshotPath.getParent());
+                var tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+                objectMapper.writeValue(tempPath.toFile(), current);
+                Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        return changeCount;
+    }
+
+    /**
+     * Converts the {@link GHMilestone} to a milestone record.
+     * @param repositoryName the repository full name.
+     * @param ghMilestone the milestone.
+     * @return the milestone record.
+     */
+    MilestoneRecord toMilestoneRecord(@NonNull String repositoryName, @NonNull GHMilestone ghMilestone) {
+        return new MilestoneRecord(
+                repositoryName,
+                ghMilestone.getTitle(),
+                InputMilestoneState.valueOf(ghMilestone.getState().name()),
+                ghMilestone.getDescription(),
+                Optional.ofNullable(ghMilestone.getDueOn())
+                        .map(ManageMilestoneGitHubAction::formatDueOn)
+                        .orElse(null));
+    }
+
+    /**
+     * Opens a reader on the file, or on the standard input for <code>-</code>.
+     * @param file the file name.
+     * @return the reader.
+     * @throws IOException if an error occurs.
+     */
+    private Reader openReader(String file) throws IOException {
+        if ("-".equals(file)) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a writer on the file, or on the standard output for <code>-</code>.
+     * @param file the file name.
+     * @param stdout the standard output.
+     * @return the writer.
+     * @throws IOException if an error occurs.
+     */
+    private Writer openWriter(String file, PrintStream stdout) throws IOException {
+        if ("-".equals(file)) {
+            return new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A repository and its milestones indexed by normalized title. <br>
+     * @author Julb.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static class RepositoryMilestones {
+        /**
+         * The repository.
+         */
+        private final GHRepository repository;
+
+        /**
+         * The index of the milestones listed, detecting the ambiguous titles.
+         */
+        private final MilestoneTitleIndex titleIndex;
+
+        /**
+         * The milestones by normalized title, updated as the records are imported.
+         */
+        private final ConcurrentMap<String, GHMilestone> milestones;
+
+        /**
+         * The locks of the milestones, by normalized title.
+         */
+        @Getter(AccessLevel.NONE)
+        private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+
+        /**
+         * Gets the lock of the milestone, held while a record of the milestone is applied.
+         * @param titleKey the normalized title.
+         * @return the lock of the milestone.
+         */
+        Object lockOf(@NonNull String titleKey) {
+            return locks.computeIfAbsent(titleKey, key -> new Object());
+        }
+    }
+}
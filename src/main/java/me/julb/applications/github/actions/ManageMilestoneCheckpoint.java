@@ -0,0 +1,150 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+
+import me.julb.sdk.github.actions.kit.GitHubActionsKit;
+import me.julb.sdk.github.actions.spi.GitHubActionProvider;
+import me.julb.sdk.github.actions.spi.GitHubActionServiceLoader;
+
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.Setter;
+
+/**
+ * The command to warm the action up and checkpoint the JVM with CRaC. <br>
+ * Usage: <code>checkpoint [iterations]</code>. The action is executed the given number of times against a
+ * {@link CheckpointWarmUpResponder} listening on the loopback <code>GITHUB_API_URL</code>, so that its classes are
+ * loaded and its hot paths compiled, then the JVM is checkpointed. <br>
+ * Once restored, the action is executed once more for the run. Nothing tied to a run survives the checkpoint: the
+ * responder and its connections are closed beforehand, and a new action instance re-reads the inputs, the token and the
+ * environment of the restored process, and opens its own connections.
+ * @author Julb.
+ */
+public class ManageMilestoneCheckpoint {
+
+    /**
+     * The command name.
+     */
+    public static final String COMMAND = "checkpoint";
+
+    /**
+     * The default number of warm-up executions.
+     */
+    static final int DEFAULT_WARMUP_ITERATIONS = 200;
+
+    /**
+     * The GitHub action kit.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private GitHubActionsKit ghActionsKit = GitHubActionsKit.INSTANCE;
+
+    /**
+     * The factory of the action, called for each execution.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private Supplier<GitHubActionProvider> actionFactory =
+            () -> GitHubActionServiceLoader.getImplementation().orElseThrow();
+
+    /**
+     * Executes the command.
+     * @param args the command arguments.
+     */
+    public void execute(@NonNull String[] args) {
+        try {
+            var iterations = getWarmupIterations(args);
+            var apiUrl = URI.create(ghActionsKit.getGitHubApiUrl());
+            if (apiUrl.getHost() == null
+                    || apiUrl.getPort() < 0
+                    || !InetAddress.getByName(apiUrl.getHost()).isLoopbackAddress()) {
+                throw new IllegalArgumentException(
+                        String.format("GITHUB_API_URL must be a loopback address with a port: %s", apiUrl));
+            }
+
+            warmUp(apiUrl.getPort(), iterations);
+
+            ghActionsKit.debug("checkpoint: start.");
+            checkpointRestore();
+            ghActionsKit.debug("checkpoint: restored.");
+        } catch (CheckpointException | RestoreException | IOException e) {
+            throw new CompletionException(e);
+        }
+
+        actionFactory.get().execute();
+    }
+
+    /**
+     * Gets the number of warm-up executions.
+     * @param args the command arguments.
+     * @return the number of warm-up executions.
+     */
+    int getWarmupIterations(String[] args) {
+        if (args.length < 2) {
+            return DEFAULT_WARMUP_ITERATIONS;
+        }
+        var iterations = Integer.parseInt(args[1]);
+        if (iterations < 1) {
+            throw new IllegalArgumentException(String.format("iterations must be positive: %d", iterations));
+        }
+        return iterations;
+    }
+
+    /**
+     * Executes the action repeatedly against a warm-up responder.
+     * @param port the port of the responder.
+     * @param iterations the number of executions.
+     * @throws IOException if an error occurs.
+     */
+    void warmUp(int port, int iterations) throws IOException {
+        try (var responder = CheckpointWarmUpResponder.start(port)) {
+            for (var i = 0; i < iterations; i++) {
+                // Every other execution starts without milestone, to go through both the creation and the update.
+                if (i % 2 == 0) {
+                    responder.reset();
+                }
+                actionFactory.get().execute();
+            }
+            ghActionsKit.debug(String.format(
+                    "checkpoint warm-up: [executions: %d, requests: %d]", iterations, responder.getRequestCount()));
+        }
+    }
+
+    /**
+     * Checkpoints the JVM, and returns once restored.
+     * @throws CheckpointException if the checkpoint fails.
+     * @throws RestoreException if the restore fails.
+     */
+    void checkpointRestore() throws CheckpointException, RestoreException {
+        Core.checkpointRestore();
+    }
+}
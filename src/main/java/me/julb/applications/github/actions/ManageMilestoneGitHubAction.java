@@ -24,23 +24,68 @@
 package me.julb.applications.github.actions;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import org.kohsuke.github.GHIssue;
 import org.kohsuke.github.GHIssueState;
 import org.kohsuke.github.GHMilestone;
 import org.kohsuke.github.GHMilestoneState;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GitHub;
 import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.authorization.AuthorizationProvider;
+import org.kohsuke.github.authorization.ImmutableAuthorizationProvider;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.extras.HttpClientGitHubConnector;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 
 import me.julb.sdk.github.actions.kit.GitHubActionsKit;
 import me.julb.sdk.github.actions.spi.GitHubActionProvider;
 
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 
@@ -50,6 +95,32 @@ import lombok.Setter;
  */
 public class ManageMilestoneGitHubAction implements GitHubActionProvider {
 
+    /**
+     * The number of issues or milestones updated concurrently.
+     */
+    static final int WRITE_PARALLELISM = 4;
+
+    /**
+     * The page size when resolving a selector.
+     */
+    static final int SELECTOR_PAGE_SIZE = 100;
+
+    /**
+     * The page size when listing issues.
+     */
+    static final int ISSUE_PAGE_SIZE = 100;
+
+    /**
+     * The remaining API calls under which the client waits for the rate limit reset, when the run writes many issues
+     * or milestones.
+     */
+    static final int RATE_LIMIT_THRESHOLD = 100;
+
+    /**
+     * The number of bytes of the token hash keying the shared rate limit budget.
+     */
+    static final int RATE_LIMIT_BUDGET_KEY_HASH_LENGTH = 8;
+
     /**
      * The GitHub action kit.
      */
@@ -59,6 +130,7 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
     /**
      * The GitHub API.
      */
+    @Getter(AccessLevel.PACKAGE)
     @Setter(AccessLevel.PACKAGE)
     private GitHub ghApi;
 
@@ -68,12 +140,112 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
     @Setter(AccessLevel.PACKAGE)
     private GHRepository ghRepository;
 
+    /**
+     * The deadline of the run.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private RunDeadline deadline = RunDeadline.unbounded();
+
+    /**
+     * The reader hedging the <code>GET</code> calls of the connector.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private HedgedReader hedgedReader = HedgedReader.disabled();
+
+    /**
+     * The deduplication of the identical read calls in flight, shared by the actions run concurrently.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private SingleFlight singleFlight = SingleFlight.SHARED;
+
+    /**
+     * <code>true</code> if the calls of a bulk command are paced on the rate limit, <code>false</code> otherwise.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private boolean bulk;
+
+    /**
+     * The metrics of the run.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final ActionMetrics metrics = new ActionMetrics();
+
+    /**
+     * The connector recording the API calls, or <code>null</code> if not recording.
+     */
+    private CassetteRecordingGitHubConnector cassetteRecorder;
+
+    /**
+     * The server replaying the API calls, or <code>null</code> if not replaying.
+     */
+    private CassetteReplayServer cassetteReplayServer;
+
+    /**
+     * The Java Flight Recorder recording of the run, or <code>null</code> if not recording.
+     */
+    private Recording recording;
+
+    /**
+     * The executor running the calls started ahead of the inputs parsing.
+     */
+    private ExecutorService prefetchExecutor;
+
+    /**
+     * The connection to the repository started ahead, or <code>null</code> if not started.
+     */
+    private CompletableFuture<Void> prefetchedGHRepository;
+
+    /**
+     * The listing of the milestones started ahead, or <code>null</code> if not started or already consumed.
+     */
+    private CompletableFuture<List<GHMilestone>> prefetchedGHMilestones;
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void execute() {
         try {
+            // Profile the run.
+            startRecording();
+
+            // Bound the run.
+            var timeout = getInputTimeout();
+            if (timeout.isPresent()) {
+                deadline = new RunDeadline(timeout, Clock.systemUTC());
+            }
+            deadline.setPhaseListener(metrics::recordPhase);
+
+            // Hedge the GET calls, page by page.
+            var hedgeDelay = getInputHedgeDelay();
+            if (hedgeDelay.isPresent()) {
+                hedgedReader = new HedgedReader(hedgeDelay, deadline);
+            }
+
+            // Connect and list the milestones while the inputs are parsed.
+            startPrefetch();
+
+            // Reconciliation path.
+            var manifest = getInputManifest();
+            if (manifest.isPresent()) {
+                reconcileGHMilestones(manifest.get(), getInputPrune());
+                return;
+            }
+
+            // Schedule path.
+            var scheduleTitle = getInputScheduleTitle();
+            if (scheduleTitle.isPresent()) {
+                var schedule = new MilestoneSchedule(
+                        scheduleTitle.get(),
+                        getInputScheduleStart(),
+                        getInputScheduleCadence(),
+                        getInputScheduleHorizon(),
+                        getInputDescription());
+                reconcileGHMilestones(schedule.toMilestones(LocalDate.now(ZoneOffset.UTC)), false);
+                return;
+            }
+
             // Get inputs
             var milestoneTitle = getInputTitle();
             var milestoneState = getInputState();
@@ -89,13 +261,22 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
                     milestoneDueOnDate.map(Date::toString).orElse("")));
 
             // Read GitHub repository.
-            connectApi();
+            awaitGHRepository();
 
-            // Retrieve repository
-            ghRepository = ghApi.getRepository(ghActionsKit.getGitHubRepository());
-
-            // Get milestone
-            var existingGHMilestone = getGHMilestone(milestoneTitle);
+            // Get milestone, resolving the title if it is a selector.
+            deadline.enterPhase("lookup");
+            var milestoneSelector = MilestoneSelector.of(milestoneTitle);
+            Optional<GHMilestone> existingGHMilestone;
+            if (milestoneSelector.isPresent()) {
+                existingGHMilestone = resolveGHMilestone(milestoneSelector.get());
+                if (existingGHMilestone.isEmpty() && milestoneState != InputMilestoneState.DELETED) {
+                    throw new NoSuchElementException(
+                            String.format("no open milestone matches the selector: %s", milestoneTitle));
+                }
+                milestoneTitle = existingGHMilestone.map(GHMilestone::getTitle).orElse(milestoneTitle);
+            } else {
+                existingGHMilestone = getGHMilestone(milestoneTitle);
+            }
 
             // Creation path.
             if (milestoneState == InputMilestoneState.OPEN || milestoneState == InputMilestoneState.CLOSED) {
@@ -103,6 +284,7 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
                 var ghMilestoneState = GHMilestoneState.valueOf(milestoneState.name());
 
                 // Create milestone.
+                deadline.enterPhase("write");
                 var ghMilestone = createGHMilestone(
                         milestoneTitle,
                         ghMilestoneState,
@@ -110,17 +292,75 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
                         milestoneDueOnDate,
                         existingGHMilestone);
 
+                // Roll-over open issues of a closed milestone.
+                var movedCount = 0;
+                if (milestoneState == InputMilestoneState.CLOSED) {
+                    var rolloverTitle = getInputRolloverTo();
+                    if (rolloverTitle.isPresent()) {
+                        movedCount += rolloverGHMilestone(ghMilestone, rolloverTitle.get());
+                    }
+                }
+
+                // Assign issues matching the query.
+                var assignQuery = getInputAssignQuery();
+                if (assignQuery.isPresent()) {
+                    var assignedCount = assignGHMilestoneFromQuery(ghMilestone, assignQuery.get());
+                    movedCount += assignedCount;
+                    ghActionsKit.setOutput(OutputVars.ASSIGNED.key(), assignedCount);
+                }
+
+                // Read the issue counters again once issues were moved.
+                if (movedCount > 0) {
+                    ghMilestone = refreshGHMilestone(ghMilestone);
+                }
+
                 // Set output.
                 ghActionsKit.setOutput(OutputVars.NUMBER.key(), ghMilestone.getNumber());
+                setMilestoneOutputs(ghMilestone, ghMilestoneState, milestoneDescription, milestoneDueOnDate);
             } else {
                 // Delete milestone if exist
+                deadline.enterPhase("write");
                 deleteGHMilestone(existingGHMilestone);
 
                 // Set empty output.
                 ghActionsKit.setEmptyOutput(OutputVars.NUMBER.key());
+                ghActionsKit.setEmptyOutput(OutputVars.TITLE.key());
+                ghActionsKit.setEmptyOutput(OutputVars.OPEN_ISSUES.key());
+                ghActionsKit.setEmptyOutput(OutputVars.CLOSED_ISSUES.key());
+                ghActionsKit.setEmptyOutput(OutputVars.PROGRESS.key());
+                ghActionsKit.setEmptyOutput(OutputVars.URL.key());
+                ghActionsKit.setEmptyOutput(OutputVars.STATE.key());
+                ghActionsKit.setEmptyOutput(OutputVars.DUE_ON.key());
+                ghActionsKit.setEmptyOutput(OutputVars.MILESTONE.key());
             }
         } catch (Exception e) {
-            throw new CompletionException(e);
+            // The rate limit checker can only fail unchecked: report the underlying failure.
+            var failure = e instanceof UncheckedIOException uncheckedIOException ? uncheckedIOException.getCause() : e;
+
+            // Report the phase which ran out of time rather than the underlying timeout.
+            if (deadline.isExceeded() && !(failure instanceof RunDeadlineExceededException)) {
+                var deadlineException = new RunDeadlineExceededException(
+                        deadline.getTimeout().orElseThrow(), deadline.getPhase());
+                deadlineException.initCause(failure);
+                throw new CompletionException(deadlineException);
+            }
+            throw new CompletionException(failure);
+        } finally {
+            // Cancel the calls not awaited, e.g. when an input is invalid.
+            cancelPrefetch();
+
+            if (hedgedReader.isEnabled()) {
+                ghActionsKit.debug(String.format(
+                        "hedged reads: [calls: %d, fired: %d, won: %d]",
+                        hedgedReader.getCallCount(),
+                        hedgedReader.getFiredCount(),
+                        hedgedReader.getWonCount()));
+                hedgedReader.close();
+            }
+
+            writeMetrics();
+            closeCassette();
+            dumpRecording();
         }
     }
 
@@ -155,36 +395,554 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
      * @return the "due_on" input.
      */
     Optional<Date> getInputDueOn() {
-        return ghActionsKit.getInput("due_on").map((String dateStr) -> {
+        return ghActionsKit.getInput("due_on").map(ManageMilestoneGitHubAction::parseDueOn);
+    }
+
+    /**
+     * Gets the "rollover_to" input.
+     * @return the "rollover_to" input.
+     */
+    Optional<String> getInputRolloverTo() {
+        return ghActionsKit.getInput("rollover_to");
+    }
+
+    /**
+     * Gets the "assign_query" input.
+     * @return the "assign_query" input.
+     */
+    Optional<String> getInputAssignQuery() {
+        return ghActionsKit.getInput("assign_query");
+    }
+
+    /**
+     * Gets the "manifest" input.
+     * @return the "manifest" input.
+     */
+    Optional<Path> getInputManifest() {
+        return ghActionsKit.getInput("manifest").map(Path::of);
+    }
+
+    /**
+     * Gets the "prune" input.
+     * @return the "prune" input.
+     */
+    boolean getInputPrune() {
+        return ghActionsKit.getInput("prune").map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Gets the "schedule_title" input.
+     * @return the "schedule_title" input.
+     */
+    Optional<String> getInputScheduleTitle() {
+        return ghActionsKit.getInput("schedule_title");
+    }
+
+    /**
+     * Gets the "schedule_start" input.
+     * @return the "schedule_start" input.
+     */
+    LocalDate getInputScheduleStart() {
+        try {
+            return LocalDate.parse(ghActionsKit.getRequiredInput("schedule_start"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Gets the "schedule_cadence" input.
+     * @return the "schedule_cadence" input.
+     */
+    Period getInputScheduleCadence() {
+        try {
+            return Period.parse(ghActionsKit.getRequiredInput("schedule_cadence"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Gets the "schedule_horizon" input.
+     * @return the "schedule_horizon" input.
+     */
+    Period getInputScheduleHorizon() {
+        try {
+            return ghActionsKit.getInput("schedule_horizon").map(Period::parse).orElse(Period.ofMonths(3));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Parses a due date.
+     * @param dateStr the due date as <code>yyyy-MM-dd</code>.
+     * @return the due date set to 8:00am UTC.
+     */
+    static Date parseDueOn(@NonNull String dateStr) {
+        try {
+            // GitHub requires the date to be set to 8:00am
+            var instant = Instant.parse(String.format("%sT08:00:00.000Z", dateStr));
+            return Date.from(instant);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Formats the due date as <code>yyyy-MM-dd</code>, as in the "due_on" input.
+     * @param dueOn the due date.
+     * @return the formatted due date.
+     */
+    static String formatDueOn(@NonNull Date dueOn) {
+        return dueOn.toInstant().atOffset(ZoneOffset.UTC).toLocalDate().toString();
+    }
+
+    /**
+     * Gets the "app_id" input.
+     * @return the "app_id" input.
+     */
+    Optional<String> getInputAppId() {
+        return ghActionsKit.getInput("app_id");
+    }
+
+    /**
+     * Gets the "app_installation_id" input.
+     * @return the "app_installation_id" input.
+     */
+    Optional<Long> getInputAppInstallationId() {
+        return ghActionsKit.getInput("app_installation_id").map(Long::valueOf);
+    }
+
+    /**
+     * Gets the "timeout" input.
+     * @return the "timeout" input.
+     */
+    Optional<Duration> getInputTimeout() {
+        return ghActionsKit.getInput("timeout").map(timeout -> {
             try {
-                // GitHub requires the date to be set to 8:00am
-                var instant = Instant.parse(String.format("%sT08:00:00.000Z", dateStr));
-                return Date.from(instant);
+                var duration = Duration.parse(timeout);
+                if (duration.isNegative() || duration.isZero()) {
+                    throw new IllegalArgumentException(String.format("timeout must be positive: %s", timeout));
+                }
+                return duration;
             } catch (DateTimeParseException e) {
                 throw new IllegalArgumentException(e);
             }
         });
     }
 
+    /**
+     * Gets the "hedge_delay" input.
+     * @return the "hedge_delay" input.
+     */
+    Optional<Duration> getInputHedgeDelay() {
+        return ghActionsKit.getInput("hedge_delay").map(hedgeDelay -> {
+            try {
+                return Duration.parse(hedgeDelay);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(e);
+            }
+        });
+    }
+
+    /**
+     * Gets the "circuit_breaker_threshold" input.
+     * @return the "circuit_breaker_threshold" input.
+     */
+    Optional<Integer> getInputCircuitBreakerThreshold() {
+        return ghActionsKit.getInput("circuit_breaker_threshold").map(Integer::valueOf);
+    }
+
+    /**
+     * Gets the "circuit_breaker_slow_call" input.
+     * @return the "circuit_breaker_slow_call" input.
+     */
+    Duration getInputCircuitBreakerSlowCall() {
+        try {
+            return Duration.parse(ghActionsKit.getInput("circuit_breaker_slow_call").orElse("PT5S"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Gets the "metrics_file" input.
+     * @return the "metrics_file" input.
+     */
+    Optional<Path> getInputMetricsFile() {
+        return ghActionsKit.getInput("metrics_file").map(Path::of);
+    }
+
+    /**
+     * Gets the "rate_limit_budget_file" input.
+     * @return the "rate_limit_budget_file" input.
+     */
+    Optional<Path> getInputRateLimitBudgetFile() {
+        return ghActionsKit.getInput("rate_limit_budget_file").map(Path::of);
+    }
+
+    /**
+     * Gets the "jfr_file" input.
+     * @return the "jfr_file" input.
+     */
+    Optional<Path> getInputJfrFile() {
+        return ghActionsKit.getInput("jfr_file").map(Path::of);
+    }
+
+    /**
+     * Gets the "cassette_file" input.
+     * @return the "cassette_file" input.
+     */
+    Optional<Path> getInputCassetteFile() {
+        return ghActionsKit.getInput("cassette_file").map(Path::of);
+    }
+
+    /**
+     * Gets the "cassette_mode" input.
+     * @return the "cassette_mode" input.
+     */
+    InputCassetteMode getInputCassetteMode() {
+        return ghActionsKit.getEnumInput("cassette_mode", InputCassetteMode.class).orElse(InputCassetteMode.RECORD);
+    }
+
+    /**
+     * Creates the authorization provider: the GitHub App installation if an App is configured, the
+     * <code>GITHUB_TOKEN</code> otherwise.
+     * @param apiUrl the API URL the App installation token is minted from.
+     * @param connector the connector sending the calls minting the App installation token.
+     * @return the authorization provider.
+     */
+    AuthorizationProvider createAuthorizationProvider(@NonNull String apiUrl, @NonNull GitHubConnector connector) {
+        var appId = getInputAppId();
+        if (appId.isPresent()) {
+            ghActionsKit.debug("github api authentication: app installation.");
+            return new GitHubAppAuthorizationProvider(
+                    apiUrl,
+                    connector,
+                    appId.get(),
+                    ghActionsKit.getRequiredInput("app_private_key"),
+                    getInputAppInstallationId(),
+                    ghActionsKit.getGitHubRepository(),
+                    Clock.systemUTC());
+        }
+        return ImmutableAuthorizationProvider.fromOauthToken(ghActionsKit.getRequiredEnv("GITHUB_TOKEN"));
+    }
+
+    /**
+     * Gets the key of the credential owning the rate limit in the shared budget: the App installation ID, the App ID
+     * and the repository owner if the installation is the one of the repository, or a hash of the
+     * <code>GITHUB_TOKEN</code> otherwise. The token itself is never written to the budget file.
+     * @return the key of the credential owning the rate limit.
+     */
+    String getRateLimitBudgetKey() {
+        var appId = getInputAppId();
+        if (appId.isPresent()) {
+            var installationId = getInputAppInstallationId();
+            if (installationId.isPresent()) {
+                return String.format("installation-%d", installationId.get());
+            }
+            var owner = ghActionsKit.getGitHubRepository().split("/")[0];
+            return String.format("app-%s-%s", appId.get().strip(), owner);
+        }
+
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                    .digest(ghActionsKit.getRequiredEnv("GITHUB_TOKEN").getBytes(StandardCharsets.UTF_8));
+            return String.format("token-%s", HexFormat.of().formatHex(digest, 0, RATE_LIMIT_BUDGET_KEY_HASH_LENGTH));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the API URL: the URL of a local server replaying the cassette in replay mode, the GitHub API URL otherwise.
+     * @return the API URL.
+     * @throws IOException if the cassette cannot be read.
+     */
+    String getApiUrl() throws IOException {
+        var cassetteFile = getInputCassetteFile();
+        if (cassetteFile.isEmpty() || getInputCassetteMode() != InputCassetteMode.REPLAY) {
+            return ghActionsKit.getGitHubApiUrl();
+        }
+        if (cassetteReplayServer == null) {
+            cassetteReplayServer = CassetteReplayServer.start(ApiCassette.read(cassetteFile.get()));
+            ghActionsKit.debug(String.format(
+                    "cassette replayed: [file: %s, url: %s]", cassetteFile.get(), cassetteReplayServer.getUrl()));
+        }
+        return cassetteReplayServer.getUrl();
+    }
+
+    /**
+     * Creates the connector sending the calls: each call is bounded by the run deadline, is recorded to the cassette
+     * in record mode, is paced on the rate limit budget shared by the runs of the host if a budget file is configured,
+     * is sent again when slow if it is a <code>GET</code> call and hedging is enabled, emits flight recorder events
+     * while profiling, is recorded in the metrics if a metrics file is configured, and goes through a circuit breaker
+     * if a failure rate threshold is configured.
+     * @return the connector.
+     */
+    GitHubConnector createConnector() {
+        GitHubConnector connector = new RunDeadlineGitHubConnector(deadline, new HttpClientGitHubConnector());
+
+        if (getInputCassetteFile().isPresent() && getInputCassetteMode() == InputCassetteMode.RECORD) {
+            cassetteRecorder = new CassetteRecordingGitHubConnector(connector, ghActionsKit.getGitHubApiUrl());
+            connector = cassetteRecorder;
+        }
+
+        var rateLimitBudgetFile = getInputRateLimitBudgetFile();
+        if (rateLimitBudgetFile.isPresent()) {
+            var budget = new SharedRateLimitBudget(
+                    rateLimitBudgetFile.get(), getRateLimitBudgetKey(), RATE_LIMIT_THRESHOLD, Clock.systemUTC());
+            connector = new SharedBudgetGitHubConnector(
+                    connector,
+                    budget,
+                    deadline,
+                    ghActionsKit::debug);
+        }
+
+        if (hedgedReader.isEnabled()) {
+            connector = new HedgedGitHubConnector(connector, hedgedReader);
+        }
+
+        if (recording != null) {
+            connector = new JfrGitHubConnector(connector);
+        }
+
+        if (getInputMetricsFile().isPresent()) {
+            connector = new MetricsGitHubConnector(connector, metrics);
+        }
+
+        var circuitBreakerThreshold = getInputCircuitBreakerThreshold();
+        if (circuitBreakerThreshold.isPresent()) {
+            connector = new CircuitBreakerGitHubConnector(
+                    connector,
+                    circuitBreakerThreshold.get(),
+                    getInputCircuitBreakerSlowCall(),
+                    Clock.systemUTC(),
+                    ghActionsKit::debug);
+        }
+        return connector;
+    }
+
+    /**
+     * Writes the metrics of the run to the metrics file, if configured. A failure to write the metrics does not fail
+     * the run.
+     */
+    void writeMetrics() {
+        deadline.endPhase();
+        try {
+            var metricsFile = getInputMetricsFile();
+            if (metricsFile.isPresent()) {
+                metrics.write(metricsFile.get(), ghActionsKit.getGitHubRepository());
+                ghActionsKit.debug(String.format("metrics written: %s", metricsFile.get()));
+            }
+        } catch (IOException | RuntimeException e) {
+            ghActionsKit.notice(String.format("metrics not written: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Starts a Java Flight Recorder recording of the run if a recording file is configured, with the profile settings:
+     * execution and allocation sampling, garbage collections, and the events of the action.
+     * @throws IOException if the profile settings cannot be read.
+     * @throws ParseException if the profile settings cannot be parsed.
+     */
+    void startRecording() throws IOException, ParseException {
+        if (getInputJfrFile().isPresent() && FlightRecorder.isAvailable()) {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("gh-action-manage-milestone");
+            recording.setToDisk(true);
+            recording.start();
+            ghActionsKit.debug("flight recording: started.");
+        }
+    }
+
+    /**
+     * Dumps the recording of the run to the recording file, if recording. A failure to dump the recording does not fail
+     * the run.
+     */
+    void dumpRecording() {
+        if (recording != null) {
+            try (var runRecording = recording) {
+                runRecording.stop();
+                var jfrFile = getInputJfrFile().orElseThrow().toAbsolutePath();
+                Files.createDirectories(jfrFile.getParent());
+                runRecording.dump(jfrFile);
+                ghActionsKit.debug(String.format("flight recording dumped: %s", jfrFile));
+            } catch (IOException | RuntimeException e) {
+                ghActionsKit.notice(String.format("flight recording not dumped: %s", e.getMessage()));
+            } finally {
+                recording = null;
+            }
+        }
+    }
+
+    /**
+     * Writes the API calls recorded to the cassette file, or stops the server replaying them. A failure to write the
+     * cassette does not fail the run.
+     */
+    void closeCassette() {
+        if (cassetteReplayServer != null) {
+            ghActionsKit.debug(
+                    String.format("cassette replay: [calls not recorded: %d]", cassetteReplayServer.getMissCount()));
+            cassetteReplayServer.close();
+            cassetteReplayServer = null;
+        }
+        if (cassetteRecorder != null) {
+            try {
+                var cassetteFile = getInputCassetteFile().orElseThrow();
+                cassetteRecorder.getCassette().write(cassetteFile);
+                ghActionsKit.debug(String.format(
+                        "cassette recorded: [file: %s, calls: %d]",
+                        cassetteFile,
+                        cassetteRecorder.getCassette().getInteractions().size()));
+            } catch (IOException | RuntimeException e) {
+                ghActionsKit.notice(String.format("cassette not written: %s", e.getMessage()));
+            }
+        }
+    }
+
     /**
      * Connects to GitHub API.
      * @throws IOException if an error occurs.
      */
     void connectApi() throws IOException {
+        deadline.enterPhase("connect");
         ghActionsKit.debug("github api url connection: check.");
 
-        // Get token
-        var githubToken = ghActionsKit.getRequiredEnv("GITHUB_TOKEN");
+        // Get connector
+        var connector = createConnector();
+        var apiUrl = getApiUrl();
+
+        // Get authorization, minting the App installation token through the connector, e.g. from the cassette.
+        var authorizationProvider = createAuthorizationProvider(apiUrl, connector);
 
         // @formatter:off
-        ghApi = Optional.ofNullable(ghApi)
-                .orElse(new GitHubBuilder()
-                        .withEndpoint(ghActionsKit.getGitHubApiUrl())
-                        .withOAuthToken(githubToken)
-                        .build());
+        var ghApiBuilder = new GitHubBuilder()
+                .withEndpoint(apiUrl)
+                .withAuthorizationProvider(authorizationProvider)
+                .withConnector(connector)
+                .withRateLimitHandler(new RunDeadlineRateLimits.PrimaryLimitHandler(deadline, Clock.systemUTC()))
+                .withAbuseLimitHandler(new RunDeadlineRateLimits.SecondaryLimitHandler(deadline));
+        // @formatter:on
+
+        // Only a run writing many issues or milestones waits for the reset under the threshold: a few writes rather
+        // spend the calls left.
+        if (isRateLimitPaced()) {
+            ghApiBuilder.withRateLimitChecker(
+                    new RunDeadlineRateLimits.Checker(RATE_LIMIT_THRESHOLD, deadline, Clock.systemUTC()));
+        }
+        ghApi = Optional.ofNullable(ghApi).orElse(ghApiBuilder.build());
         ghApi.checkApiUrlValidity();
         ghActionsKit.debug("github api url connection: ok.");
-        // @formatter:on
+    }
+
+    /**
+     * Checks if the calls are paced on the rate limit: for a bulk command, a roll-over or an assignment from a query,
+     * which write many issues or milestones.
+     * @return <code>true</code> if the calls are paced on the rate limit, <code>false</code> otherwise.
+     */
+    boolean isRateLimitPaced() {
+        return bulk || getInputRolloverTo().isPresent() || getInputAssignQuery().isPresent();
+    }
+
+    /**
+     * Connects to GitHub API and retrieves the repository.
+     * @throws IOException if an error occurs.
+     */
+    void connectGHRepository() throws IOException {
+        connectApi();
+
+        deadline.enterPhase("repository");
+        var repositoryName = ghActionsKit.getGitHubRepository();
+        ghRepository = singleFlight.read(() -> ghApi.getRepository(repositoryName), repositoryName, "repository");
+    }
+
+    /**
+     * Starts the connection to the repository and the listing of its milestones in the background, so that the TLS
+     * handshake and the first calls overlap with the inputs parsing.
+     */
+    void startPrefetch() {
+        prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prefetchedGHRepository = CompletableFuture.runAsync(
+                () -> {
+                    try {
+                        connectGHRepository();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                prefetchExecutor);
+
+        // A selector is resolved from the open milestones only: the full listing is not needed.
+        if (ghActionsKit.getInput("title").flatMap(MilestoneSelector::of).isPresent()) {
+            return;
+        }
+        prefetchedGHMilestones = prefetchedGHRepository.thenApplyAsync(
+                ignored -> {
+                    try {
+                        return fetchGHMilestones();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                prefetchExecutor);
+    }
+
+    /**
+     * Waits for the connection to the repository started ahead, or connects if it was not started.
+     * @throws IOException if an error occurs.
+     */
+    void awaitGHRepository() throws IOException {
+        if (prefetchedGHRepository == null) {
+            connectGHRepository();
+        } else {
+            await(prefetchedGHRepository);
+        }
+    }
+
+    /**
+     * Cancels the calls started ahead and not awaited.
+     */
+    void cancelPrefetch() {
+        if (prefetchExecutor != null) {
+            prefetchedGHRepository.cancel(true);
+            if (prefetchedGHMilestones != null) {
+                prefetchedGHMilestones.cancel(true);
+            }
+            prefetchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the result of a call started ahead.
+     * @param <T> the result type.
+     * @param future the call.
+     * @return the result.
+     * @throws IOException if the call failed.
+     */
+    static <T> T await(@NonNull CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause() instanceof UncheckedIOException uncheckedIOException
+                    ? uncheckedIOException.getCause()
+                    : e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause);
+        }
     }
 
     /**
@@ -192,16 +950,101 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
      * @param title the milestone title to look for.
      * @return the {@link GHMilestone} for the given title if exists, <code>false</code> otherwise.
      * @throws IOException if an error occurs.
+     * @throws IllegalStateException if several milestones match the given title.
      */
     Optional<GHMilestone> getGHMilestone(@NonNull String title) throws IOException {
+        var event = new JfrEvents.MilestoneMatch();
+        event.begin();
+        var ghMilestone = new MilestoneTitleIndex(listGHMilestones()).get(title);
+        commitMilestoneMatch(event, title, ghMilestone);
+        return ghMilestone;
+    }
 
-        for (GHMilestone ghMilestone : ghRepository.listMilestones(GHIssueState.ALL)) {
-            if (ghMilestone.getTitle().equalsIgnoreCase(title)) {
-                return Optional.of(ghMilestone);
-            }
+    /**
+     * Commits a milestone match event, if recording.
+     * @param event the event, begun before the lookup.
+     * @param title the title or selector looked up.
+     * @param ghMilestone the milestone matched, or {@link Optional#empty()} if none matched.
+     */
+    static void commitMilestoneMatch(
+            @NonNull JfrEvents.MilestoneMatch event,
+            @NonNull String title,
+            @NonNull Optional<GHMilestone> ghMilestone) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.title = title;
+            event.number = ghMilestone.map(GHMilestone::getNumber).orElse(0);
+            event.commit();
         }
+    }
 
-        return Optional.empty();
+    /**
+     * Lists all the milestones of the repository. The first listing is the one started ahead, if any.
+     * @return the milestones of the repository.
+     * @throws IOException if an error occurs.
+     */
+    List<GHMilestone> listGHMilestones() throws IOException {
+        var prefetched = prefetchedGHMilestones;
+        if (prefetched != null) {
+            prefetchedGHMilestones = null;
+            return await(prefetched);
+        }
+        return fetchGHMilestones();
+    }
+
+    /**
+     * Fetches all the milestones of the repository, sharing the listing with the concurrent fetches of the same
+     * repository.
+     * @return the milestones of the repository.
+     * @throws IOException if an error occurs.
+     */
+    List<GHMilestone> fetchGHMilestones() throws IOException {
+        return singleFlight.read(
+                () -> {
+                    var ghMilestones = new ArrayList<GHMilestone>();
+                    for (GHMilestone ghMilestone : ghRepository.listMilestones(GHIssueState.ALL)) {
+                        ghMilestones.add(ghMilestone);
+                    }
+                    return List.copyOf(ghMilestones);
+                },
+                ghRepository.getFullName(),
+                "milestones",
+                GHIssueState.ALL);
+    }
+
+    /**
+     * Resolves the selector to an open milestone.<br>
+     * The API lists the milestones by ascending due date by default: the next due milestone is the first one with a
+     * due date, usually on the first page. An overdue milestone still open is the next due one, as it is the most
+     * urgent. The latest open milestone is found by scanning all the pages of the open milestones, the closed ones
+     * only being left out.
+     * @param selector the selector.
+     * @return the {@link GHMilestone} selected, or {@link Optional#empty()} if there is no open milestone matching.
+     * @throws IOException if an error occurs.
+     */
+    Optional<GHMilestone> resolveGHMilestone(@NonNull MilestoneSelector selector) throws IOException {
+        var event = new JfrEvents.MilestoneMatch();
+        event.begin();
+        Optional<GHMilestone> ghMilestone = singleFlight.read(
+                () -> {
+                    GHMilestone latestGHMilestone = null;
+                    for (GHMilestone ghMilestone :
+                            ghRepository.listMilestones(GHIssueState.OPEN).withPageSize(SELECTOR_PAGE_SIZE)) {
+                        if (selector == MilestoneSelector.NEXT_DUE && ghMilestone.getDueOn() != null) {
+                            return Optional.of(ghMilestone);
+                        } else if (selector == MilestoneSelector.LATEST_OPEN
+                                && (latestGHMilestone == null
+                                        || ghMilestone.getNumber() > latestGHMilestone.getNumber())) {
+                            latestGHMilestone = ghMilestone;
+                        }
+                    }
+                    return Optional.ofNullable(latestGHMilestone);
+                },
+                ghRepository.getFullName(),
+                "selector",
+                selector);
+        commitMilestoneMatch(event, selector.key(), ghMilestone);
+        return ghMilestone;
     }
 
     /**
@@ -227,6 +1070,7 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
             // The milestone does not exist: create
             ghActionsKit.notice("creating the milestone.");
             ghMilestoneManaged = ghRepository.createMilestone(title, description.orElse(null));
+            recordWriteDecision("milestone", title, true);
         } else {
             // The milestone already exists: update description
             ghActionsKit.notice("updating the milestone");
@@ -234,13 +1078,19 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
         }
 
         // update description
-        if (description.isPresent()) {
+        if (description.isPresent() && !description.get().equals(ghMilestoneManaged.getDescription())) {
             ghMilestoneManaged.setDescription(description.get());
+            recordWriteDecision("description", title, true);
+        } else if (description.isPresent()) {
+            recordWriteDecision("description", title, false);
         }
 
         // update due on
-        if (dueOn.isPresent()) {
+        if (dueOn.isPresent() && !dueOn.get().equals(ghMilestoneManaged.getDueOn())) {
             ghMilestoneManaged.setDueOn(dueOn.get());
+            recordWriteDecision("due_on", title, true);
+        } else if (dueOn.isPresent()) {
+            recordWriteDecision("due_on", title, false);
         }
 
         // update state
@@ -252,11 +1102,24 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
                 ghActionsKit.notice("updating the state => CLOSED");
                 ghMilestoneManaged.close();
             }
+            recordWriteDecision("state", title, true);
+        } else if (existingMilestone.isPresent()) {
+            recordWriteDecision("state", title, false);
         }
 
         return ghMilestoneManaged;
     }
 
+    /**
+     * Reads the {@link GHMilestone} again, e.g. to get its issue counters once issues were moved.
+     * @param milestone the {@link GHMilestone}.
+     * @return the {@link GHMilestone} read again.
+     * @throws IOException if an error occurs.
+     */
+    GHMilestone refreshGHMilestone(@NonNull GHMilestone milestone) throws IOException {
+        return ghRepository.getMilestone(milestone.getNumber());
+    }
+
     /**
      * Deletes the {@link GHMilestone} if any.
      * @param milestoneToDelete the {@link GHMilestone} to delete, or {@link Optional#empty()}.
@@ -268,9 +1131,455 @@ public class ManageMilestoneGitHubAction implements GitHubActionProvider {
             // The milestone exists: delete.
             ghActionsKit.notice("deleting the milestone.");
             milestoneToDelete.get().delete();
+            recordWriteDecision("milestone", Integer.toString(milestoneToDelete.get().getNumber()), true);
         } else {
             // The milestone does not exist, nothing to do.
             ghActionsKit.notice("skipping milestone deletion as it does not exist.");
+            recordWriteDecision("milestone", "", false);
+        }
+    }
+
+    /**
+     * Sets the milestone outputs, including the milestone as a JSON object, from the {@link GHMilestone} in memory so
+     * that no additional request is made.<br>
+     * The milestone is not read again after an update: the updated fields are the ones written. The issue counters are
+     * the ones of the milestone, read again beforehand if issues were moved.
+     * @param milestone the {@link GHMilestone}.
+     * @param state the milestone state written.
+     * @param description the milestone description written, or {@link Optional#empty()} if left unchanged.
+     * @param dueOn the milestone due on date written, or {@link Optional#empty()} if left unchanged.
+     * @throws IOException if an error occurs.
+     */
+    void setMilestoneOutputs(
+            @NonNull GHMilestone milestone,
+            @NonNull GHMilestoneState state,
+            @NonNull Optional<String> description,
+            @NonNull Optional<Date> dueOn)
+            throws IOException {
+        var url = Optional.ofNullable(milestone.getHtmlUrl()).map(URL::toString).orElse("");
+        var stateValue = state.name().toLowerCase(Locale.ROOT);
+        var dueOnValue = dueOn.or(() -> Optional.ofNullable(milestone.getDueOn()))
+                .map(ManageMilestoneGitHubAction::formatDueOn)
+                .orElse("");
+        var openIssues = milestone.getOpenIssues();
+        var closedIssues = milestone.getClosedIssues();
+        var progress = progressOf(openIssues, closedIssues);
+
+        var milestoneOutput = new LinkedHashMap<String, Object>();
+        milestoneOutput.put("number", milestone.getNumber());
+        milestoneOutput.put("title", milestone.getTitle());
+        milestoneOutput.put("description", description.orElseGet(milestone::getDescription));
+        milestoneOutput.put("state", stateValue);
+        milestoneOutput.put("due_on", dueOnValue.isEmpty() ? null : dueOnValue);
+        milestoneOutput.put("url", url);
+        milestoneOutput.put("open_issues", openIssues);
+        milestoneOutput.put("closed_issues", closedIssues);
+        milestoneOutput.put("progress", progress);
+
+        ghActionsKit.setOutput(OutputVars.TITLE.key(), milestone.getTitle());
+        ghActionsKit.setOutput(OutputVars.URL.key(), url);
+        ghActionsKit.setOutput(OutputVars.STATE.key(), stateValue);
+        ghActionsKit.setOutput(OutputVars.DUE_ON.key(), dueOnValue);
+        ghActionsKit.setOutput(OutputVars.MILESTONE.key(), new ObjectMapper().writeValueAsString(milestoneOutput));
+        ghActionsKit.setOutput(OutputVars.OPEN_ISSUES.key(), openIssues);
+        ghActionsKit.setOutput(OutputVars.CLOSED_ISSUES.key(), closedIssues);
+        ghActionsKit.setOutput(OutputVars.PROGRESS.key(), progress);
+    }
+
+    /**
+     * Computes the progress of a milestone from its issue counters.
+     * @param openIssues the number of open issues.
+     * @param closedIssues the number of closed issues.
+     * @return the percentage of closed issues, or <code>0</code> if the milestone has no issue.
+     */
+    static int progressOf(int openIssues, int closedIssues) {
+        var totalIssues = openIssues + closedIssues;
+        return totalIssues == 0 ? 0 : (closedIssues * 100) / totalIssues;
+    }
+
+    /**
+     * Moves the open issues and pull requests of the given {@link GHMilestone} to the milestone with the given title.
+     * @param milestoneToRollover the {@link GHMilestone} whose open issues are moved.
+     * @param targetTitle the title of the milestone receiving the open issues.
+     * @return the number of issues moved.
+     * @throws IOException if an error occurs.
+     */
+    int rolloverGHMilestone(@NonNull GHMilestone milestoneToRollover, @NonNull String targetTitle)
+            throws IOException {
+        deadline.enterPhase("rollover");
+        var targetMilestone = getGHMilestone(targetTitle)
+                .orElseThrow(() ->
+                        new NoSuchElementException(String.format("roll-over milestone not found: %s", targetTitle)));
+
+        // The open issues are listed page by page as they are moved. Moving them shifts the next pages of the listing,
+        // so it is listed again until no issue is left to move.
+        var movedCount = 0;
+        var passCount = 0;
+        do {
+            var openIssues = ghRepository.queryIssues()
+                    .milestone(Integer.toString(milestoneToRollover.getNumber()))
+                    .state(GHIssueState.OPEN)
+                    .list()
+                    .withPageSize(ISSUE_PAGE_SIZE);
+            passCount = assignGHIssues(openIssues, targetMilestone);
+            movedCount += passCount;
+        } while (passCount > 0);
+
+        ghActionsKit.notice(String.format(
+                "rolled over %d open issue(s) from milestone '%s' to '%s'.",
+                movedCount,
+                milestoneToRollover.getTitle(),
+                targetMilestone.getTitle()));
+
+        return movedCount;
+    }
+
+    /**
+     * Assigns the issues and pull requests of the repository matching the search query to the {@link GHMilestone}.
+     * @param milestone the {@link GHMilestone} to assign the issues to.
+     * @param query the search query, in GitHub search syntax.
+     * @return the number of issues assigned.
+     * @throws IOException if an error occurs.
+     */
+    int assignGHMilestoneFromQuery(@NonNull GHMilestone milestone, @NonNull String query) throws IOException {
+        deadline.enterPhase("assign");
+
+        // Restrict the search to the current repository.
+        var searchQuery = String.format("repo:%s %s", ghRepository.getFullName(), query);
+        ghActionsKit.debug(String.format("assign query: %s", searchQuery));
+
+        var assignedCount = assignGHIssues(ghApi.searchIssues().q(searchQuery).list(), milestone);
+
+        ghActionsKit.notice(String.format(
+                "assigned %d issue(s) matching the query to milestone '%s'.", assignedCount, milestone.getTitle()));
+
+        return assignedCount;
+    }
+
+    /**
+     * Records a write decision: a skipped write is counted in the metrics, and each decision emits a flight recorder
+     * event if recording.
+     * @param field the field written: milestone, description, due_on, state or issue.
+     * @param target the milestone title or number, or the issue number.
+     * @param performed <code>true</code> if the write was performed, <code>false</code> if skipped.
+     */
+    void recordWriteDecision(@NonNull String field, @NonNull String target, boolean performed) {
+        if (!performed) {
+            metrics.recordWriteSkipped();
+        }
+        var event = new JfrEvents.WriteDecision();
+        if (event.shouldCommit()) {
+            event.field = field;
+            event.target = target;
+            event.performed = performed;
+            event.commit();
         }
     }
+
+    /**
+     * Assigns the given issues to the {@link GHMilestone}, with at most {@link #WRITE_PARALLELISM} concurrent updates.
+     * Issues already assigned to the milestone are skipped.
+     * @param issues the issues to assign.
+     * @param milestone the {@link GHMilestone} to assign the issues to.
+     * @return the number of issues assigned.
+     * @throws IOException if an error occurs.
+     */
+    int assignGHIssues(@NonNull Iterable<GHIssue> issues, @NonNull GHMilestone milestone) throws IOException {
+        return forEachConcurrently(issues, (GHIssue ghIssue) -> {
+            // Skip issues already assigned.
+            var ghIssueMilestone = ghIssue.getMilestone();
+            if (ghIssueMilestone != null && ghIssueMilestone.getNumber() == milestone.getNumber()) {
+                recordWriteDecision("issue", Integer.toString(ghIssue.getNumber()), false);
+                return false;
+            }
+
+            ghIssue.setMilestone(milestone);
+            recordWriteDecision("issue", Integer.toString(ghIssue.getNumber()), true);
+            return true;
+        });
+    }
+
+    /**
+     * Reconciles the milestones of the repository with the ones declared in the manifest.
+     * @param manifestPath the path to the YAML manifest.
+     * @param prune <code>true</code> to delete the milestones not in the manifest, <code>false</code> otherwise.
+     * @throws IOException if an error occurs.
+     */
+    void reconcileGHMilestones(@NonNull Path manifestPath, boolean prune) throws IOException {
+        // Read manifest.
+        var desiredMilestones = readManifest(manifestPath);
+        ghActionsKit.debug(String.format(
+                "parameters: [manifest: %s, milestones: %d, prune: %s]",
+                manifestPath,
+                desiredMilestones.size(),
+                prune));
+
+        reconcileGHMilestones(desiredMilestones, prune);
+    }
+
+    /**
+     * Reconciles the milestones of the repository with the desired ones.
+     * @param desiredMilestones the desired milestones.
+     * @param prune <code>true</code> to delete the milestones not desired, <code>false</code> otherwise.
+     * @throws IOException if an error occurs.
+     */
+    void reconcileGHMilestones(@NonNull List<MilestoneManifestEntry> desiredMilestones, boolean prune)
+            throws IOException {
+        // Read GitHub repository.
+        awaitGHRepository();
+
+        // Compute and apply the changes.
+        var changes = planGHMilestoneChanges(desiredMilestones, prune);
+        ghActionsKit.setOutput(OutputVars.PLAN.key(), formatGHMilestoneChanges(changes));
+
+        var appliedCount = applyGHMilestoneChanges(changes);
+        ghActionsKit.setOutput(OutputVars.APPLIED.key(), appliedCount);
+    }
+
+    /**
+     * Reads the milestones declared in the manifest.
+     * @param manifestPath the path to the YAML manifest.
+     * @return the milestones declared in the manifest.
+     * @throws IOException if an error occurs.
+     */
+    List<MilestoneManifestEntry> readManifest(@NonNull Path manifestPath) throws IOException {
+        var yamlMapper = YAMLMapper.builder()
+                .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+                .build();
+        List<MilestoneManifestEntry> entries =
+                yamlMapper.readValue(manifestPath.toFile(), new TypeReference<List<MilestoneManifestEntry>>() {});
+
+        var titles = new HashSet<String>();
+        for (MilestoneManifestEntry entry : entries) {
+            if (entry.getTitle() == null || entry.getTitle().isBlank()) {
+                throw new IllegalArgumentException("manifest milestone without title.");
+            }
+            if (!titles.add(MilestoneTitleIndex.normalize(entry.getTitle()))) {
+                throw new IllegalArgumentException(
+                        String.format("manifest milestone declared twice: %s", entry.getTitle()));
+            }
+            if (entry.getState() == null) {
+                entry.setState(InputMilestoneState.OPEN);
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Computes the changes to apply to reach the desired milestones, from a single listing of the milestones.
+     * @param desiredMilestones the desired milestones.
+     * @param prune <code>true</code> to delete the milestones not desired, <code>false</code> otherwise.
+     * @return the changes to apply.
+     * @throws IOException if an error occurs.
+     */
+    List<MilestoneChange> planGHMilestoneChanges(
+            @NonNull List<MilestoneManifestEntry> desiredMilestones, boolean prune) throws IOException {
+        deadline.enterPhase("plan");
+
+        // Index existing milestones.
+        var existingMilestones = new MilestoneTitleIndex(listGHMilestones());
+
+        var changes = new ArrayList<MilestoneChange>();
+        var desiredTitles = new HashMap<String, MilestoneManifestEntry>();
+        for (MilestoneManifestEntry desiredMilestone : desiredMilestones) {
+            desiredTitles.put(existingMilestones.keyOf(desiredMilestone.getTitle()), desiredMilestone);
+
+            var existingMilestone = existingMilestones.get(desiredMilestone.getTitle());
+            MilestoneChangeType changeType = null;
+            if (desiredMilestone.getState() == InputMilestoneState.DELETED) {
+                changeType = existingMilestone.isPresent() ? MilestoneChangeType.DELETE : null;
+            } else if (existingMilestone.isEmpty()) {
+                changeType = MilestoneChangeType.CREATE;
+            } else if (isGHMilestoneChanged(existingMilestone.get(), desiredMilestone)) {
+                changeType = MilestoneChangeType.UPDATE;
+            }
+
+            if (changeType != null) {
+                changes.add(new MilestoneChange(
+                        changeType, desiredMilestone.getTitle(), Optional.of(desiredMilestone), existingMilestone));
+            }
+        }
+
+        // Delete milestones not desired.
+        if (prune) {
+            for (Map.Entry<String, List<GHMilestone>> existingMilestone :
+                    existingMilestones.getMilestonesByKey().entrySet()) {
+                if (!desiredTitles.containsKey(existingMilestone.getKey())) {
+                    for (GHMilestone ghMilestone : existingMilestone.getValue()) {
+                        changes.add(new MilestoneChange(
+                                MilestoneChangeType.DELETE,
+                                ghMilestone.getTitle(),
+                                Optional.empty(),
+                                Optional.of(ghMilestone)));
+                    }
+                }
+            }
+        }
+
+        return changes;
+    }
+
+    /**
+     * Checks if the existing {@link GHMilestone} differs from the desired one.
+     * @param existingMilestone the existing milestone.
+     * @param desiredMilestone the desired milestone.
+     * @return <code>true</code> if the milestone needs to be updated, <code>false</code> otherwise.
+     */
+    boolean isGHMilestoneChanged(
+            @NonNull GHMilestone existingMilestone, @NonNull MilestoneManifestEntry desiredMilestone) {
+        if (desiredMilestone.getState() != null
+                && !existingMilestone.getState().name().equals(desiredMilestone.getState().name())) {
+            return true;
+        }
+        if (desiredMilestone.getDescription() != null
+                && !desiredMilestone.getDescription().equals(existingMilestone.getDescription())) {
+            return true;
+        }
+        return desiredMilestone.getDueOn() != null
+                && !parseDueOn(desiredMilestone.getDueOn()).equals(existingMilestone.getDueOn());
+    }
+
+    /**
+     * Applies the changes to the milestones, with at most {@link #WRITE_PARALLELISM} concurrent changes.
+     * @param changes the changes to apply.
+     * @return the number of changes applied.
+     * @throws IOException if an error occurs.
+     */
+    int applyGHMilestoneChanges(@NonNull List<MilestoneChange> changes) throws IOException {
+        deadline.enterPhase("apply");
+        return forEachConcurrently(changes, (MilestoneChange change) -> {
+            if (change.getType() == MilestoneChangeType.DELETE) {
+                deleteGHMilestone(change.getExistingMilestone());
+            } else {
+                var desiredMilestone = change.getDesiredMilestone().orElseThrow();
+                createGHMilestone(
+                        desiredMilestone.getTitle(),
+                        toGHMilestoneState(desiredMilestone, change.getExistingMilestone()),
+                        Optional.ofNullable(desiredMilestone.getDescription()),
+                        Optional.ofNullable(desiredMilestone.getDueOn()).map(ManageMilestoneGitHubAction::parseDueOn),
+                        change.getExistingMilestone());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Gets the state to write for the desired milestone: the desired state if any, the state of the existing milestone
+     * otherwise, or open if the milestone does not exist.
+     * @param desiredMilestone the desired milestone.
+     * @param existingMilestone the existing milestone, or {@link Optional#empty()} if the milestone does not exist.
+     * @return the state to write.
+     */
+    static GHMilestoneState toGHMilestoneState(
+            @NonNull MilestoneManifestEntry desiredMilestone, @NonNull Optional<GHMilestone> existingMilestone) {
+        return Optional.ofNullable(desiredMilestone.getState())
+                .map(state -> GHMilestoneState.valueOf(state.name()))
+                .or(() -> existingMilestone.map(GHMilestone::getState))
+                .orElse(GHMilestoneState.OPEN);
+    }
+
+    /**
+     * Formats the changes as a JSON array.
+     * @param changes the changes.
+     * @return the JSON representation of the changes.
+     * @throws IOException if an error occurs.
+     */
+    String formatGHMilestoneChanges(@NonNull List<MilestoneChange> changes) throws IOException {
+        var plan = new ArrayList<Map<String, String>>();
+        for (MilestoneChange change : changes) {
+            var planEntry = new LinkedHashMap<String, String>();
+            planEntry.put("action", change.getType().name().toLowerCase(Locale.ROOT));
+            planEntry.put("title", change.getTitle());
+            plan.add(planEntry);
+        }
+        return new ObjectMapper().writeValueAsString(plan);
+    }
+
+    /**
+     * Applies the operation to the items, with at most {@link #WRITE_PARALLELISM} concurrent operations.<br>
+     * The next item is only taken once an operation completes, so that a paged listing is fetched as the items are
+     * processed. The outstanding operations are cancelled when the run deadline passes.
+     * @param <T> the item type.
+     * @param items the items.
+     * @param operation the operation to apply.
+     * @return the number of items for which the operation returned <code>true</code>.
+     * @throws IOException if an error occurs.
+     */
+    <T> int forEachConcurrently(@NonNull Iterable<T> items, @NonNull ItemOperation<T> operation) throws IOException {
+        var executor = Executors.newFixedThreadPool(WRITE_PARALLELISM);
+        var permits = new Semaphore(WRITE_PARALLELISM);
+        var count = new AtomicInteger();
+        var failure = new AtomicReference<Exception>();
+        try {
+            for (T item : items) {
+                acquire(permits, 1);
+                if (failure.get() != null) {
+                    break;
+                }
+                executor.execute(() -> {
+                    try {
+                        deadline.check();
+                        if (operation.apply(item)) {
+                            count.incrementAndGet();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+
+            // Wait for the operations in flight.
+            acquire(permits, WRITE_PARALLELISM);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var cause = failure.get() instanceof UncheckedIOException uncheckedIOException
+                ? uncheckedIOException.getCause()
+                : failure.get();
+        if (cause instanceof IOException ioException) {
+            throw ioException;
+        } else if (cause != null) {
+            throw new IOException(cause);
+        }
+        return count.get();
+    }
+
+    /**
+     * Acquires the permits, waiting at most for the time left before the run deadline.
+     * @param permits the permits of the operations in flight.
+     * @param permitCount the number of permits to acquire.
+     * @throws InterruptedException if the thread is interrupted.
+     * @throws RunDeadlineExceededException if the run deadline passes.
+     */
+    private void acquire(Semaphore permits, int permitCount)
+            throws InterruptedException, RunDeadlineExceededException {
+        var remaining = deadline.remaining();
+        if (remaining.isEmpty()) {
+            permits.acquire(permitCount);
+        } else if (!permits.tryAcquire(permitCount, remaining.get().toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new RunDeadlineExceededException(deadline.getTimeout().orElseThrow(), deadline.getPhase());
+        }
+    }
+
+    /**
+     * An operation applied to an item.
+     * @param <T> the item type.
+     */
+    @FunctionalInterface
+    interface ItemOperation<T> {
+        /**
+         * Applies the operation.
+         * @param item the item.
+         * @return <code>true</code> if the item was changed, <code>false</code> otherwise.
+         * @throws IOException if an error occurs.
+         */
+        boolean apply(T item) throws IOException;
+    }
 }
@@ -0,0 +1,147 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.NonNull;
+
+/**
+ * A connector recording the API calls in the {@link ActionMetrics}. <br>
+ * A call is counted as a retry when the previous attempt of the same call failed, which is how the client retries.
+ * @author Julb.
+ */
+class MetricsGitHubConnector implements GitHubConnector {
+
+    /**
+     * The pattern of the numeric path segments.
+     */
+    private static final Pattern NUMBER_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    /**
+     * The pattern of the repository path segments.
+     */
+    private static final Pattern REPOSITORY_SEGMENTS = Pattern.compile("/repos/[^/]+/[^/]+");
+
+    /**
+     * The pattern of the listing endpoints.
+     */
+    static final Pattern LISTING_ENDPOINT = Pattern.compile(".*(/repos/\\{owner}/\\{repo}/[a-z_]+|/search/.+)");
+
+    /**
+     * The pattern of the milestone and issue write endpoints.
+     */
+    static final Pattern WRITE_ENDPOINT =
+            Pattern.compile(".*/repos/\\{owner}/\\{repo}/(milestones|issues)(/\\{number})?");
+
+    /**
+     * The connector sending the calls.
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * The metrics.
+     */
+    private final ActionMetrics metrics;
+
+    /**
+     * The calls whose last attempt failed.
+     */
+    private final Set<String> failedCalls = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Default constructor.
+     * @param delegate the connector sending the calls.
+     * @param metrics the metrics.
+     */
+    MetricsGitHubConnector(@NonNull GitHubConnector delegate, @NonNull ActionMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        var method = connectorRequest.method();
+        var call = method + " " + connectorRequest.url();
+        var endpoint = toEndpoint(connectorRequest.url().getPath());
+        if (failedCalls.remove(call)) {
+            metrics.recordRetry();
+        }
+
+        try {
+            var response = delegate.send(connectorRequest);
+            var status = response.statusCode();
+            metrics.recordApiCall(method, endpoint, status);
+
+            recordRateLimitRemaining(response.header("X-RateLimit-Remaining"));
+
+            if (status >= 500 || status == 403 || status == 429) {
+                failedCalls.add(call);
+            } else if ("GET".equals(method) && LISTING_ENDPOINT.matcher(endpoint).matches()) {
+                metrics.recordPage(endpoint);
+            } else if (!"GET".equals(method) && status < 400 && WRITE_ENDPOINT.matcher(endpoint).matches()) {
+                metrics.recordWritePerformed();
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            metrics.recordApiCall(method, endpoint, 0);
+            failedCalls.add(call);
+            throw e;
+        }
+    }
+
+    /**
+     * Records the number of API calls remaining in the rate limit, if the header is valid.
+     * @param remaining the rate limit header, or <code>null</code> if absent.
+     */
+    private void recordRateLimitRemaining(String remaining) {
+        if (remaining != null) {
+            try {
+                metrics.recordRateLimitRemaining(Long.parseLong(remaining.strip()));
+            } catch (NumberFormatException e) {
+                // Not a rate limited endpoint.
+            }
+        }
+    }
+
+    /**
+     * Gets the endpoint of a path, replacing the path parameters by placeholders to bound the number of endpoints.
+     * @param path the path.
+     * @return the endpoint.
+     */
+    static String toEndpoint(@NonNull String path) {
+        var endpoint = REPOSITORY_SEGMENTS.matcher(path).replaceFirst("/repos/{owner}/{repo}");
+        return NUMBER_SEGMENT.matcher(endpoint).replaceAll("/{number}");
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.Optional;
+
+import org.kohsuke.github.GHMilestone;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A change to apply to a milestone. <br>
+ * @author Julb.
+ */
+@Getter
+@RequiredArgsConstructor
+class MilestoneChange {
+    /**
+     * The change type.
+     */
+    @NonNull
+    private final MilestoneChangeType type;
+
+    /**
+     * The milestone title.
+     */
+    @NonNull
+    private final String title;
+
+    /**
+     * The desired milestone, or {@link Optional#empty()} when the milestone is pruned.
+     */
+    @NonNull
+    private final Optional<MilestoneManifestEntry> desiredMilestone;
+
+    /**
+     * The existing milestone, or {@link Optional#empty()} when the milestone is created.
+     */
+    @NonNull
+    private final Optional<GHMilestone> existingMilestone;
+}
@@ -0,0 +1,133 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import lombok.NonNull;
+
+/**
+ * The checkpoint of an import, tracking the number of leading records fully imported. <br>
+ * Records complete out of order when imported concurrently: the checkpoint only moves past a record once all the
+ * previous ones are imported, so a resumed import never skips a record.
+ * @author Julb.
+ */
+class MilestoneImportCheckpoint {
+    /**
+     * The number of completions between two saves.
+     */
+    static final int SAVE_INTERVAL = 100;
+
+    /**
+     * The checkpoint file, or {@link Optional#empty()} if the checkpoint is not persisted.
+     */
+    private final Optional<Path> path;
+
+    /**
+     * The number of leading records imported.
+     */
+    private long watermark;
+
+    /**
+     * The records imported after the watermark.
+     */
+    private final Set<Long> completedAfterWatermark = new HashSet<>();
+
+    /**
+     * The number of completions since the last save.
+     */
+    private int unsavedCompletions;
+
+    /**
+     * Default constructor.
+     * @param path the checkpoint file, or {@link Optional#empty()} if the checkpoint is not persisted.
+     * @param watermark the number of leading records imported.
+     */
+    MilestoneImportCheckpoint(@NonNull Optional<Path> path, long watermark) {
+        this.path = path;
+        this.watermark = watermark;
+    }
+
+    /**
+     * Loads the checkpoint from the file, if exists.
+     * @param path the checkpoint file, or {@link Optional#empty()} if the checkpoint is not persisted.
+     * @return the checkpoint.
+     * @throws IOException if an error occurs.
+     */
+    static MilestoneImportCheckpoint load(@NonNull Optional<Path> path) throws IOException {
+        if (path.isPresent() && Files.exists(path.get())) {
+            return new MilestoneImportCheckpoint(
+                    path, Long.parseLong(Files.readString(path.get()).trim()));
+        }
+        return new MilestoneImportCheckpoint(path, 0);
+    }
+
+    /**
+     * Gets the number of leading records imported.
+     * @return the number of leading records imported.
+     */
+    synchronized long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Marks the record as imported.
+     * @param index the record index.
+     * @throws IOException if an error occurs.
+     */
+    synchronized void complete(long index) throws IOException {
+        if (index == watermark) {
+            watermark++;
+            while (completedAfterWatermark.remove(watermark)) {
+                watermark++;
+            }
+        } else {
+            completedAfterWatermark.add(index);
+        }
+
+        if (++unsavedCompletions >= SAVE_INTERVAL) {
+            save();
+        }
+    }
+
+    /**
+     * Saves the checkpoint.
+     * @throws IOException if an error occurs.
+     */
+    synchronized void save() throws IOException {
+        unsavedCompletions = 0;
+        if (path.isPresent()) {
+            // Write then move so that an interrupted save never leaves a truncated checkpoint.
+            var tempPath = path.get().resolveSibling(path.get().getFileName() + ".tmp");
+            Files.writeString(tempPath, Long.toString(watermark));
+            Files.move(tempPath, path.get(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A schedule of recurring milestones. <br>
+ * The title template accepts the following placeholders:
+ * <ul>
+ * <li><code>{date}</code>: the due date as <code>yyyy-MM-dd</code>.</li>
+ * <li><code>{year}</code>: the ISO week-based year of the due date.</li>
+ * <li><code>{week}</code>: the ISO week of the due date, on two digits.</li>
+ * </ul>
+ * @author Julb.
+ */
+@Getter
+@RequiredArgsConstructor
+class MilestoneSchedule {
+    /**
+     * The milestone title template.
+     */
+    @NonNull
+    private final String titleTemplate;
+
+    /**
+     * The due date of the first milestone.
+     */
+    @NonNull
+    private final LocalDate start;
+
+    /**
+     * The period between two milestones.
+     */
+    @NonNull
+    private final Period cadence;
+
+    /**
+     * The period after today in which milestones are scheduled.
+     */
+    @NonNull
+    private final Period horizon;
+
+    /**
+     * The description of the milestones, or {@link Optional#empty()} to leave it unchanged.
+     */
+    @NonNull
+    private final Optional<String> description;
+
+    /**
+     * Computes the milestones due between today and the horizon.<br>
+     * The milestones have no state: the missing ones are created open, and the existing ones keep their state, so that
+     * a milestone already closed, e.g. on its due date, is not reopened.
+     * @param today the current date.
+     * @return the milestones due between today and the horizon.
+     */
+    List<MilestoneManifestEntry> toMilestones(@NonNull LocalDate today) {
+        if (cadence.isZero() || cadence.isNegative()) {
+            throw new IllegalArgumentException(String.format("schedule cadence must be positive: %s", cadence));
+        }
+
+        var end = today.plus(horizon);
+        var milestones = new ArrayList<MilestoneManifestEntry>();
+        var titles = new HashSet<String>();
+        for (var i = 0; ; i++) {
+            // Multiply the cadence to avoid month-end drift.
+            var dueOn = start.plus(cadence.multipliedBy(i));
+            if (dueOn.isAfter(end)) {
+                break;
+            }
+            if (dueOn.isBefore(today)) {
+                continue;
+            }
+
+            var title = formatTitle(dueOn);
+            if (!titles.add(MilestoneTitleIndex.normalize(title))) {
+                throw new IllegalArgumentException(
+                        String.format("schedule title template produces duplicate title: %s", title));
+            }
+            milestones.add(new MilestoneManifestEntry(title, null, description.orElse(null), dueOn.toString()));
+        }
+
+        return milestones;
+    }
+
+    /**
+     * Formats the milestone title for the given due date.
+     * @param dueOn the due date.
+     * @return the milestone title.
+     */
+    String formatTitle(@NonNull LocalDate dueOn) {
+        return titleTemplate
+                .replace("{date}", dueOn.toString())
+                .replace("{year}", String.valueOf(dueOn.get(IsoFields.WEEK_BASED_YEAR)))
+                .replace("{week}", String.format("%02d", dueOn.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)));
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.Optional;
+
+/**
+ * The symbolic titles selecting an open milestone, resolved from the open milestones only. <br>
+ * @author Julb.
+ */
+enum MilestoneSelector {
+    /**
+     * The open milestone created last.
+     */
+    LATEST_OPEN("@latest-open"),
+
+    /**
+     * The open milestone with the earliest due date, overdue or not.
+     */
+    NEXT_DUE("@next-due");
+
+    /**
+     * The selector as used in the "title" input.
+     */
+    private final String key;
+
+    /**
+     * Default constructor.
+     * @param key the selector as used in the "title" input.
+     */
+    MilestoneSelector(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the selector as used in the "title" input.
+     * @return the selector as used in the "title" input.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Gets the selector of the title.
+     * @param title the title.
+     * @return the selector, or {@link Optional#empty()} if the title is a plain title.
+     */
+    static Optional<MilestoneSelector> of(String title) {
+        for (MilestoneSelector selector : values()) {
+            if (selector.key.equals(title)) {
+                return Optional.of(selector);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * The snapshot of the milestones of a repository. <br>
+ * The milestones are stored per listing page with the page ETag, so that unchanged pages are revalidated with
+ * conditional requests instead of being downloaded again.
+ * @author Julb.
+ */
+@Data
+@NoArgsConstructor
+class MilestoneSnapshot {
+    /**
+     * The repository full name.
+     */
+    private String repo;
+
+    /**
+     * The highest <code>updated_at</code> of the milestones.
+     */
+    @JsonProperty("updated_at")
+    private String updatedAt;
+
+    /**
+     * The listing pages.
+     */
+    private List<Page> pages = new ArrayList<>();
+
+    /**
+     * Gets the milestones of all the pages.
+     * @return the milestones of all the pages.
+     */
+    @JsonIgnore
+    List<Entry> getMilestones() {
+        return pages.stream().flatMap((Page page) -> page.getMilestones().stream()).collect(Collectors.toList());
+    }
+
+    /**
+     * Computes the changes between the previous snapshot and this one.<br>
+     * The milestones updated after the watermark of the previous snapshot are reported as created or updated, and the
+     * milestones no longer listed as deleted.
+     * @param previous the previous snapshot.
+     * @return the changes.
+     */
+    List<Change> diff(@NonNull MilestoneSnapshot previous) {
+        var previousMilestones = previous.getMilestones().stream()
+                .collect(Collectors.toMap(Entry::getNumber, Function.identity(), (Entry a, Entry b) -> a));
+        var currentMilestones = new LinkedHashMap<Integer, Entry>();
+        for (Entry milestone : getMilestones()) {
+            currentMilestones.putIfAbsent(milestone.getNumber(), milestone);
+        }
+
+        var changes = new ArrayList<Change>();
+        for (Entry milestone : currentMilestones.values()) {
+            if (!previousMilestones.containsKey(milestone.getNumber())) {
+                changes.add(new Change(repo, ChangeType.CREATED, milestone));
+            } else if (previous.getUpdatedAt() == null
+                    || (milestone.getUpdatedAt() != null
+                            && milestone.getUpdatedAt().compareTo(previous.getUpdatedAt()) > 0)) {
+                changes.add(new Change(repo, ChangeType.UPDATED, milestone));
+            }
+        }
+        for (Map.Entry<Integer, Entry> previousMilestone : previousMilestones.entrySet()) {
+            if (!currentMilestones.containsKey(previousMilestone.getKey())) {
+                changes.add(new Change(repo, ChangeType.DELETED, previousMilestone.getValue()));
+            }
+        }
+
+        return changes;
+    }
+
+    /**
+     * A listing page. <br>
+     * @author Julb.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Page {
+        /**
+         * The page ETag.
+         */
+        private String etag;
+
+        /**
+         * <code>true</code> if a next page exists, <code>false</code> otherwise.
+         */
+        private boolean next;
+
+        /**
+         * The milestones of the page.
+         */
+        private List<Entry> milestones = new ArrayList<>();
+    }
+
+    /**
+     * A milestone, as returned by the API. <br>
+     * @author Julb.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Entry {
+        /**
+         * The milestone number.
+         */
+        private int number;
+
+        /**
+         * The milestone title.
+         */
+        private String title;
+
+        /**
+         * The milestone state.
+         */
+        private String state;
+
+        /**
+         * The milestone description.
+         */
+        private String description;
+
+        /**
+         * The milestone due date.
+         */
+        @JsonProperty("due_on")
+        private String dueOn;
+
+        /**
+         * The milestone last update date.
+         */
+        @JsonProperty("updated_at")
+        private String updatedAt;
+    }
+
+    /**
+     * A change of a milestone between two snapshots. <br>
+     * @author Julb.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonPropertyOrder({"repo", "change", "milestone"})
+    static class Change {
+        /**
+         * The repository full name.
+         */
+        private String repo;
+
+        /**
+         * The change type.
+         */
+        private ChangeType change;
+
+        /**
+         * The milestone.
+         */
+        private Entry milestone;
+    }
+
+    /**
+     * The type of change of a milestone between two snapshots. <br>
+     * @author Julb.
+     */
+    enum ChangeType {
+        /**
+         * The milestone has been created.
+         */
+        CREATED,
+
+        /**
+         * The milestone has been updated.
+         */
+        UPDATED,
+
+        /**
+         * The milestone has been deleted.
+         */
+        DELETED;
+    }
+}
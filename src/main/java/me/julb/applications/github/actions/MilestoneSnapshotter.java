@@ -0,0 +1,217 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.kohsuke.github.authorization.AuthorizationProvider;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Refreshes milestone snapshots with conditional requests. <br>
+ * Each listing page is requested with the ETag stored in the previous snapshot: an unchanged page is answered with a
+ * <code>304 Not Modified</code>, which does not count against the rate limit, so the cost of a refresh scales with the
+ * pages that changed. The requests are sent through the connector of the run, as the other calls.
+ * @author Julb.
+ */
+@RequiredArgsConstructor
+class MilestoneSnapshotter {
+    /**
+     * The page size when listing milestones.
+     */
+    static final int PAGE_SIZE = 100;
+
+    /**
+     * The connector sending the calls.
+     */
+    @NonNull
+    private final GitHubConnector connector;
+
+    /**
+     * The GitHub API URL.
+     */
+    @NonNull
+    private final String apiUrl;
+
+    /**
+     * The authorization provider.
+     */
+    @NonNull
+    private final AuthorizationProvider authorizationProvider;
+
+    /**
+     * The JSON mapper.
+     */
+    @NonNull
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Refreshes the snapshot of the repository milestones.
+     * @param previous the previous snapshot.
+     * @return the refreshed snapshot.
+     * @throws IOException if an error occurs.
+     */
+    MilestoneSnapshot refresh(@NonNull MilestoneSnapshot previous) throws IOException {
+        var snapshot = new MilestoneSnapshot();
+        snapshot.setRepo(previous.getRepo());
+
+        var hasNext = true;
+        for (var pageNumber = 1; hasNext; pageNumber++) {
+            var previousPage = pageNumber <= previous.getPages().size()
+                    ? previous.getPages().get(pageNumber - 1)
+                    : null;
+
+            var headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+            headers.put("Accept", List.of("application/vnd.github.v3+json"));
+            var authorization = authorizationProvider.getEncodedAuthorization();
+            if (authorization != null) {
+                headers.put("Authorization", List.of(authorization));
+            }
+            if (previousPage != null && previousPage.getEtag() != null) {
+                headers.put("If-None-Match", List.of(previousPage.getEtag()));
+            }
+            var url = new URL(String.format(
+                    "%s/repos/%s/milestones?state=all&per_page=%d&page=%d",
+                    apiUrl, previous.getRepo(), PAGE_SIZE, pageNumber));
+
+            MilestoneSnapshot.Page page;
+            try (var response = connector.send(new PageRequest(url, headers))) {
+                if (response.statusCode() == 304 && previousPage != null) {
+                    page = previousPage;
+                } else if (response.statusCode() == 200) {
+                    try (var body = response.bodyStream()) {
+                        page = new MilestoneSnapshot.Page(
+                                response.header("ETag"),
+                                response.allHeaders().getOrDefault("Link", List.of()).stream()
+                                        .anyMatch((String link) -> link.contains("rel=\"next\"")),
+                                objectMapper.readValue(body, new TypeReference<List<MilestoneSnapshot.Entry>>() {}));
+                    }
+                } else {
+                    throw new IOException(String.format(
+                            "unexpected status %d when listing the milestones of %s.",
+                            response.statusCode(),
+                            previous.getRepo()));
+                }
+            }
+
+            snapshot.getPages().add(page);
+            hasNext = page.isNext();
+        }
+
+        // Move the watermark to the latest update.
+        snapshot.setUpdatedAt(snapshot.getMilestones().stream()
+                .map(MilestoneSnapshot.Entry::getUpdatedAt)
+                .filter((String updatedAt) -> updatedAt != null)
+                .max(String::compareTo)
+                .orElse(previous.getUpdatedAt()));
+
+        return snapshot;
+    }
+
+    /**
+     * A request of a listing page. <br>
+     * @author Julb.
+     */
+    @RequiredArgsConstructor
+    static class PageRequest implements GitHubConnectorRequest {
+        /**
+         * The URL.
+         */
+        private final URL url;
+
+        /**
+         * The headers, by case-insensitive name.
+         */
+        private final Map<String, List<String>> headers;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String method() {
+            return "GET";
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return headers;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String header(String name) {
+            var values = headers.get(name);
+            return values == null ? null : String.join(",", values);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public URL url() {
+            return url;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.kohsuke.github.GHMilestone;
+
+import lombok.NonNull;
+
+/**
+ * The milestones of a repository indexed by normalized title. <br>
+ * The title of each milestone is normalized once when indexed, so that a lookup is a single hash probe. Titles
+ * which only differ by case or by surrounding whitespace are ambiguous: looking them up fails rather than returning
+ * one of them.
+ * @author Julb.
+ */
+class MilestoneTitleIndex {
+    /**
+     * The milestones by normalized title.
+     */
+    private final Map<String, List<GHMilestone>> milestonesByKey = new HashMap<>();
+
+    /**
+     * Default constructor.
+     * @param ghMilestones the milestones to index.
+     */
+    MilestoneTitleIndex(@NonNull Iterable<GHMilestone> ghMilestones) {
+        for (GHMilestone ghMilestone : ghMilestones) {
+            milestonesByKey
+                    .computeIfAbsent(normalize(ghMilestone.getTitle()), key -> new ArrayList<>(1))
+                    .add(ghMilestone);
+        }
+    }
+
+    /**
+     * Normalizes a title: surrounding whitespace is stripped and the case is folded.<br>
+     * A title made of lower-case ASCII characters without surrounding whitespace is returned as is.
+     * @param title the title.
+     * @return the normalized title.
+     */
+    static String normalize(@NonNull String title) {
+        if (isNormalizedAscii(title)) {
+            return title;
+        }
+        // Upper-casing first folds the special cases, e.g. "ß" and "ss" or the final sigma.
+        return Normalizer.normalize(title.strip(), Normalizer.Form.NFC)
+                .toUpperCase(Locale.ROOT)
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks if the title is made of lower-case ASCII characters without surrounding whitespace.
+     * @param title the title.
+     * @return <code>true</code> if the title is already normalized, <code>false</code> otherwise.
+     */
+    private static boolean isNormalizedAscii(String title) {
+        var length = title.length();
+        if (length > 0 && (title.charAt(0) <= ' ' || title.charAt(length - 1) <= ' ')) {
+            return false;
+        }
+        for (var i = 0; i < length; i++) {
+            var c = title.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the milestone with the given title.
+     * @param title the title.
+     * @return the milestone, or {@link Optional#empty()} if there is no milestone with this title.
+     * @throws IllegalStateException if several milestones have this title.
+     */
+    Optional<GHMilestone> get(@NonNull String title) {
+        var milestones = milestonesByKey.get(keyOf(title));
+        return milestones == null ? Optional.empty() : Optional.of(milestones.get(0));
+    }
+
+    /**
+     * Gets the normalized key of the given title.
+     * @param title the title.
+     * @return the normalized key.
+     * @throws IllegalStateException if several milestones have this title.
+     */
+    String keyOf(@NonNull String title) {
+        var key = normalize(title);
+        var milestones = milestonesByKey.get(key);
+        if (milestones != null && milestones.size() > 1) {
+            throw new IllegalStateException(String.format(
+                    "ambiguous milestone title: %s matches %s",
+                    title,
+                    milestones.stream().map(GHMilestone::getTitle).collect(Collectors.joining("', '", "'", "'"))));
+        }
+        return key;
+    }
+
+    /**
+     * Gets the milestones by normalized title.
+     * @return the milestones by normalized title.
+     */
+    Map<String, List<GHMilestone>> getMilestonesByKey() {
+        return Collections.unmodifiableMap(milestonesByKey);
+    }
+}
@@ -31,7 +31,62 @@ enum OutputVars {
     /**
      * The milestone number ID.
      */
-    NUMBER("number");
+    NUMBER("number"),
+
+    /**
+     * The milestone title.
+     */
+    TITLE("title"),
+
+    /**
+     * The number of issues assigned to the milestone.
+     */
+    ASSIGNED("assigned"),
+
+    /**
+     * The number of open issues of the milestone.
+     */
+    OPEN_ISSUES("open_issues"),
+
+    /**
+     * The number of closed issues of the milestone.
+     */
+    CLOSED_ISSUES("closed_issues"),
+
+    /**
+     * The percentage of closed issues of the milestone.
+     */
+    PROGRESS("progress"),
+
+    /**
+     * The changes planned from the manifest.
+     */
+    PLAN("plan"),
+
+    /**
+     * The number of changes applied from the manifest.
+     */
+    APPLIED("applied"),
+
+    /**
+     * The web URL of the milestone.
+     */
+    URL("url"),
+
+    /**
+     * The state of the milestone.
+     */
+    STATE("state"),
+
+    /**
+     * The due date of the milestone.
+     */
+    DUE_ON("due_on"),
+
+    /**
+     * The milestone as a JSON object.
+     */
+    MILESTONE("milestone");
 
     /**
      * The variable name.
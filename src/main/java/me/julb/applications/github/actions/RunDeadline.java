@@ -0,0 +1,143 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+/**
+ * The deadline of a run, shared by all the API calls of the run. <br>
+ * @author Julb.
+ */
+class RunDeadline {
+    /**
+     * The run timeout, or {@link Optional#empty()} if the run is not bounded.
+     */
+    @Getter
+    private final Optional<Duration> timeout;
+
+    /**
+     * The instant after which the run is cancelled, or {@link Optional#empty()} if the run is not bounded.
+     */
+    private final Optional<Instant> expiresAt;
+
+    /**
+     * The clock.
+     */
+    private final Clock clock;
+
+    /**
+     * The phase of the run in progress.
+     */
+    @Getter
+    private volatile String phase = "startup";
+
+    /**
+     * The instant when the phase in progress started.
+     */
+    private volatile Instant phaseStartedAt;
+
+    /**
+     * The listener notified of the duration of each phase when it ends.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    @NonNull
+    private BiConsumer<String, Duration> phaseListener = (endedPhase, duration) -> {};
+
+    /**
+     * Default constructor.
+     * @param timeout the run timeout, or {@link Optional#empty()} if the run is not bounded.
+     * @param clock the clock.
+     */
+    RunDeadline(@NonNull Optional<Duration> timeout, @NonNull Clock clock) {
+        this.timeout = timeout;
+        this.expiresAt = timeout.map(clock.instant()::plus);
+        this.clock = clock;
+        this.phaseStartedAt = clock.instant();
+    }
+
+    /**
+     * Creates a deadline which never expires.
+     * @return the deadline.
+     */
+    static RunDeadline unbounded() {
+        return new RunDeadline(Optional.empty(), Clock.systemUTC());
+    }
+
+    /**
+     * Enters a new phase of the run.
+     * @param phase the phase name.
+     * @throws RunDeadlineExceededException if the deadline has passed.
+     */
+    void enterPhase(@NonNull String phase) throws RunDeadlineExceededException {
+        endPhase();
+        this.phase = phase;
+        check();
+    }
+
+    /**
+     * Ends the phase in progress, notifying its duration to the listener.
+     */
+    void endPhase() {
+        var now = clock.instant();
+        phaseListener.accept(phase, Duration.between(phaseStartedAt, now));
+        phaseStartedAt = now;
+    }
+
+    /**
+     * Checks if the deadline has passed.
+     * @return <code>true</code> if the deadline has passed, <code>false</code> otherwise.
+     */
+    boolean isExceeded() {
+        return expiresAt.isPresent() && !clock.instant().isBefore(expiresAt.get());
+    }
+
+    /**
+     * Fails if the deadline has passed.
+     * @throws RunDeadlineExceededException if the deadline has passed.
+     */
+    void check() throws RunDeadlineExceededException {
+        if (isExceeded()) {
+            throw new RunDeadlineExceededException(timeout.orElseThrow(), phase);
+        }
+    }
+
+    /**
+     * Gets the time left before the deadline.
+     * @return the time left, or {@link Optional#empty()} if the run is not bounded.
+     * @throws RunDeadlineExceededException if the deadline has passed.
+     */
+    Optional<Duration> remaining() throws RunDeadlineExceededException {
+        check();
+        return expiresAt.map(instant -> Duration.between(clock.instant(), instant));
+    }
+}
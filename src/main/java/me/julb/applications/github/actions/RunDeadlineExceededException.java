@@ -0,0 +1,52 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Exception raised when the run does not complete before its deadline. <br>
+ * @author Julb.
+ */
+@Getter
+class RunDeadlineExceededException extends InterruptedIOException {
+    /**
+     * The phase of the run in progress when the deadline passed.
+     */
+    private final String phase;
+
+    /**
+     * Default constructor.
+     * @param timeout the run timeout.
+     * @param phase the phase of the run in progress when the deadline passed.
+     */
+    RunDeadlineExceededException(@NonNull Duration timeout, @NonNull String phase) {
+        super(String.format("timeout of %s exceeded during phase: %s", timeout, phase));
+        this.phase = phase;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A connector bounding each call to the time left before the run deadline. <br>
+ * The calling thread is interrupted when the deadline passes before the response is received, which aborts the
+ * calls of an interruptible connector such as the {@link java.net.http.HttpClient} one. The response body is read
+ * in full before the bound is lifted, so that a connection stalling after the headers is aborted too.
+ * @author Julb.
+ */
+@RequiredArgsConstructor
+class RunDeadlineGitHubConnector implements GitHubConnector {
+    /**
+     * The scheduler interrupting the calls at the deadline.
+     */
+    private static final ScheduledExecutorService INTERRUPTER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "run-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The run deadline.
+     */
+    @NonNull
+    private final RunDeadline deadline;
+
+    /**
+     * The connector sending the calls.
+     */
+    @NonNull
+    private final GitHubConnector delegate;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        var remaining = deadline.remaining();
+        if (remaining.isEmpty()) {
+            return delegate.send(connectorRequest);
+        }
+
+        var call = new BoundedCall(Thread.currentThread());
+        var interruption = INTERRUPTER.schedule(call::interrupt, remaining.get().toNanos(), TimeUnit.NANOSECONDS);
+        try (var response = delegate.send(connectorRequest)) {
+            byte[] body;
+            try (var bodyStream = response.bodyStream()) {
+                body = bodyStream == null ? new byte[0] : bodyStream.readAllBytes();
+            }
+            return new BufferedGitHubConnectorResponse(
+                    connectorRequest, response.statusCode(), response.allHeaders(), body);
+        } catch (IOException e) {
+            if (call.isInterrupted()) {
+                var deadlineException =
+                        new RunDeadlineExceededException(deadline.getTimeout().orElseThrow(), deadline.getPhase());
+                deadlineException.initCause(e);
+                throw deadlineException;
+            }
+            throw e;
+        } finally {
+            interruption.cancel(false);
+            call.complete();
+        }
+    }
+
+    /**
+     * A call in progress, interrupted at the deadline unless completed before. <br>
+     * @author Julb.
+     */
+    @RequiredArgsConstructor
+    private static class BoundedCall {
+        /**
+         * The thread sending the call.
+         */
+        private final Thread thread;
+
+        /**
+         * Whether the call completed.
+         */
+        private boolean completed;
+
+        /**
+         * Whether the call was interrupted at the deadline.
+         */
+        private boolean interrupted;
+
+        /**
+         * Interrupts the thread sending the call, unless the call completed.
+         */
+        synchronized void interrupt() {
+            if (!completed) {
+                interrupted = true;
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Checks if the call was interrupted at the deadline.
+         * @return <code>true</code> if the call was interrupted, <code>false</code> otherwise.
+         */
+        synchronized boolean isInterrupted() {
+            return interrupted;
+        }
+
+        /**
+         * Completes the call, clearing the interruption of the thread sending the call so that it does not leak to
+         * the next operations of the thread.
+         */
+        synchronized void complete() {
+            completed = true;
+            if (interrupted) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GitHubAbuseLimitHandler;
+import org.kohsuke.github.GitHubRateLimitHandler;
+import org.kohsuke.github.RateLimitChecker;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The waits for the API rate limits, bounded by the run deadline. <br>
+ * The client waits for the rate limit reset, which can be close to an hour away, or for the delay of a secondary rate
+ * limit. When the wait would outlast the run deadline, the run fails at once instead.
+ * @author Julb.
+ */
+final class RunDeadlineRateLimits {
+
+    /**
+     * The delay added after the reset time, to absorb the clock skew with the API.
+     */
+    static final Duration RESET_MARGIN = Duration.ofSeconds(1);
+
+    /**
+     * The wait of a secondary rate limit without <code>Retry-After</code> header.
+     */
+    static final Duration SECONDARY_LIMIT_WAIT = Duration.ofMinutes(1);
+
+    /**
+     * Private constructor.
+     */
+    private RunDeadlineRateLimits() {
+        // Holder class.
+    }
+
+    /**
+     * Waits for the given delay, unless it outlasts the run deadline.
+     * @param deadline the run deadline.
+     * @param wait the delay to wait.
+     * @throws IOException if the delay outlasts the run deadline, or if the wait is interrupted.
+     */
+    static void await(@NonNull RunDeadline deadline, @NonNull Duration wait) throws IOException {
+        var remaining = deadline.remaining();
+        if (remaining.isPresent() && remaining.get().compareTo(wait) < 0) {
+            throw new RunDeadlineExceededException(deadline.getTimeout().orElseThrow(), deadline.getPhase());
+        }
+        try {
+            Thread.sleep(wait.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the rate limit");
+        }
+    }
+
+    /**
+     * Gets the delay until the reset time, including the margin.
+     * @param reset the reset time.
+     * @param clock the clock.
+     * @return the delay, zero if the reset time has passed.
+     */
+    static Duration untilReset(@NonNull Instant reset, @NonNull Clock clock) {
+        var wait = Duration.between(clock.instant(), reset.plus(RESET_MARGIN));
+        return wait.isNegative() ? Duration.ZERO : wait;
+    }
+
+    /**
+     * A checker waiting for the reset before each call when the remaining calls fall under the threshold. <br>
+     * The library lets the checker throw {@link InterruptedException} only: a wait outlasting the deadline fails with
+     * a {@link RunDeadlineExceededException} wrapped in an {@link UncheckedIOException}.
+     * @author Julb.
+     */
+    @RequiredArgsConstructor
+    static class Checker extends RateLimitChecker {
+        /**
+         * The remaining calls under which the calls wait for the reset.
+         */
+        private final int threshold;
+
+        /**
+         * The run deadline.
+         */
+        @NonNull
+        private final RunDeadline deadline;
+
+        /**
+         * The clock.
+         */
+        @NonNull
+        private final Clock clock;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected boolean checkRateLimit(GHRateLimit.Record rateLimitRecord, long count) throws InterruptedException {
+            if (rateLimitRecord.getRemaining() > threshold) {
+                return false;
+            }
+            var wait = untilReset(rateLimitRecord.getResetDate().toInstant(), clock);
+            if (wait.isZero()) {
+                return false;
+            }
+            try {
+                await(deadline, wait);
+            } catch (InterruptedIOException e) {
+                if (e instanceof RunDeadlineExceededException) {
+                    throw new UncheckedIOException(e);
+                }
+                throw new InterruptedException(e.getMessage());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A handler of the responses exceeding the primary rate limit, waiting for the reset before the call is sent again.
+     * @author Julb.
+     */
+    @RequiredArgsConstructor
+    static class PrimaryLimitHandler extends GitHubRateLimitHandler {
+        /**
+         * The run deadline.
+         */
+        @NonNull
+        private final RunDeadline deadline;
+
+        /**
+         * The clock.
+         */
+        @NonNull
+        private final Clock clock;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onError(GitHubConnectorResponse connectorResponse) throws IOException {
+            var reset = connectorResponse.header("X-RateLimit-Reset");
+            var wait = SECONDARY_LIMIT_WAIT;
+            if (reset != null) {
+                try {
+                    wait = untilReset(Instant.ofEpochSecond(Long.parseLong(reset.strip())), clock);
+                } catch (NumberFormatException e) {
+                    // Unknown reset time: wait the default delay.
+                }
+            }
+            await(deadline, wait);
+        }
+    }
+
+    /**
+     * A handler of the responses exceeding a secondary rate limit, waiting for the <code>Retry-After</code> delay
+     * before the call is sent again.
+     * @author Julb.
+     */
+    @RequiredArgsConstructor
+    static class SecondaryLimitHandler extends GitHubAbuseLimitHandler {
+        /**
+         * The run deadline.
+         */
+        @NonNull
+        private final RunDeadline deadline;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onError(GitHubConnectorResponse connectorResponse) throws IOException {
+            var retryAfter = connectorResponse.header("Retry-After");
+            var wait = SECONDARY_LIMIT_WAIT;
+            if (retryAfter != null) {
+                try {
+                    wait = Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.strip())));
+                } catch (NumberFormatException e) {
+                    // Retry-After as an HTTP date: wait the default delay.
+                }
+            }
+            await(deadline, wait);
+        }
+    }
+}
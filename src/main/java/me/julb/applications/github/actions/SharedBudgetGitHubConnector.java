@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import lombok.NonNull;
+
+/**
+ * A connector pacing the calls on a {@link SharedRateLimitBudget} shared by the runs of the host. <br>
+ * Each call reserves its slot first, waiting while the budget is exhausted or blocked, then records the rate limit
+ * observed in the response, or blocks the budget for all the runs on a secondary rate limit.
+ * @author Julb.
+ */
+class SharedBudgetGitHubConnector implements GitHubConnector {
+
+    /**
+     * The connector sending the calls.
+     */
+    private final GitHubConnector delegate;
+
+    /**
+     * The shared budget.
+     */
+    private final SharedRateLimitBudget budget;
+
+    /**
+     * The run deadline.
+     */
+    private final RunDeadline deadline;
+
+    /**
+     * The listener notified of the waits.
+     */
+    private final Consumer<String> waitListener;
+
+    /**
+     * Default constructor.
+     * @param delegate the connector sending the calls.
+     * @param budget the shared budget.
+     * @param deadline the run deadline.
+     * @param waitListener the listener notified of the waits.
+     */
+    SharedBudgetGitHubConnector(
+            @NonNull GitHubConnector delegate,
+            @NonNull SharedRateLimitBudget budget,
+            @NonNull RunDeadline deadline,
+            @NonNull Consumer<String> waitListener) {
+        this.delegate = delegate;
+        this.budget = budget;
+        this.deadline = deadline;
+        this.waitListener = waitListener;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest connectorRequest) throws IOException {
+        var reservedResource = toResource(connectorRequest.url().getPath());
+        awaitReservation(reservedResource);
+
+        GitHubConnectorResponse response;
+        try {
+            response = delegate.send(connectorRequest);
+        } catch (IOException | RuntimeException e) {
+            budget.release(reservedResource);
+            throw e;
+        }
+
+        var remaining = parseLong(response.header("X-RateLimit-Remaining"));
+        var reset = parseLong(response.header("X-RateLimit-Reset"));
+        var retryAfter = parseLong(response.header("Retry-After"));
+        var resource = reservedResource;
+        var observedResource = response.header("X-RateLimit-Resource");
+        if (observedResource != null && !observedResource.isBlank()) {
+            resource = observedResource.strip();
+        }
+
+        // The reservation is released where it was made, the rate limit is recorded where it was observed.
+        if (remaining != null && reset != null) {
+            budget.observe(reservedResource, resource, remaining, Instant.ofEpochSecond(reset));
+        } else {
+            budget.release(reservedResource);
+        }
+        if (retryAfter != null && (response.statusCode() == 403 || response.statusCode() == 429)) {
+            budget.block(resource, Duration.ofSeconds(retryAfter));
+        }
+        return response;
+    }
+
+    /**
+     * Reserves a call of the resource, waiting while the budget is exhausted or blocked, until the run deadline.
+     * @param resource the rate limit resource.
+     * @throws IOException if the budget cannot be read, or if the run deadline passes before the reservation.
+     */
+    private void awaitReservation(String resource) throws IOException {
+        var wait = budget.reserve(resource);
+        while (!wait.isZero()) {
+            var remaining = deadline.remaining();
+            if (remaining.isPresent() && remaining.get().compareTo(wait) < 0) {
+                throw new RunDeadlineExceededException(deadline.getTimeout().orElseThrow(), deadline.getPhase());
+            }
+
+            waitListener.accept(String.format(
+                    "shared rate limit budget: waiting %d ms for the %s resource.", wait.toMillis(), resource));
+            try {
+                Thread.sleep(wait.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for the shared rate limit budget");
+            }
+            wait = budget.reserve(resource);
+        }
+    }
+
+    /**
+     * Gets the rate limit resource of a path.
+     * @param path the path.
+     * @return the rate limit resource.
+     */
+    static String toResource(@NonNull String path) {
+        if (path.contains("/search/")) {
+            return "search";
+        } else if (path.endsWith("/graphql")) {
+            return "graphql";
+        }
+        return "core";
+    }
+
+    /**
+     * Parses a numeric header.
+     * @param value the header value, or <code>null</code> if absent.
+     * @return the value, or <code>null</code> if absent or not numeric.
+     */
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
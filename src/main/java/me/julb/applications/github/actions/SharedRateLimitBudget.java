@@ -0,0 +1,375 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * A rate limit budget shared by the runs of a host through a state file, e.g. on a host-mounted path. <br>
+ * For each credential and rate limit resource, the file records the latest remaining calls and reset time observed by
+ * any run, the calls reserved by the runs and not observed yet, and the time until which a secondary rate limit blocks
+ * the calls. A run reserves a call before sending it, and waits when the calls left, minus the reserved ones, fall
+ * under the floor, so that the runs pace themselves collectively instead of exhausting the rate limit together. A
+ * reservation expires after {@link #RESERVATION_TIMEOUT}, so that the calls of a run killed before observing them are
+ * not reserved forever. The file is locked while read and written.
+ * @author Julb.
+ */
+class SharedRateLimitBudget {
+
+    /**
+     * The delay added after the reset time, to absorb the clock skew with the API.
+     */
+    static final Duration RESET_MARGIN = Duration.ofSeconds(1);
+
+    /**
+     * The delay after which a call reserved and not observed nor released is no longer counted.
+     */
+    static final Duration RESERVATION_TIMEOUT = Duration.ofMinutes(2);
+
+    /**
+     * The state file.
+     */
+    private final Path file;
+
+    /**
+     * The key of the credential owning the rate limit, without whitespace.
+     */
+    private final String key;
+
+    /**
+     * The calls kept in reserve, under which the calls wait for the reset.
+     */
+    private final int floor;
+
+    /**
+     * The clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Default constructor.
+     * @param file the state file.
+     * @param key the key of the credential owning the rate limit, without whitespace, e.g. a token hash or an App
+     *            installation ID.
+     * @param floor the calls kept in reserve, under which the calls wait for the reset.
+     * @param clock the clock.
+     */
+    SharedRateLimitBudget(@NonNull Path file, @NonNull String key, int floor, @NonNull Clock clock) {
+        if (key.isEmpty() || key.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException(String.format("invalid rate limit budget key: '%s'", key));
+        }
+        this.file = file;
+        this.key = key;
+        this.floor = floor;
+        this.clock = clock;
+    }
+
+    /**
+     * Reserves a call of the resource.
+     * @param resource the rate limit resource, e.g. <code>core</code> or <code>search</code>.
+     * @return {@link Duration#ZERO} if the call is reserved, or the delay to wait before reserving again.
+     * @throws IOException if the state file cannot be read or written.
+     */
+    Duration reserve(@NonNull String resource) throws IOException {
+        return update((Map<String, ResourceState> states, Instant now) -> {
+            var state = states.get(resource);
+            if (state == null) {
+                // Nothing observed yet, or a new window started: the call is not counted until observed.
+                return Duration.ZERO;
+            }
+
+            if (now.isBefore(state.getBlockedUntil())) {
+                return Duration.between(now, state.getBlockedUntil());
+            }
+            if (state.getRemaining() - state.getReservations().size() <= floor) {
+                return Duration.between(now, state.getReset().plus(RESET_MARGIN));
+            }
+            state.getReservations().add(now.plus(RESERVATION_TIMEOUT));
+            return Duration.ZERO;
+        });
+    }
+
+    /**
+     * Records the rate limit observed in a response, and releases the call reserved for the same resource.
+     * @param resource the rate limit resource.
+     * @param remaining the remaining calls observed.
+     * @param reset the reset time observed.
+     * @throws IOException if the state file cannot be read or written.
+     */
+    void observe(@NonNull String resource, long remaining, @NonNull Instant reset) throws IOException {
+        observe(resource, resource, remaining, reset);
+    }
+
+    /**
+     * Records the rate limit observed in a response, and releases the call reserved. <br>
+     * The resource reported by the response can differ from the resource guessed when the call was reserved, e.g. for
+     * the <code>integration_manifest</code> resource: the reservation is released where it was made.
+     * @param reservedResource the rate limit resource of the call reserved.
+     * @param resource the rate limit resource observed.
+     * @param remaining the remaining calls observed.
+     * @param reset the reset time observed.
+     * @throws IOException if the state file cannot be read or written.
+     */
+    void observe(@NonNull String reservedResource, @NonNull String resource, long remaining, @NonNull Instant reset)
+            throws IOException {
+        update((Map<String, ResourceState> states, Instant now) -> {
+            var reservedState = states.get(reservedResource);
+            if (reservedState != null) {
+                reservedState.releaseReservation();
+            }
+
+            var state = states.get(resource);
+            if (state == null || reset.isAfter(state.getReset())) {
+                // First observation of the window.
+                var blockedUntil = state == null ? Instant.EPOCH : state.getBlockedUntil();
+                states.put(resource, new ResourceState(remaining, reset, new ArrayList<>(), blockedUntil));
+            } else if (!reset.isBefore(state.getReset())) {
+                // Same window: the lowest remaining calls is the latest.
+                state.setRemaining(Math.min(state.getRemaining(), remaining));
+            }
+            // An earlier window is stale: only the reservation is released.
+            return null;
+        });
+    }
+
+    /**
+     * Releases a call reserved whose rate limit was not observed, e.g. when it failed without response.
+     * @param resource the rate limit resource.
+     * @throws IOException if the state file cannot be read or written.
+     */
+    void release(@NonNull String resource) throws IOException {
+        update((Map<String, ResourceState> states, Instant now) -> {
+            var state = states.get(resource);
+            if (state != null) {
+                state.releaseReservation();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Blocks the calls of the resource for all the runs, after a secondary rate limit.
+     * @param resource the rate limit resource.
+     * @param retryAfter the delay before the calls are allowed again.
+     * @throws IOException if the state file cannot be read or written.
+     */
+    void block(@NonNull String resource, @NonNull Duration retryAfter) throws IOException {
+        update((Map<String, ResourceState> states, Instant now) -> {
+            var blockedUntil = now.plus(retryAfter);
+            var state = states.get(resource);
+            if (state == null) {
+                // The remaining calls are unknown: the window ends with the block.
+                states.put(resource, new ResourceState(Long.MAX_VALUE, blockedUntil, new ArrayList<>(), blockedUntil));
+            } else if (blockedUntil.isAfter(state.getBlockedUntil())) {
+                state.setBlockedUntil(blockedUntil);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reads the state file, applies the update and writes the state file back, while holding the file lock.
+     * @param <T> the update result type.
+     * @param update the update.
+     * @return the update result.
+     * @throws IOException if the state file cannot be read or written.
+     */
+    private <T> T update(StateUpdate<T> update) throws IOException {
+        // A file lock is held on behalf of the whole JVM: the runs of the same JVM take turns first.
+        synchronized (SharedRateLimitBudget.class) {
+            var parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (var channel = FileChannel.open(
+                            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    var lock = channel.lock()) {
+                var content = ByteBuffer.allocate((int) channel.size());
+                while (content.hasRemaining() && channel.read(content) >= 0) {
+                    // Read until the end of the file.
+                }
+                var statesByKey = parse(new String(content.array(), StandardCharsets.UTF_8));
+                var now = clock.instant();
+                expire(statesByKey, now);
+
+                var states = statesByKey.computeIfAbsent(key, (String k) -> new TreeMap<>());
+                var result = update.apply(states, now);
+                if (states.isEmpty()) {
+                    statesByKey.remove(key);
+                }
+
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(format(statesByKey).getBytes(StandardCharsets.UTF_8)), 0);
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Drops the expired reservations, and the states of the credentials whose window and block are over, e.g. after
+     * an installation token is rotated.
+     * @param statesByKey the states by credential key and resource, to update in place.
+     * @param now the current time.
+     */
+    static void expire(@NonNull Map<String, Map<String, ResourceState>> statesByKey, @NonNull Instant now) {
+        for (Map<String, ResourceState> states : statesByKey.values()) {
+            states.values().forEach((ResourceState state) -> state.getReservations()
+                    .removeIf((Instant expiry) -> !expiry.isAfter(now)));
+            states.values().removeIf((ResourceState state) ->
+                    !now.isBefore(state.getReset()) && !now.isBefore(state.getBlockedUntil()));
+        }
+        statesByKey.values().removeIf(Map::isEmpty);
+    }
+
+    /**
+     * Parses the state file, one resource of a credential per line: credential key, resource name, remaining calls,
+     * reset epoch second, blocked until epoch second and the expiry epoch seconds of the reservations separated by
+     * commas, or <code>-</code> if none. Malformed lines are ignored.
+     * @param content the state file content.
+     * @return the states by credential key and resource.
+     */
+    static Map<String, Map<String, ResourceState>> parse(@NonNull String content) {
+        var statesByKey = new TreeMap<String, Map<String, ResourceState>>();
+        for (String line : content.split("\n")) {
+            var fields = line.strip().split("\\s+");
+            if (fields.length != 6) {
+                continue;
+            }
+            try {
+                var reservations = new ArrayList<Instant>();
+                if (!"-".equals(fields[5])) {
+                    for (String expiry : fields[5].split(",")) {
+                        reservations.add(Instant.ofEpochSecond(Long.parseLong(expiry)));
+                    }
+                }
+                var state = new ResourceState(
+                        Long.parseLong(fields[2]),
+                        Instant.ofEpochSecond(Long.parseLong(fields[3])),
+                        reservations,
+                        Instant.ofEpochSecond(Long.parseLong(fields[4])));
+                statesByKey.computeIfAbsent(fields[0], (String k) -> new TreeMap<>()).put(fields[1], state);
+            } catch (NumberFormatException e) {
+                // Malformed line.
+            }
+        }
+        return statesByKey;
+    }
+
+    /**
+     * Formats the states as the state file content.
+     * @param statesByKey the states by credential key and resource.
+     * @return the state file content.
+     */
+    static String format(@NonNull Map<String, Map<String, ResourceState>> statesByKey) {
+        var content = new StringBuilder();
+        for (Map.Entry<String, Map<String, ResourceState>> states : statesByKey.entrySet()) {
+            for (Map.Entry<String, ResourceState> state : states.getValue().entrySet()) {
+                var reservations = state.getValue().getReservations();
+                content.append(String.format(
+                        "%s %s %d %d %d %s\n",
+                        states.getKey(),
+                        state.getKey(),
+                        state.getValue().getRemaining(),
+                        state.getValue().getReset().getEpochSecond(),
+                        state.getValue().getBlockedUntil().getEpochSecond(),
+                        reservations.isEmpty()
+                                ? "-"
+                                : reservations.stream()
+                                        .map((Instant expiry) -> Long.toString(expiry.getEpochSecond()))
+                                        .collect(Collectors.joining(","))));
+            }
+        }
+        return content.toString();
+    }
+
+    /**
+     * The state of a rate limit resource. <br>
+     * @author Julb.
+     */
+    @Data
+    @AllArgsConstructor
+    static class ResourceState {
+        /**
+         * The latest remaining calls observed.
+         */
+        private long remaining;
+
+        /**
+         * The reset time of the rate limit window.
+         */
+        private Instant reset;
+
+        /**
+         * The expiry times of the calls reserved and not observed yet, oldest first.
+         */
+        private List<Instant> reservations;
+
+        /**
+         * The time until which the calls are blocked by a secondary rate limit.
+         */
+        private Instant blockedUntil;
+
+        /**
+         * Releases the oldest call reserved, if any.
+         */
+        void releaseReservation() {
+            if (!reservations.isEmpty()) {
+                reservations.remove(0);
+            }
+        }
+    }
+
+    /**
+     * An update of the states.
+     * @param <T> the update result type.
+     */
+    @FunctionalInterface
+    private interface StateUpdate<T> {
+        /**
+         * Applies the update.
+         * @param states the states by resource, to update in place.
+         * @param now the current time.
+         * @return the update result.
+         */
+        T apply(Map<String, ResourceState> states, Instant now);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.julb.applications.github.actions.HedgedReader.ReadCall;
+
+import lombok.NonNull;
+
+/**
+ * Deduplicates the identical read calls in flight. <br>
+ * A call is identified by the repository, the operation and its arguments: while it is in flight, the concurrent
+ * callers of the same call wait for it and share its result, or its failure. Nothing is kept once the call completes.
+ * @author Julb.
+ */
+class SingleFlight {
+
+    /**
+     * The deduplication shared by the actions and the commands run concurrently in the process.
+     */
+    static final SingleFlight SHARED = new SingleFlight();
+
+    /**
+     * The calls in flight, by key.
+     */
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The number of calls.
+     */
+    private final AtomicInteger callCount = new AtomicInteger();
+
+    /**
+     * The number of calls which shared the result of a call in flight.
+     */
+    private final AtomicInteger sharedCount = new AtomicInteger();
+
+    /**
+     * Gets the number of calls.
+     * @return the number of calls.
+     */
+    int getCallCount() {
+        return callCount.get();
+    }
+
+    /**
+     * Gets the number of calls which shared the result of a call in flight.
+     * @return the number of calls which shared the result of a call in flight.
+     */
+    int getSharedCount() {
+        return sharedCount.get();
+    }
+
+    /**
+     * Runs the read call, unless the same call is in flight, in which case its result is awaited.
+     * @param <T> the result type.
+     * @param call the idempotent read call.
+     * @param repositoryName the repository full name.
+     * @param operation the operation name.
+     * @param args the operation arguments.
+     * @return the result of the call.
+     * @throws IOException if the call fails.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T read(@NonNull ReadCall<T> call, String repositoryName, @NonNull String operation, Object... args)
+            throws IOException {
+        callCount.incrementAndGet();
+        var key = Arrays.<Object>asList(repositoryName, operation, Arrays.asList(args));
+        var future = new CompletableFuture<Object>();
+        var existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            sharedCount.incrementAndGet();
+            return (T) ManageMilestoneGitHubAction.await(existing);
+        }
+
+        try {
+            var result = call.read();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Fail the waiters too.
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+}
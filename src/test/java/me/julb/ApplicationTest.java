@@ -31,9 +31,11 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import me.julb.applications.github.actions.ManageMilestoneBulkCommand;
 import me.julb.sdk.github.actions.spi.GitHubActionProvider;
 import me.julb.sdk.github.actions.spi.GitHubActionServiceLoader;
 
@@ -66,4 +68,17 @@ class ApplicationTest {
             assertThrows(NoSuchElementException.class, () -> Application.main(new String[0]));
         }
     }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteMainWithArguments_thenExecuteBulkCommand() {
+        try (MockedConstruction<ManageMilestoneBulkCommand> commands =
+                Mockito.mockConstruction(ManageMilestoneBulkCommand.class)) {
+            var args = new String[] {"export", "-", "octocat/Hello-World"};
+            assertDoesNotThrow(() -> Application.main(args));
+            verify(commands.constructed().get(0)).execute(args);
+        }
+    }
 }
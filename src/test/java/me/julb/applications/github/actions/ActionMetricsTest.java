@@ -0,0 +1,157 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link ActionMetrics} class. <br>
+ * @author Julb.
+ */
+class ActionMetricsTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRecordApiCalls_thenWriteCountersByLabels() {
+        var metrics = new ActionMetrics();
+        metrics.recordApiCall("GET", "/repos/{owner}/{repo}/milestones", 200);
+        metrics.recordApiCall("GET", "/repos/{owner}/{repo}/milestones", 200);
+        metrics.recordApiCall("POST", "/repos/{owner}/{repo}/milestones", 201);
+        metrics.recordPage("/repos/{owner}/{repo}/milestones");
+        metrics.recordWritePerformed();
+        metrics.recordWriteSkipped();
+        metrics.recordRetry();
+        metrics.recordRateLimitRemaining(4990);
+        metrics.recordRateLimitRemaining(4980);
+
+        assertThat(metrics.toOpenMetrics("octocat/Hello-World"))
+                .contains("# TYPE gh_action_manage_milestone_api_calls counter\n")
+                .contains("gh_action_manage_milestone_api_calls_total{repository=\"octocat/Hello-World\","
+                        + "method=\"GET\",endpoint=\"/repos/{owner}/{repo}/milestones\",status=\"200\"} 2\n")
+                .contains("gh_action_manage_milestone_api_calls_total{repository=\"octocat/Hello-World\","
+                        + "method=\"POST\",endpoint=\"/repos/{owner}/{repo}/milestones\",status=\"201\"} 1\n")
+                .contains("gh_action_manage_milestone_api_pages_total{repository=\"octocat/Hello-World\","
+                        + "endpoint=\"/repos/{owner}/{repo}/milestones\"} 1\n")
+                .contains("gh_action_manage_milestone_api_retries_total{repository=\"octocat/Hello-World\"} 1\n")
+                .contains("gh_action_manage_milestone_writes_total{repository=\"octocat/Hello-World\","
+                        + "result=\"performed\"} 1\n")
+                .contains("gh_action_manage_milestone_writes_total{repository=\"octocat/Hello-World\","
+                        + "result=\"skipped\"} 1\n")
+                .contains("gh_action_manage_milestone_rate_limit_remaining{repository=\"octocat/Hello-World\"} 4980\n")
+                .endsWith("# EOF\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRecordPhases_thenWriteCumulativeHistogram() {
+        var metrics = new ActionMetrics();
+        metrics.recordPhase("lookup", Duration.ofMillis(40));
+        metrics.recordPhase("lookup", Duration.ofMillis(200));
+        metrics.recordPhase("lookup", Duration.ofMinutes(2));
+
+        var openMetrics = metrics.toOpenMetrics("octocat/Hello-World");
+
+        assertThat(openMetrics)
+                .contains("# TYPE gh_action_manage_milestone_phase_duration_seconds histogram\n")
+                .contains("gh_action_manage_milestone_phase_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                        + "phase=\"lookup\",le=\"0.01\"} 0\n")
+                .contains("gh_action_manage_milestone_phase_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                        + "phase=\"lookup\",le=\"0.05\"} 1\n")
+                .contains("gh_action_manage_milestone_phase_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                        + "phase=\"lookup\",le=\"60.0\"} 2\n")
+                .contains("gh_action_manage_milestone_phase_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                        + "phase=\"lookup\",le=\"+Inf\"} 3\n")
+                .contains("gh_action_manage_milestone_phase_duration_seconds_count{repository=\"octocat/Hello-World\","
+                        + "phase=\"lookup\"} 3\n")
+                .doesNotContain("rate_limit_remaining");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRecordConcurrently_thenCountAll() throws Exception {
+        var metrics = new ActionMetrics();
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (var j = 0; j < 1000; j++) {
+                        metrics.recordApiCall("GET", "/rate_limit", 200);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(metrics.toOpenMetrics("octocat/Hello-World"))
+                .contains("endpoint=\"/rate_limit\",status=\"200\"} 8000\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenWrite_thenReplaceFile(@TempDir Path directory) throws Exception {
+        var file = directory.resolve("milestone.prom");
+        Files.writeString(file, "previous");
+
+        var metrics = new ActionMetrics();
+        metrics.recordRetry();
+        metrics.write(file, "octocat/Hello-World");
+
+        assertThat(Files.readString(file)).contains("api_retries_total").endsWith("# EOF\n");
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEscapeLabelValue_thenEscapeQuotesBackslashesAndNewLines() {
+        assertThat(ActionMetrics.escape("a\"b\\c\nd")).isEqualTo("a\\\"b\\\\c\\nd");
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link ApiCassette} class. <br>
+ * @author Julb.
+ */
+class ApiCassetteTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRedactHeaders_thenRedactAuthorizationAndDropEncoding() {
+        var headers = new LinkedHashMap<String, List<String>>();
+        headers.put(null, List.of("HTTP/1.1 200 OK"));
+        headers.put("Authorization", List.of("token ghp_secret"));
+        headers.put("Content-Encoding", List.of("gzip"));
+        headers.put("Content-Length", List.of("42"));
+        headers.put("ETag", List.of("\"abc\""));
+
+        assertThat(ApiCassette.redactHeaders(headers))
+                .containsOnly(
+                        Map.entry("Authorization", List.of(ApiCassette.REDACTED)),
+                        Map.entry("ETag", List.of("\"abc\"")));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRedactBody_thenRedactTokens() {
+        assertThat(ApiCassette.redactBody("{\"token\": \"ghs_secret\",\"expires_at\":\"2026-01-01T00:00:00Z\"}"))
+                .isEqualTo("{\"token\": \"REDACTED\",\"expires_at\":\"2026-01-01T00:00:00Z\"}");
+        assertThat(ApiCassette.redactBody("{\"title\":\"v1.0.0\"}")).isEqualTo("{\"title\":\"v1.0.0\"}");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenWriteThenRead_thenSameCassette(@TempDir Path tempDir) throws Exception {
+        var cassette = new ApiCassette("https://ghes.example.com/api/v3");
+        cassette.add(new ApiCassette.Interaction(
+                "GET",
+                "/repos/octocat/Hello-World/milestones?state=all",
+                Map.of("Accept", List.of("application/vnd.github.v3+json")),
+                200,
+                Map.of("Link", List.of("<https://ghes.example.com/api/v3/repositories/1/milestones?page=2>")),
+                "[]",
+                12,
+                85));
+
+        var cassetteFile = tempDir.resolve("cassette.json");
+        cassette.write(cassetteFile);
+
+        assertThat(ApiCassette.read(cassetteFile)).isEqualTo(cassette);
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test class for {@link CassetteRecordingGitHubConnector} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class CassetteRecordingGitHubConnectorTest {
+
+    /**
+     * The class under test.
+     */
+    private CassetteRecordingGitHubConnector connector = null;
+
+    /**
+     * A mock for the connector.
+     */
+    @Mock
+    private GitHubConnector delegateMock;
+
+    /**
+     * A mock for the request.
+     */
+    @Mock
+    private GitHubConnectorRequest requestMock;
+
+    /**
+     * A mock for the response.
+     */
+    @Mock
+    private GitHubConnectorResponse responseMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        connector = new CassetteRecordingGitHubConnector(delegateMock, "https://ghes.example.com/api/v3/");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSend_thenRecordRedactedCallAndServeBody() throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url())
+                .thenReturn(new URL("https://ghes.example.com/api/v3/repos/octocat/Hello-World/milestones?state=all"));
+        when(requestMock.allHeaders()).thenReturn(Map.of("Authorization", List.of("token ghp_secret")));
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.statusCode()).thenReturn(200);
+        when(responseMock.allHeaders()).thenReturn(Map.of("ETag", List.of("\"abc\"")));
+        when(responseMock.bodyStream())
+                .thenReturn(new ByteArrayInputStream("[{\"title\":\"v1.0.0\"}]".getBytes(StandardCharsets.UTF_8)));
+
+        var response = connector.send(requestMock);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(new String(response.bodyStream().readAllBytes(), StandardCharsets.UTF_8))
+                .isEqualTo("[{\"title\":\"v1.0.0\"}]");
+        verify(responseMock).close();
+
+        var cassette = connector.getCassette();
+        assertThat(cassette.getApiUrl()).isEqualTo("https://ghes.example.com/api/v3");
+        assertThat(cassette.getInteractions()).singleElement().satisfies((ApiCassette.Interaction interaction) -> {
+            assertThat(interaction.getMethod()).isEqualTo("GET");
+            assertThat(interaction.getPath()).isEqualTo("/repos/octocat/Hello-World/milestones?state=all");
+            assertThat(interaction.getRequestHeaders())
+                    .containsEntry("Authorization", List.of(ApiCassette.REDACTED));
+            assertThat(interaction.getResponseHeaders()).containsEntry("ETag", List.of("\"abc\""));
+            assertThat(interaction.getBody()).isEqualTo("[{\"title\":\"v1.0.0\"}]");
+        });
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToPath_thenRelativeToApiUrl() {
+        assertThat(connector.toPath("https://ghes.example.com/api/v3")).isEqualTo("/");
+        assertThat(connector.toPath("https://ghes.example.com/api/v3/rate_limit")).isEqualTo("/rate_limit");
+        assertThat(connector.toPath("https://uploads.example.com/file")).isEqualTo("https://uploads.example.com/file");
+    }
+}
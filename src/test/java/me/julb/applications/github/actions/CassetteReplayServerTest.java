@@ -0,0 +1,209 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link CassetteReplayServer} class. <br>
+ * @author Julb.
+ */
+class CassetteReplayServerTest {
+
+    /**
+     * The recorded API URL.
+     */
+    private static final String RECORDED_API_URL = "https://ghes.example.com/api/v3";
+
+    /**
+     * The class under test.
+     */
+    private CassetteReplayServer server = null;
+
+    /**
+     * The HTTP client.
+     */
+    private HttpClient httpClient = null;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        var cassette = new ApiCassette(RECORDED_API_URL);
+        cassette.add(interaction("GET", "/repos/octocat/Hello-World", 200, "{\"full_name\":\"first\"}", 0));
+        cassette.add(interaction("GET", "/repos/octocat/Hello-World", 200, "{\"full_name\":\"second\"}", 0));
+        cassette.add(interaction(
+                "GET",
+                "/repos/octocat/Hello-World/milestones?state=all",
+                200,
+                "[{\"url\":\"" + RECORDED_API_URL + "/repos/octocat/Hello-World/milestones/1\"}]",
+                100));
+        server = CassetteReplayServer.start(cassette);
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Tear down method.
+     */
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSameRequestRepeated_thenServeInRecordedOrderThenLastOne() throws Exception {
+        assertThat(get("/repos/octocat/Hello-World").body()).contains("first");
+        assertThat(get("/repos/octocat/Hello-World").body()).contains("second");
+        assertThat(get("/repos/octocat/Hello-World").body()).contains("second");
+        assertThat(server.getMissCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRecordedWithDuration_thenServeAfterDurationWithRewrittenUrls() throws Exception {
+        var start = System.nanoTime();
+        var response = get("/repos/octocat/Hello-World/milestones?state=all");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Link")).hasValue("<" + server.getUrl() + "/page2>");
+        assertThat(response.body())
+                .contains(server.getUrl() + "/repos/octocat/Hello-World/milestones/1")
+                .doesNotContain(RECORDED_API_URL);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRecordedWithOffsets_thenServeOnRecordedSchedule() throws Exception {
+        var cassette = new ApiCassette(RECORDED_API_URL);
+        cassette.add(interaction("GET", "/repos/octocat/Hello-World", 200, "{}", 1000, 0));
+        cassette.add(interaction("GET", "/repos/octocat/Hello-World/milestones", 200, "[]", 1300, 50));
+        try (var scheduledServer = CassetteReplayServer.start(cassette)) {
+            var start = System.nanoTime();
+            get(scheduledServer, "/repos/octocat/Hello-World");
+            var firstElapsed = Duration.ofNanos(System.nanoTime() - start);
+            get(scheduledServer, "/repos/octocat/Hello-World/milestones");
+            var secondElapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // The offsets are relative to the first recorded call.
+            assertThat(firstElapsed).isLessThan(Duration.ofMillis(300));
+            assertThat(secondElapsed).isGreaterThanOrEqualTo(Duration.ofMillis(350));
+
+            // A call served again takes its recorded duration only.
+            var againStart = System.nanoTime();
+            get(scheduledServer, "/repos/octocat/Hello-World/milestones");
+            assertThat(Duration.ofNanos(System.nanoTime() - againStart))
+                    .isGreaterThanOrEqualTo(Duration.ofMillis(50))
+                    .isLessThan(Duration.ofMillis(350));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRequestNotRecorded_thenReturnNotFound() throws Exception {
+        var response = get("/repos/octocat/Spoon-Knife");
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(server.getMissCount()).isEqualTo(1);
+    }
+
+    /**
+     * Sends a GET request to the server.
+     * @param path the path and query.
+     * @return the response.
+     */
+    private HttpResponse<String> get(String path) throws Exception {
+        return get(server, path);
+    }
+
+    /**
+     * Sends a GET request to a server.
+     * @param replayServer the server.
+     * @param path the path and query.
+     * @return the response.
+     */
+    private HttpResponse<String> get(CassetteReplayServer replayServer, String path) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create(replayServer.getUrl() + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Builds a recorded call.
+     * @param method the method.
+     * @param path the path and query.
+     * @param status the status code.
+     * @param body the body.
+     * @param durationMillis the duration, in milliseconds.
+     * @return the recorded call.
+     */
+    private static ApiCassette.Interaction interaction(
+            String method, String path, int status, String body, long durationMillis) {
+        return interaction(method, path, status, body, 0, durationMillis);
+    }
+
+    /**
+     * Builds a recorded call.
+     * @param method the method.
+     * @param path the path and query.
+     * @param status the status code.
+     * @param body the body.
+     * @param offsetMillis the offset from the start of the recording, in milliseconds.
+     * @param durationMillis the duration, in milliseconds.
+     * @return the recorded call.
+     */
+    private static ApiCassette.Interaction interaction(
+            String method, String path, int status, String body, long offsetMillis, long durationMillis) {
+        return new ApiCassette.Interaction(
+                method,
+                path,
+                Map.of(),
+                status,
+                Map.of("Link", List.of("<" + RECORDED_API_URL + "/page2>")),
+                body,
+                offsetMillis,
+                durationMillis);
+    }
+}
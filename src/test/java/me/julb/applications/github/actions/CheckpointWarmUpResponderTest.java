@@ -0,0 +1,164 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link CheckpointWarmUpResponder} class. <br>
+ * @author Julb.
+ */
+class CheckpointWarmUpResponderTest {
+
+    /**
+     * The class under test.
+     */
+    private CheckpointWarmUpResponder responder = null;
+
+    /**
+     * The API URL of the responder.
+     */
+    private String apiUrl = null;
+
+    /**
+     * The HTTP client.
+     */
+    private HttpClient httpClient = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        try (var serverSocket = new ServerSocket(0)) {
+            apiUrl = String.format("http://127.0.0.1:%d", serverSocket.getLocalPort());
+        }
+        responder = CheckpointWarmUpResponder.start(URI.create(apiUrl).getPort());
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Tear down method.
+     */
+    @AfterEach
+    void tearDown() {
+        responder.close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetRepository_thenReturnRepositoryAndCloseConnection() throws Exception {
+        var response = send("GET", "/repos/octocat/Hello-World", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"full_name\":\"octocat/Hello-World\"");
+        assertThat(response.headers().firstValue("X-RateLimit-Remaining")).isPresent();
+        assertThat(response.headers().firstValue("Connection")).hasValue("close");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateThenUpdateMilestone_thenMilestoneListedUpdated() throws Exception {
+        var created = send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+        var updated = send("PATCH", "/repos/octocat/Hello-World/milestones/1", "{\"state\":\"closed\"}");
+        var listed = send("GET", "/repos/octocat/Hello-World/milestones", null);
+
+        assertThat(created.statusCode()).isEqualTo(201);
+        assertThat(created.body()).contains("\"html_url\":\"https://github.com/octocat/Hello-World/milestone/1\"");
+        assertThat(updated.statusCode()).isEqualTo(200);
+        assertThat(listed.body()).contains("\"title\":\"v1.0.0\"").contains("\"state\":\"closed\"");
+        assertThat(responder.getRequestCount()).isEqualTo(3);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateMilestoneWithExistingTitle_thenReturnUnprocessableEntity() throws Exception {
+        send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        var response = send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        assertThat(response.statusCode()).isEqualTo(422);
+        assertThat(response.body()).contains("\"code\":\"already_exists\"");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResetAfterCreateMilestone_thenNoMilestone() throws Exception {
+        send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        responder.reset();
+
+        assertThat(send("GET", "/repos/octocat/Hello-World/milestones", null).body()).isEqualTo("[]");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDeleteMilestone_thenMilestoneNotFound() throws Exception {
+        send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        var deleted = send("DELETE", "/repos/octocat/Hello-World/milestones/1", null);
+        var response = send("GET", "/repos/octocat/Hello-World/milestones/1", null);
+
+        assertThat(deleted.statusCode()).isEqualTo(204);
+        assertThat(response.statusCode()).isEqualTo(404);
+    }
+
+    /**
+     * Sends a request to the responder.
+     * @param method the HTTP method.
+     * @param path the path.
+     * @param body the JSON body, or <code>null</code> if none.
+     * @return the response.
+     */
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create(apiUrl + path))
+                .method(
+                        method,
+                        body == null
+                                ? HttpRequest.BodyPublishers.noBody()
+                                : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
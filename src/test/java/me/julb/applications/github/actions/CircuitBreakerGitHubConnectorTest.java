@@ -0,0 +1,234 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import me.julb.applications.github.actions.CircuitBreakerGitHubConnector.State;
+
+/**
+ * Test class for {@link CircuitBreakerGitHubConnector} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakerGitHubConnectorTest {
+
+    /**
+     * The class under test.
+     */
+    private CircuitBreakerGitHubConnector circuitBreaker = null;
+
+    /**
+     * A mock for the connector.
+     */
+    @Mock
+    private GitHubConnector delegateMock;
+
+    /**
+     * A mock for the request.
+     */
+    @Mock
+    private GitHubConnectorRequest requestMock;
+
+    /**
+     * A mock for the response.
+     */
+    @Mock
+    private GitHubConnectorResponse responseMock;
+
+    /**
+     * A mock for the clock.
+     */
+    @Mock
+    private Clock clockMock;
+
+    /**
+     * The current instant.
+     */
+    private Instant now = Instant.parse("2022-01-01T08:00:00Z");
+
+    /**
+     * The state changes.
+     */
+    private final List<String> stateChanges = new ArrayList<>();
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(clockMock.instant()).thenAnswer(invocation -> now);
+        circuitBreaker = new CircuitBreakerGitHubConnector(
+                delegateMock, 50, Duration.ofSeconds(5), clockMock, stateChanges::add);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFailureRateUnderThreshold_thenStayClosed() throws Exception {
+        when(responseMock.statusCode()).thenReturn(200, 200, 200, 502, 503);
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+
+        for (var i = 0; i < 5; i++) {
+            assertThat(circuitBreaker.send(requestMock)).isSameAs(responseMock);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(stateChanges).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFailureRateReachesThreshold_thenOpenAndFailFast() throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World"));
+        when(delegateMock.send(requestMock)).thenThrow(new IOException("connection reset"));
+
+        for (var i = 0; i < 5; i++) {
+            assertThrows(IOException.class, () -> circuitBreaker.send(requestMock));
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+
+        var exception = assertThrows(IOException.class, () -> circuitBreaker.send(requestMock));
+        assertThat(exception)
+                .hasMessage("circuit breaker open: failing fast GET https://api.github.com/repos/octocat/Hello-World");
+        verify(delegateMock, times(5)).send(requestMock);
+        assertThat(stateChanges).containsExactly("circuit breaker: [state: CLOSED => OPEN, failures: 5/5]");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallsSlow_thenOpen() throws Exception {
+        when(responseMock.statusCode()).thenReturn(200);
+        when(delegateMock.send(requestMock)).thenAnswer(invocation -> {
+            now = now.plusSeconds(10);
+            return responseMock;
+        });
+
+        for (var i = 0; i < 5; i++) {
+            circuitBreaker.send(requestMock);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenProbeSucceeds_thenClose() throws Exception {
+        openCircuit();
+        when(responseMock.statusCode()).thenReturn(200);
+        doReturn(responseMock).when(delegateMock).send(requestMock);
+
+        now = now.plus(CircuitBreakerGitHubConnector.OPEN_DURATION);
+        assertThat(circuitBreaker.send(requestMock)).isSameAs(responseMock);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(stateChanges)
+                .containsExactly(
+                        "circuit breaker: [state: CLOSED => OPEN, failures: 5/5]",
+                        "circuit breaker: [state: OPEN => HALF_OPEN, failures: 5/5]",
+                        "circuit breaker: [state: HALF_OPEN => CLOSED, failures: 0/0]");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenProbeFails_thenOpenAgain() throws Exception {
+        openCircuit();
+        when(responseMock.statusCode()).thenReturn(500);
+        doReturn(responseMock).when(delegateMock).send(requestMock);
+
+        now = now.plus(CircuitBreakerGitHubConnector.OPEN_DURATION);
+        circuitBreaker.send(requestMock);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        verify(delegateMock, times(6)).send(requestMock);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenOpenBeforeProbeDelay_thenDelegateNotCalled() throws Exception {
+        openCircuit();
+
+        now = now.plus(CircuitBreakerGitHubConnector.OPEN_DURATION.minusMillis(1));
+        assertThrows(IOException.class, () -> circuitBreaker.send(requestMock));
+
+        verify(delegateMock, times(5)).send(requestMock);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenThresholdInvalid_thenThrowIllegalArgumentException() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new CircuitBreakerGitHubConnector(delegateMock, 0, Duration.ofSeconds(5), clockMock, s -> {}));
+    }
+
+    /**
+     * Opens the circuit with failed calls.
+     * @throws IOException if an error occurs.
+     */
+    private void openCircuit() throws IOException {
+        when(delegateMock.send(requestMock)).thenThrow(new IOException("connection reset"));
+        for (var i = 0; i < 5; i++) {
+            assertThrows(IOException.class, () -> circuitBreaker.send(requestMock));
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+}
@@ -0,0 +1,498 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local GitHub API stub serving the calls of the action from memory. <br>
+ * It serves the API root, the rate limit, the repositories, and the listing, creation, update and deletion of
+ * milestones. It backs the cold start benchmark and the load tests, for which it injects latency, server errors and
+ * secondary rate limits.
+ * @author Julb.
+ */
+public class GitHubApiStub implements AutoCloseable {
+
+    /**
+     * The repository path pattern.
+     */
+    private static final Pattern REPOSITORY_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)$");
+
+    /**
+     * The milestones path pattern.
+     */
+    private static final Pattern MILESTONES_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)/milestones$");
+
+    /**
+     * The milestone path pattern.
+     */
+    private static final Pattern MILESTONE_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)/milestones/(\\d+)$");
+
+    /**
+     * The JSON mapper.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer httpServer;
+
+    /**
+     * The executor handling the requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * <code>true</code> to keep the connections alive, <code>false</code> to close them after each response.
+     */
+    private final boolean keepAlive;
+
+    /**
+     * The milestones by repository full name.
+     */
+    private final Map<String, List<Map<String, Object>>> milestones = new LinkedHashMap<>();
+
+    /**
+     * The last milestone number.
+     */
+    private final AtomicInteger lastNumber = new AtomicInteger();
+
+    /**
+     * The number of requests served.
+     */
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * The number of faults injected.
+     */
+    private final AtomicInteger faultCount = new AtomicInteger();
+
+    /**
+     * The latency added before each response.
+     */
+    private volatile Duration latency = Duration.ZERO;
+
+    /**
+     * The ratio of requests answered by a server error, between <code>0</code> and <code>1</code>.
+     */
+    private volatile double serverErrorRate;
+
+    /**
+     * The ratio of requests answered by a secondary rate limit, between <code>0</code> and <code>1</code>.
+     */
+    private volatile double secondaryRateLimitRate;
+
+    /**
+     * Default constructor.
+     * @param httpServer the HTTP server.
+     * @param keepAlive <code>true</code> to keep the connections alive, <code>false</code> to close them after each
+     *     response.
+     */
+    private GitHubApiStub(HttpServer httpServer, boolean keepAlive) {
+        this.httpServer = httpServer;
+        this.executor = Executors.newCachedThreadPool();
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Starts a stub on a free port of the loopback interface.
+     * @return the stub.
+     * @throws IOException if an error occurs.
+     */
+    public static GitHubApiStub start() throws IOException {
+        return start(0, true);
+    }
+
+    /**
+     * Starts a stub on a port of the loopback interface.
+     * @param port the port, or <code>0</code> for a free port.
+     * @param keepAlive <code>true</code> to keep the connections alive, <code>false</code> to close them after each
+     *     response.
+     * @return the stub.
+     * @throws IOException if an error occurs.
+     */
+    public static GitHubApiStub start(int port, boolean keepAlive) throws IOException {
+        var httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        var stub = new GitHubApiStub(httpServer, keepAlive);
+        httpServer.createContext("/", stub::handle);
+        httpServer.setExecutor(stub.executor);
+        httpServer.start();
+        return stub;
+    }
+
+    /**
+     * Gets the API URL of the stub.
+     * @return the API URL.
+     */
+    public String getUrl() {
+        return String.format(
+                "http://%s:%d",
+                httpServer.getAddress().getHostString(),
+                httpServer.getAddress().getPort());
+    }
+
+    /**
+     * Gets the number of requests served.
+     * @return the number of requests served.
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Gets the number of faults injected.
+     * @return the number of faults injected.
+     */
+    public int getFaultCount() {
+        return faultCount.get();
+    }
+
+    /**
+     * Sets the latency added before each response.
+     * @param latency the latency.
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Sets the ratio of requests answered by a <code>502 Bad Gateway</code>.
+     * @param serverErrorRate the ratio, between <code>0</code> and <code>1</code>.
+     */
+    public void setServerErrorRate(double serverErrorRate) {
+        this.serverErrorRate = serverErrorRate;
+    }
+
+    /**
+     * Sets the ratio of requests answered by a <code>403 Forbidden</code> secondary rate limit.
+     * @param secondaryRateLimitRate the ratio, between <code>0</code> and <code>1</code>.
+     */
+    public void setSecondaryRateLimitRate(double secondaryRateLimitRate) {
+        this.secondaryRateLimitRate = secondaryRateLimitRate;
+    }
+
+    /**
+     * Gets the milestones of the repository.
+     * @param repositoryName the repository full name.
+     * @return the milestones of the repository.
+     */
+    public synchronized List<Map<String, Object>> getMilestones(String repositoryName) {
+        return List.copyOf(milestones.getOrDefault(repositoryName, List.of()));
+    }
+
+    /**
+     * Removes all the milestones.
+     */
+    public synchronized void reset() {
+        milestones.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handles a request.
+     * @param exchange the exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try (exchange) {
+            try {
+                if (!injectFault(exchange)) {
+                    route(exchange);
+                }
+            } catch (NoSuchElementException e) {
+                respond(exchange, 404, Map.of("message", "Not Found"));
+            }
+        }
+    }
+
+    /**
+     * Delays the response by the latency, then answers by a server error or a secondary rate limit according to
+     * their ratios.
+     * @param exchange the exchange.
+     * @return <code>true</code> if a fault has been injected, <code>false</code> otherwise.
+     * @throws IOException if an error occurs.
+     */
+    private boolean injectFault(HttpExchange exchange) throws IOException {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        var draw = ThreadLocalRandom.current().nextDouble();
+        if (draw < serverErrorRate) {
+            faultCount.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 502, Map.of("message", "Server Error"));
+            return true;
+        } else if (draw < serverErrorRate + secondaryRateLimitRate) {
+            faultCount.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(
+                    exchange,
+                    403,
+                    Map.of(
+                            "message",
+                            "You have exceeded a secondary rate limit. Please wait a few minutes before you try again.",
+                            "documentation_url",
+                            "https://docs.github.com/rest/overview/resources-in-the-rest-api#secondary-rate-limits"));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Routes a request to its handler.
+     * @param exchange the exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void route(HttpExchange exchange) throws IOException {
+        var method = exchange.getRequestMethod();
+        var override = exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override");
+        if (override != null) {
+            method = override;
+        }
+        var path = exchange.getRequestURI().getPath();
+
+        var repositoryMatcher = REPOSITORY_PATH.matcher(path);
+        var milestonesMatcher = MILESTONES_PATH.matcher(path);
+        var milestoneMatcher = MILESTONE_PATH.matcher(path);
+        if ("/".equals(path)) {
+            respond(exchange, 200, Map.of("rate_limit_url", getUrl() + "/rate_limit"));
+        } else if ("/rate_limit".equals(path)) {
+            var rate = rate();
+            var resources = Map.of("core", rate, "search", rate, "graphql", rate, "integration_manifest", rate);
+            respond(exchange, 200, Map.of("rate", rate, "resources", resources));
+        } else if (repositoryMatcher.matches()) {
+            respond(exchange, 200, repository(repositoryMatcher.group(1), repositoryMatcher.group(2)));
+        } else if (milestonesMatcher.matches() && "GET".equals(method)) {
+            respond(exchange, 200, getMilestones(fullName(milestonesMatcher.group(1), milestonesMatcher.group(2))));
+        } else if (milestonesMatcher.matches() && "POST".equals(method)) {
+            var fullName = fullName(milestonesMatcher.group(1), milestonesMatcher.group(2));
+            var milestone = createMilestone(fullName, readBody(exchange));
+            if (milestone.isPresent()) {
+                respond(exchange, 201, milestone.get());
+            } else {
+                var error = Map.of("resource", "Milestone", "code", "already_exists", "field", "title");
+                respond(exchange, 422, Map.of("message", "Validation Failed", "errors", List.of(error)));
+            }
+        } else if (milestoneMatcher.matches()) {
+            var fullName = fullName(milestoneMatcher.group(1), milestoneMatcher.group(2));
+            var number = Integer.parseInt(milestoneMatcher.group(3));
+            if ("DELETE".equals(method)) {
+                deleteMilestone(fullName, number);
+                respond(exchange, 204, null);
+            } else if ("PATCH".equals(method)) {
+                respond(exchange, 200, updateMilestone(fullName, number, readBody(exchange)));
+            } else {
+                respond(exchange, 200, findMilestone(fullName, number));
+            }
+        } else {
+            respond(exchange, 404, Map.of("message", "Not Found"));
+        }
+    }
+
+    /**
+     * Creates a milestone, unless the repository already has a milestone with the same title.
+     * @param repositoryName the repository full name.
+     * @param attributes the milestone attributes.
+     * @return the milestone, or empty if the title already exists.
+     */
+    private synchronized Optional<Map<String, Object>> createMilestone(
+            String repositoryName, Map<String, Object> attributes) {
+        var exists = milestones.getOrDefault(repositoryName, List.of()).stream()
+                .anyMatch(milestone -> Objects.equals(milestone.get("title"), attributes.get("title")));
+        if (exists) {
+            return Optional.empty();
+        }
+        var number = lastNumber.incrementAndGet();
+        var now = Instant.now().toString();
+        var milestone = new LinkedHashMap<String, Object>();
+        milestone.put("id", number);
+        milestone.put("number", number);
+        milestone.put("url", String.format("%s/repos/%s/milestones/%d", getUrl(), repositoryName, number));
+        milestone.put("html_url", String.format("https://github.com/%s/milestone/%d", repositoryName, number));
+        milestone.put("title", attributes.get("title"));
+        milestone.put("description", attributes.get("description"));
+        milestone.put("state", attributes.getOrDefault("state", "open"));
+        milestone.put("due_on", attributes.get("due_on"));
+        milestone.put("open_issues", 0);
+        milestone.put("closed_issues", 0);
+        milestone.put("created_at", now);
+        milestone.put("updated_at", now);
+        milestones.computeIfAbsent(repositoryName, key -> new ArrayList<>()).add(milestone);
+        return Optional.of(milestone);
+    }
+
+    /**
+     * Updates a milestone.
+     * @param repositoryName the repository full name.
+     * @param number the milestone number.
+     * @param attributes the attributes to update.
+     * @return the milestone.
+     */
+    private synchronized Map<String, Object> updateMilestone(
+            String repositoryName, int number, Map<String, Object> attributes) {
+        var milestone = findMilestone(repositoryName, number);
+        milestone.putAll(attributes);
+        milestone.put("updated_at", Instant.now().toString());
+        return milestone;
+    }
+
+    /**
+     * Deletes a milestone.
+     * @param repositoryName the repository full name.
+     * @param number the milestone number.
+     */
+    private synchronized void deleteMilestone(String repositoryName, int number) {
+        milestones.getOrDefault(repositoryName, new ArrayList<>()).remove(findMilestone(repositoryName, number));
+    }
+
+    /**
+     * Finds a milestone.
+     * @param repositoryName the repository full name.
+     * @param number the milestone number.
+     * @return the milestone.
+     */
+    private synchronized Map<String, Object> findMilestone(String repositoryName, int number) {
+        return milestones.getOrDefault(repositoryName, List.of()).stream()
+                .filter(milestone -> Integer.valueOf(number).equals(milestone.get("number")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Builds a repository.
+     * @param owner the repository owner.
+     * @param name the repository name.
+     * @return the repository.
+     */
+    private Map<String, Object> repository(String owner, String name) {
+        var repository = new LinkedHashMap<String, Object>();
+        repository.put("id", 1);
+        repository.put("name", name);
+        repository.put("full_name", fullName(owner, name));
+        repository.put("owner", Map.of("login", owner, "id", 1, "type", "User"));
+        repository.put("url", String.format("%s/repos/%s", getUrl(), fullName(owner, name)));
+        repository.put("html_url", String.format("https://github.com/%s", fullName(owner, name)));
+        return repository;
+    }
+
+    /**
+     * Builds a rate limit far from exhaustion.
+     * @return the rate limit.
+     */
+    private static Map<String, Object> rate() {
+        return Map.of(
+                "limit", 5000,
+                "remaining", 4999,
+                "used", 1,
+                "reset", Instant.now().plusSeconds(3600).getEpochSecond());
+    }
+
+    /**
+     * Builds a repository full name.
+     * @param owner the repository owner.
+     * @param name the repository name.
+     * @return the repository full name.
+     */
+    private static String fullName(String owner, String name) {
+        return String.format("%s/%s", owner, name);
+    }
+
+    /**
+     * Reads the JSON body of the request.
+     * @param exchange the exchange.
+     * @return the body attributes.
+     * @throws IOException if an error occurs.
+     */
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        var body = exchange.getRequestBody().readAllBytes();
+        if (body.length == 0) {
+            return new LinkedHashMap<>();
+        }
+        return objectMapper.readValue(body, new TypeReference<LinkedHashMap<String, Object>>() {});
+    }
+
+    /**
+     * Writes the JSON response, with rate limit headers.
+     * @param exchange the exchange.
+     * @param status the status code.
+     * @param body the body, or <code>null</code> if there is no body.
+     * @throws IOException if an error occurs.
+     */
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", "4999");
+        headers.set("X-RateLimit-Used", "1");
+        headers.set("X-RateLimit-Resource", "core");
+        headers.set("X-RateLimit-Reset", Long.toString(Instant.now().plusSeconds(3600).getEpochSecond()));
+        if (!keepAlive) {
+            headers.set("Connection", "close");
+        }
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        var bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
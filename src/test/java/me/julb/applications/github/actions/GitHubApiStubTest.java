@@ -0,0 +1,212 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link GitHubApiStub} class. <br>
+ * @author Julb.
+ */
+class GitHubApiStubTest {
+
+    /**
+     * The class under test.
+     */
+    private GitHubApiStub stub = null;
+
+    /**
+     * The HTTP client.
+     */
+    private HttpClient httpClient = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = GitHubApiStub.start();
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Tear down method.
+     */
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetRepository_thenReturnRepository() throws Exception {
+        var response = send("GET", "/repos/octocat/Hello-World", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"full_name\":\"octocat/Hello-World\"");
+        assertThat(response.headers().firstValue("X-RateLimit-Remaining")).isPresent();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateMilestone_thenMilestoneListed() throws Exception {
+        var created = send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+        var listed = send("GET", "/repos/octocat/Hello-World/milestones", null);
+
+        assertThat(created.statusCode()).isEqualTo(201);
+        assertThat(listed.body()).contains("\"title\":\"v1.0.0\"");
+        assertThat(stub.getMilestones("octocat/Hello-World")).hasSize(1);
+        assertThat(stub.getRequestCount()).isEqualTo(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResetAfterCreateMilestone_thenNoMilestone() throws Exception {
+        send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        stub.reset();
+
+        assertThat(stub.getMilestones("octocat/Hello-World")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetUnknownMilestone_thenReturnNotFound() throws Exception {
+        var response = send("GET", "/repos/octocat/Hello-World/milestones/42", null);
+
+        assertThat(response.statusCode()).isEqualTo(404);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateMilestoneWithExistingTitle_thenReturnUnprocessableEntity() throws Exception {
+        send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        var response = send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        assertThat(response.statusCode()).isEqualTo(422);
+        assertThat(response.body()).contains("\"code\":\"already_exists\"");
+        assertThat(stub.getMilestones("octocat/Hello-World")).hasSize(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenServerErrorRate_thenReturnBadGateway() throws Exception {
+        stub.setServerErrorRate(1);
+
+        var response = send("POST", "/repos/octocat/Hello-World/milestones", "{\"title\":\"v1.0.0\"}");
+
+        assertThat(response.statusCode()).isEqualTo(502);
+        assertThat(stub.getMilestones("octocat/Hello-World")).isEmpty();
+        assertThat(stub.getFaultCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSecondaryRateLimitRate_thenReturnForbiddenWithRetryAfter() throws Exception {
+        stub.setSecondaryRateLimitRate(1);
+
+        var response = send("GET", "/repos/octocat/Hello-World", null);
+
+        assertThat(response.statusCode()).isEqualTo(403);
+        assertThat(response.headers().firstValue("Retry-After")).hasValue("1");
+        assertThat(response.body()).contains("secondary rate limit");
+        assertThat(stub.getFaultCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenLatency_thenDelayResponse() throws Exception {
+        stub.setLatency(Duration.ofMillis(100));
+
+        var start = System.nanoTime();
+        var response = send("GET", "/repos/octocat/Hello-World", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(stub.getFaultCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenStartWithoutKeepAlive_thenCloseConnections() throws Exception {
+        try (var closingStub = GitHubApiStub.start(0, false)) {
+            var connection = (HttpURLConnection) new URL(closingStub.getUrl() + "/rate_limit").openConnection();
+            try {
+                assertThat(connection.getResponseCode()).isEqualTo(200);
+                assertThat(connection.getHeaderField("Connection")).isEqualTo("close");
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Sends a request to the stub.
+     * @param method the HTTP method.
+     * @param path the path.
+     * @param body the JSON body, or <code>null</code> if none.
+     * @return the response.
+     */
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create(stub.getUrl() + path))
+                .method(
+                        method,
+                        body == null
+                                ? HttpRequest.BodyPublishers.noBody()
+                                : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.mockito.Mockito;
+
+/**
+ * Test class for {@link GitHubAppAuthorizationProvider} class. <br>
+ * @author Julb.
+ */
+class GitHubAppAuthorizationProviderTest {
+
+    /**
+     * The current instant.
+     */
+    private static final Instant NOW = Instant.parse("2022-01-01T08:00:00Z");
+
+    /**
+     * The App key pair.
+     */
+    private static KeyPair keyPair;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeAll
+    static void setUpKeyPair() throws Exception {
+        var keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        keyPair = keyPairGenerator.generateKeyPair();
+    }
+
+    /**
+     * Encodes the private key in PEM.
+     * @param header the PEM header type.
+     * @param der the DER-encoded key.
+     * @return the PEM-encoded key.
+     */
+    static String pem(String header, byte[] der) {
+        return String.format(
+                "-----BEGIN %s-----\n%s\n-----END %s-----\n",
+                header, Base64.getMimeEncoder().encodeToString(der), header);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenParsePkcs1PrivateKey_thenReturnKey() throws Exception {
+        // Strip the PKCS#8 header of the 2048-bit key to get the PKCS#1 key.
+        var pkcs8 = keyPair.getPrivate().getEncoded();
+        var pkcs1 = Arrays.copyOfRange(pkcs8, 26, pkcs8.length);
+
+        assertThat(GitHubAppAuthorizationProvider.toPkcs8(pkcs1)).isEqualTo(pkcs8);
+        assertThat(GitHubAppAuthorizationProvider.parsePrivateKey(pem("RSA PRIVATE KEY", pkcs1)))
+                .isEqualTo(keyPair.getPrivate());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenParsePkcs8PrivateKey_thenReturnKey() throws Exception {
+        assertThat(GitHubAppAuthorizationProvider.parsePrivateKey(
+                        pem("PRIVATE KEY", keyPair.getPrivate().getEncoded())))
+                .isEqualTo(keyPair.getPrivate());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenParseInvalidPrivateKey_thenThrowIllegalArgumentException() throws Exception {
+        var invalidPem = pem("PRIVATE KEY", new byte[] {1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> GitHubAppAuthorizationProvider.parsePrivateKey(invalidPem));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateJwt_thenSignedWithPrivateKey() throws Exception {
+        var provider = new CountingProvider(Instant.MAX);
+
+        var jwt = provider.createJwt().split("\\.");
+
+        var payload = new String(Base64.getUrlDecoder().decode(jwt[1]), StandardCharsets.UTF_8);
+        assertThat(payload).isEqualTo("{\"iat\":1641023940,\"exp\":1641024480,\"iss\":\"123\"}");
+
+        var signature = Signature.getInstance("SHA256withRSA");
+        signature.initVerify(keyPair.getPublic());
+        signature.update(String.format("%s.%s", jwt[0], jwt[1]).getBytes(StandardCharsets.US_ASCII));
+        assertThat(signature.verify(Base64.getUrlDecoder().decode(jwt[2]))).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateInstallationToken_thenSendThroughConnector() throws Exception {
+        List<GitHubConnectorRequest> requests = new CopyOnWriteArrayList<>();
+        GitHubConnector connector = request -> {
+            requests.add(request);
+            throw new IOException("not replayed");
+        };
+        var provider = new GitHubAppAuthorizationProvider(
+                "http://127.0.0.1:9/api/v3",
+                connector,
+                "123",
+                pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()),
+                Optional.of(456L),
+                "octocat/Hello-World",
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThrows(IOException.class, provider::createInstallationToken);
+
+        assertThat(requests).isNotEmpty();
+        assertThat(requests.get(0).url()).hasToString("http://127.0.0.1:9/api/v3/app");
+        assertThat(requests.get(0).header("Authorization")).startsWith("Bearer ");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetEncodedAuthorizationValidToken_thenTokenCached() throws Exception {
+        var provider = new CountingProvider(NOW.plusSeconds(3600));
+
+        assertThat(provider.getEncodedAuthorization()).isEqualTo("token ghs_1");
+        assertThat(provider.getEncodedAuthorization()).isEqualTo("token ghs_1");
+        assertThat(provider.mintCount).hasValue(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetEncodedAuthorizationExpiringToken_thenTokenRefreshed() throws Exception {
+        var provider = new CountingProvider(NOW.plusSeconds(60));
+
+        assertThat(provider.getEncodedAuthorization()).isEqualTo("token ghs_1");
+        assertThat(provider.getEncodedAuthorization()).isEqualTo("token ghs_2");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetEncodedAuthorizationConcurrently_thenTokenMintedOnce() throws Exception {
+        var provider = new CountingProvider(NOW.plusSeconds(3600));
+
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var calls = new ArrayList<Callable<String>>();
+            for (var i = 0; i < 32; i++) {
+                calls.add(provider::getEncodedAuthorization);
+            }
+            for (var result : executor.invokeAll(calls)) {
+                assertThat(result.get()).isEqualTo("token ghs_1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(provider.mintCount).hasValue(1);
+    }
+
+    /**
+     * A provider counting the tokens minted.
+     */
+    private static class CountingProvider extends GitHubAppAuthorizationProvider {
+        /**
+         * The number of tokens minted.
+         */
+        private final AtomicInteger mintCount = new AtomicInteger();
+
+        /**
+         * The expiry of the minted tokens.
+         */
+        private final Instant expiresAt;
+
+        /**
+         * Default constructor.
+         * @param expiresAt the expiry of the minted tokens.
+         */
+        CountingProvider(Instant expiresAt) {
+            super(
+                    "https://api.github.com",
+                    Mockito.mock(GitHubConnector.class),
+                    "123",
+                    pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()),
+                    Optional.of(456L),
+                    "octocat/Hello-World",
+                    Clock.fixed(NOW, ZoneOffset.UTC));
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        InstallationToken createInstallationToken() {
+            return new InstallationToken(String.format("ghs_%d", mintCount.incrementAndGet()), expiresAt);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test class for {@link HedgedGitHubConnector} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class HedgedGitHubConnectorTest {
+
+    /**
+     * The hedge delay.
+     */
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+
+    /**
+     * The reader hedging the calls.
+     */
+    private HedgedReader hedgedReader = null;
+
+    /**
+     * A mock for the delegate connector.
+     */
+    @Mock
+    private GitHubConnector delegateMock;
+
+    /**
+     * A mock for the request.
+     */
+    @Mock
+    private GitHubConnectorRequest requestMock;
+
+    /**
+     * A mock for the response of the first call.
+     */
+    @Mock
+    private GitHubConnectorResponse slowResponseMock;
+
+    /**
+     * A mock for the response of the hedged call.
+     */
+    @Mock
+    private GitHubConnectorResponse responseMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded());
+    }
+
+    /**
+     * Tear down method.
+     */
+    @AfterEach
+    void tearDown() {
+        hedgedReader.close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendWrite_thenSendOnce() throws Exception {
+        when(requestMock.method()).thenReturn("PATCH");
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+
+        var connector = new HedgedGitHubConnector(delegateMock, hedgedReader);
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+        assertThat(hedgedReader.getCallCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendGetOutsideRepositoryAndMilestones_thenSendOnce() throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url())
+                .thenReturn(new URL("https://api.github.com/search/issues?q=milestone"))
+                .thenReturn(new URL("https://api.github.com/app/installations/1"))
+                .thenReturn(new URL("https://api.github.com/"));
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+
+        var connector = new HedgedGitHubConnector(delegateMock, hedgedReader);
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+        assertThat(hedgedReader.getCallCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendSlowGet_thenHedgeWinsAndLateResponseClosed() throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones/12"));
+        var attemptCount = new AtomicInteger();
+        when(delegateMock.send(requestMock)).thenAnswer(invocation -> {
+            if (attemptCount.incrementAndGet() == 1) {
+                // Answers anyway once cancelled.
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    // Cancelled.
+                }
+                return slowResponseMock;
+            }
+            return responseMock;
+        });
+
+        var connector = new HedgedGitHubConnector(delegateMock, hedgedReader);
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+        assertThat(hedgedReader.getWonCount()).isEqualTo(1);
+        verify(slowResponseMock, timeout(5_000)).close();
+        verify(responseMock, never()).close();
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link HedgedReader} class. <br>
+ * @author Julb.
+ */
+class HedgedReaderTest {
+
+    /**
+     * The hedge delay.
+     */
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDisabled_thenCallRunInCallerThread() throws Exception {
+        var hedgedReader = HedgedReader.disabled();
+
+        assertThat(hedgedReader.isEnabled()).isFalse();
+        assertThat(hedgedReader.read(() -> Thread.currentThread())).isEqualTo(Thread.currentThread());
+        assertThat(hedgedReader.getCallCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallFasterThanDelay_thenNoHedge() throws Exception {
+        var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded());
+        var attemptCount = new AtomicInteger();
+
+        assertThat(hedgedReader.read(attemptCount::incrementAndGet)).isEqualTo(1);
+
+        assertThat(attemptCount).hasValue(1);
+        assertThat(hedgedReader.getCallCount()).isEqualTo(1);
+        assertThat(hedgedReader.getFiredCount()).isZero();
+        assertThat(hedgedReader.getWonCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallSlowerThanDelay_thenHedgeWins() throws Exception {
+        var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded());
+        var attemptCount = new AtomicInteger();
+
+        var start = System.nanoTime();
+        var result = hedgedReader.read(() -> {
+            var attempt = attemptCount.incrementAndGet();
+            if (attempt == 1) {
+                sleep(Duration.ofSeconds(10));
+            }
+            return attempt;
+        });
+
+        assertThat(result).isEqualTo(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(hedgedReader.getFiredCount()).isEqualTo(1);
+        assertThat(hedgedReader.getWonCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenHedgeFails_thenPrimaryWins() throws Exception {
+        var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded());
+        var attemptCount = new AtomicInteger();
+
+        var result = hedgedReader.read(() -> {
+            var attempt = attemptCount.incrementAndGet();
+            if (attempt == 2) {
+                throw new IOException("replica down");
+            }
+            sleep(HEDGE_DELAY.multipliedBy(4));
+            return attempt;
+        });
+
+        assertThat(result).isEqualTo(1);
+        assertThat(hedgedReader.getFiredCount()).isEqualTo(1);
+        assertThat(hedgedReader.getWonCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAllCallsFail_thenThrowFirstFailure() throws Exception {
+        var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded());
+
+        var exception = assertThrows(IOException.class, () -> hedgedReader.read(() -> {
+            throw new IOException("not found");
+        }));
+
+        assertThat(exception).hasMessage("not found");
+        assertThat(hedgedReader.getFiredCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenHedgeBudgetSpent_thenNoHedge() throws Exception {
+        var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded());
+        var slowCall = (HedgedReader.ReadCall<String>) () -> {
+            sleep(HEDGE_DELAY.multipliedBy(2));
+            return "ok";
+        };
+
+        hedgedReader.read(slowCall);
+        hedgedReader.read(slowCall);
+
+        assertThat(hedgedReader.getCallCount()).isEqualTo(2);
+        assertThat(hedgedReader.getFiredCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDeadlineExceeded_thenThrowRunDeadlineExceededException() throws Exception {
+        var deadline = new RunDeadline(Optional.of(Duration.ofMillis(200)), Clock.systemUTC());
+        var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), deadline);
+
+        assertThrows(RunDeadlineExceededException.class, () -> hedgedReader.read(() -> {
+            sleep(Duration.ofSeconds(10));
+            return "ok";
+        }));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenHedgeWins_thenDiscardLateResult() throws Exception {
+        var discarded = new CountDownLatch(1);
+        try (var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded())) {
+            var attemptCount = new AtomicInteger();
+
+            var result = hedgedReader.read(
+                    () -> {
+                        var attempt = attemptCount.incrementAndGet();
+                        if (attempt == 1) {
+                            // Answers anyway once cancelled.
+                            sleep(Duration.ofSeconds(10));
+                        }
+                        return attempt;
+                    },
+                    (Integer lateResult) -> {
+                        assertThat(lateResult).isEqualTo(1);
+                        discarded.countDown();
+                    });
+
+            assertThat(result).isEqualTo(2);
+            assertThat(discarded.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFewLatenciesObserved_thenConfiguredDelay() throws Exception {
+        try (var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded())) {
+            for (var i = 1; i < HedgedReader.LATENCY_MIN_SAMPLES; i++) {
+                hedgedReader.recordLatency(Duration.ofSeconds(1));
+            }
+
+            assertThat(hedgedReader.getDelay()).contains(HEDGE_DELAY);
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenLatenciesObserved_thenPercentileDelay() throws Exception {
+        try (var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded())) {
+            for (var i = 1; i <= 100; i++) {
+                hedgedReader.recordLatency(Duration.ofMillis(i));
+            }
+
+            assertThat(hedgedReader.getDelay()).contains(Duration.ofMillis(HedgedReader.LATENCY_PERCENTILE));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenLatenciesBeyondWindow_thenLatestOnlyCount() throws Exception {
+        try (var hedgedReader = new HedgedReader(Optional.of(HEDGE_DELAY), RunDeadline.unbounded())) {
+            for (var i = 0; i < HedgedReader.LATENCY_WINDOW; i++) {
+                hedgedReader.recordLatency(Duration.ofSeconds(10));
+            }
+            for (var i = 0; i < HedgedReader.LATENCY_WINDOW; i++) {
+                hedgedReader.recordLatency(Duration.ofMillis(20));
+            }
+
+            assertThat(hedgedReader.getDelay()).contains(Duration.ofMillis(20));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDisabled_thenNoDelay() throws Exception {
+        try (var hedgedReader = HedgedReader.disabled()) {
+            hedgedReader.recordLatency(Duration.ofMillis(20));
+
+            assertThat(hedgedReader.getDelay()).isEmpty();
+        }
+    }
+
+    /**
+     * Sleeps for the given duration, ignoring the interruptions due to the cancellation.
+     * @param duration the duration.
+     */
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test class for {@link JfrGitHubConnector} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class JfrGitHubConnectorTest {
+
+    /**
+     * The class under test.
+     */
+    private JfrGitHubConnector connector = null;
+
+    /**
+     * A mock for the connector.
+     */
+    @Mock
+    private GitHubConnector delegateMock;
+
+    /**
+     * A mock for the request.
+     */
+    @Mock
+    private GitHubConnectorRequest requestMock;
+
+    /**
+     * A mock for the response.
+     */
+    @Mock
+    private GitHubConnectorResponse responseMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        connector = new JfrGitHubConnector(delegateMock);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendListingWhileRecording_thenEmitApiCallAndPageFetch(@TempDir Path tempDir) throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url())
+                .thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones?state=all&page=3"));
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.statusCode()).thenReturn(200);
+
+        var events = record(tempDir, () -> assertThat(connector.send(requestMock)).isSameAs(responseMock));
+
+        assertThat(events).anySatisfy((RecordedEvent event) -> {
+            assertThat(event.getEventType().getName()).isEqualTo("me.julb.milestone.ApiCall");
+            assertThat(event.getString("method")).isEqualTo("GET");
+            assertThat(event.getString("endpoint")).isEqualTo("/repos/{owner}/{repo}/milestones");
+            assertThat(event.getInt("status")).isEqualTo(200);
+        });
+        assertThat(events).anySatisfy((RecordedEvent event) -> {
+            assertThat(event.getEventType().getName()).isEqualTo("me.julb.milestone.PageFetch");
+            assertThat(event.getInt("page")).isEqualTo(3);
+        });
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendFailsWhileRecording_thenEmitApiCallWithoutStatus(@TempDir Path tempDir) throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(delegateMock.send(requestMock)).thenThrow(new IOException("reset"));
+
+        var events = record(tempDir, () -> assertThrows(IOException.class, () -> connector.send(requestMock)));
+
+        assertThat(events)
+                .filteredOn((RecordedEvent event) -> event.getEventType().getName().startsWith("me.julb.milestone."))
+                .singleElement()
+                .satisfies((RecordedEvent event) -> assertThat(event.getInt("status")).isZero());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToPage_thenReturnPageParameterOrFirstPage() {
+        assertThat(JfrGitHubConnector.toPage(null)).isEqualTo(1);
+        assertThat(JfrGitHubConnector.toPage("state=all")).isEqualTo(1);
+        assertThat(JfrGitHubConnector.toPage("state=all&page=4&per_page=100")).isEqualTo(4);
+        assertThat(JfrGitHubConnector.toPage("per_page=100")).isEqualTo(1);
+    }
+
+    /**
+     * Runs the action while recording the events of the action.
+     * @param tempDir the directory of the recording.
+     * @param action the action.
+     * @return the events recorded.
+     * @throws Exception if an error occurs.
+     */
+    static List<RecordedEvent> record(Path tempDir, ThrowingRunnable action) throws Exception {
+        var jfrFile = tempDir.resolve("run.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(JfrEvents.ApiCall.class);
+            recording.enable(JfrEvents.PageFetch.class);
+            recording.enable(JfrEvents.MilestoneMatch.class);
+            recording.enable(JfrEvents.WriteDecision.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(jfrFile);
+        }
+        return RecordingFile.readAllEvents(jfrFile);
+    }
+
+    /**
+     * An action which may throw.
+     */
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        /**
+         * Runs the action.
+         * @throws Exception if an error occurs.
+         */
+        void run() throws Exception;
+    }
+}
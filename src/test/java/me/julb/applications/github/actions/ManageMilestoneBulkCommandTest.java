@@ -0,0 +1,594 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHMilestone;
+import org.kohsuke.github.GHMilestoneState;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.LocalPagedIterable;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.julb.sdk.github.actions.kit.GitHubActionsKit;
+
+/**
+ * Test class for {@link ManageMilestoneBulkCommand} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class ManageMilestoneBulkCommandTest {
+
+    /**
+     * The class under test.
+     */
+    private ManageMilestoneBulkCommand command = null;
+
+    /**
+     * A mock for GitHub action kit.
+     */
+    @Mock
+    private GitHubActionsKit ghActionsKitMock;
+
+    /**
+     * A mock for GitHub API.
+     */
+    @Mock
+    private GitHub ghApiMock;
+
+    /**
+     * A mock for GitHub repository.
+     */
+    @Mock
+    private GHRepository ghRepositoryMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        command = new ManageMilestoneBulkCommand();
+        command.setGhActionsKit(ghActionsKitMock);
+        command.setGhApi(ghApiMock);
+        command.setSingleFlight(new SingleFlight());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithInvalidArguments_thenFail() {
+        var args = new String[] {"unknown"};
+        assertThrows(CompletionException.class, () -> this.command.execute(args));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExportMilestones_thenWriteNdjson() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        when(ghMilestone.getTitle()).thenReturn("v1.0.0");
+        when(ghMilestone.getState()).thenReturn(GHMilestoneState.CLOSED);
+        when(ghMilestone.getDueOn()).thenReturn(ManageMilestoneGitHubAction.parseDueOn("2022-01-01"));
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestone)));
+
+        var writer = new StringWriter();
+        assertThat(this.command.exportMilestones(writer, List.of("octocat/Hello-World")))
+                .isEqualTo(1);
+
+        assertThat(writer)
+                .hasToString("{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"state\":\"CLOSED\","
+                        + "\"due_on\":\"2022-01-01\"}\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteExportToStandardOutput_thenWriteNdjsonOnlyToStandardOutput() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        when(ghMilestone.getTitle()).thenReturn("v1.0.0");
+        when(ghMilestone.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestone, ghMilestone)));
+        doAnswer(invocation -> {
+                    System.out.println("::notice::" + invocation.getArgument(0));
+                    return null;
+                })
+                .when(ghActionsKitMock)
+                .notice(anyString());
+
+        var stdout = new ByteArrayOutputStream();
+        var stderr = new ByteArrayOutputStream();
+        var previousStdout = System.out;
+        var previousStderr = System.err;
+        try {
+            System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+            System.setErr(new PrintStream(stderr, true, StandardCharsets.UTF_8));
+            this.command.execute(new String[] {"export", "-", "octocat/Hello-World"});
+        } finally {
+            System.setOut(previousStdout);
+            System.setErr(previousStderr);
+        }
+
+        var objectMapper = new ObjectMapper();
+        var lines = stdout.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertThat(lines).hasSize(2);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).get("title").asText()).isEqualTo("v1.0.0");
+        }
+        assertThat(stderr.toString(StandardCharsets.UTF_8)).contains("::notice::exported 2 milestone record(s).");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenImportMilestones_thenMilestonesCreatedOnce() throws Exception {
+        var ghMilestoneCreated = mock(GHMilestone.class);
+        when(ghMilestoneCreated.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL)).thenReturn(new LocalPagedIterable<>(List.of()));
+        when(ghRepositoryMock.createMilestone("v1.0.0", null)).thenReturn(ghMilestoneCreated);
+
+        var reader = new StringReader(String.join(
+                "\n",
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"state\":\"open\"}",
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"V1.0.0\",\"state\":\"open\"}"));
+
+        assertThat(this.command.importMilestones(reader, Optional.empty())).isEqualTo(2);
+
+        verify(ghApiMock).getRepository("octocat/Hello-World");
+        verify(ghRepositoryMock).listMilestones(GHIssueState.ALL);
+        verify(ghRepositoryMock).createMilestone("v1.0.0", null);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenImportMilestoneWhileAnotherIsWritten_thenDoNotWait() throws Exception {
+        var ghMilestoneCreated = mock(GHMilestone.class);
+        when(ghMilestoneCreated.getState()).thenReturn(GHMilestoneState.OPEN);
+        var otherCreated = new CountDownLatch(1);
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL)).thenReturn(new LocalPagedIterable<>(List.of()));
+        when(ghRepositoryMock.createMilestone("v1.0.0", null)).thenAnswer(invocation -> {
+            // The write of v1.0.0 completes only once v2.0.0 is written.
+            assertThat(otherCreated.await(10, TimeUnit.SECONDS)).isTrue();
+            return ghMilestoneCreated;
+        });
+        when(ghRepositoryMock.createMilestone("v2.0.0", null)).thenAnswer(invocation -> {
+            otherCreated.countDown();
+            return ghMilestoneCreated;
+        });
+
+        var slowImport = CompletableFuture.runAsync(() -> {
+            try {
+                this.command.importMilestone(
+                        new MilestoneRecord("octocat/Hello-World", "v1.0.0", InputMilestoneState.OPEN, null, null));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        this.command.importMilestone(
+                new MilestoneRecord("octocat/Hello-World", "v2.0.0", InputMilestoneState.OPEN, null, null));
+        slowImport.get(10, TimeUnit.SECONDS);
+
+        assertThat(this.command.getRepositoryMilestones("octocat/Hello-World").getMilestones())
+                .containsOnlyKeys(MilestoneTitleIndex.normalize("v1.0.0"), MilestoneTitleIndex.normalize("v2.0.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNewCommandsAndActions_thenShareSingleFlight() {
+        assertThat(new ManageMilestoneBulkCommand().getSingleFlight())
+                .isSameAs(SingleFlight.SHARED)
+                .isSameAs(new ManageMilestoneGitHubAction().getSingleFlight());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCommandsGetSameRepositoryMilestonesConcurrently_thenListOnce() throws Exception {
+        var listed = new CountDownLatch(1);
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenAnswer(invocation -> {
+            // The listing completes only once the other command waits for it.
+            assertThat(listed.await(10, TimeUnit.SECONDS)).isTrue();
+            return ghRepositoryMock;
+        });
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL)).thenReturn(new LocalPagedIterable<>(List.of()));
+
+        var otherCommand = new ManageMilestoneBulkCommand();
+        otherCommand.setGhActionsKit(ghActionsKitMock);
+        otherCommand.setGhApi(ghApiMock);
+        otherCommand.setSingleFlight(this.command.getSingleFlight());
+
+        var first = CompletableFuture.supplyAsync(() -> getRepositoryMilestones(this.command));
+        while (this.command.getSingleFlight().getCallCount() < 1) {
+            Thread.sleep(1);
+        }
+        var second = CompletableFuture.supplyAsync(() -> getRepositoryMilestones(otherCommand));
+        while (this.command.getSingleFlight().getSharedCount() < 1) {
+            Thread.sleep(1);
+        }
+        listed.countDown();
+
+        assertThat(second.get(10, TimeUnit.SECONDS)).isSameAs(first.get(10, TimeUnit.SECONDS));
+        verify(ghApiMock).getRepository("octocat/Hello-World");
+    }
+
+    /**
+     * Gets the repository milestones of the test repository.
+     * @param bulkCommand the command.
+     * @return the repository milestones.
+     */
+    private static ManageMilestoneBulkCommand.RepositoryMilestones getRepositoryMilestones(
+            ManageMilestoneBulkCommand bulkCommand) {
+        try {
+            return bulkCommand.getRepositoryMilestones("octocat/Hello-World");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetRepositoryMilestonesFails_thenListAgainOnNextCall() throws Exception {
+        when(ghApiMock.getRepository("octocat/Hello-World"))
+                .thenThrow(new IOException("unavailable"))
+                .thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL)).thenReturn(new LocalPagedIterable<>(List.of()));
+
+        assertThrows(IOException.class, () -> this.command.getRepositoryMilestones("octocat/Hello-World"));
+        var repositoryMilestones = this.command.getRepositoryMilestones("octocat/Hello-World");
+
+        assertThat(repositoryMilestones.getRepository()).isSameAs(ghRepositoryMock);
+        assertThat(this.command.getRepositoryMilestones("octocat/Hello-World")).isSameAs(repositoryMilestones);
+        verify(ghApiMock, times(2)).getRepository("octocat/Hello-World");
+        assertThat(this.command.getSingleFlight().getCallCount()).isEqualTo(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenImportMilestonesWithCheckpoint_thenResumeAfterCheckpoint(@TempDir Path tempDir) throws Exception {
+        var checkpointPath = tempDir.resolve("import.checkpoint");
+        Files.writeString(checkpointPath, "1");
+
+        var ghMilestoneExisting = mock(GHMilestone.class);
+        when(ghMilestoneExisting.getTitle()).thenReturn("v2.0.0");
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestoneExisting)));
+
+        var reader = new StringReader(String.join(
+                "\n",
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\"}",
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"v2.0.0\",\"state\":\"deleted\"}"));
+
+        assertThat(this.command.importMilestones(reader, Optional.of(checkpointPath)))
+                .isEqualTo(1);
+
+        verify(ghMilestoneExisting).delete();
+        verify(ghRepositoryMock, never()).createMilestone("v1.0.0", null);
+        assertThat(Files.readString(checkpointPath)).isEqualTo("2");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenImportMilestonesWithoutRepo_thenThrowIllegalArgumentException() throws Exception {
+        var milestoneRecord = new MilestoneRecord(null, "v1.0.0", InputMilestoneState.OPEN, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> this.command.importMilestone(milestoneRecord));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConsumeMilestonesFromDirectory_thenApplyCoalescedRequestsOnce(@TempDir Path tempDir) throws Exception {
+        var ghMilestoneCreated = mock(GHMilestone.class);
+        when(ghMilestoneCreated.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL)).thenReturn(new LocalPagedIterable<>(List.of()));
+        when(ghRepositoryMock.createMilestone("V1.0.0", "second")).thenReturn(ghMilestoneCreated);
+
+        Files.writeString(
+                tempDir.resolve("001.ndjson"),
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"description\":\"first\"}\n"
+                        + "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"due_on\":\"2022-01-01\"}\n");
+        Files.writeString(
+                tempDir.resolve("002.ndjson"),
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"V1.0.0\",\"description\":\"second\"}\n");
+        Files.writeString(tempDir.resolve("003.ndjson.tmp"), "{\"repo\":\"octocat/Hello-World\"");
+
+        assertThat(this.command.consumeMilestones(tempDir)).isEqualTo(1);
+
+        verify(ghRepositoryMock).createMilestone("V1.0.0", "second");
+        verify(ghMilestoneCreated).setDueOn(ManageMilestoneGitHubAction.parseDueOn("2022-01-01"));
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(tempDir.resolve("003.ndjson.tmp"));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConsumeRequestsWithoutState_thenKeepStateOfEarlierRequest(@TempDir Path tempDir) throws Exception {
+        var ghMilestoneExisting = mock(GHMilestone.class);
+        when(ghMilestoneExisting.getTitle()).thenReturn("v1.0.0");
+        when(ghMilestoneExisting.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestoneExisting)));
+
+        Files.writeString(
+                tempDir.resolve("001.ndjson"),
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"state\":\"closed\"}\n"
+                        + "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"description\":\"late\"}\n"
+                        + "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"due_on\":\"2022-01-01\"}\n");
+
+        assertThat(this.command.consumeMilestones(tempDir)).isEqualTo(1);
+
+        verify(ghMilestoneExisting).setDescription("late");
+        verify(ghMilestoneExisting).setDueOn(ManageMilestoneGitHubAction.parseDueOn("2022-01-01"));
+        verify(ghMilestoneExisting).close();
+        verify(ghMilestoneExisting, never()).reopen();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConsumeRequestAfterDeletion_thenDeleteThenCreate(@TempDir Path tempDir) throws Exception {
+        var ghMilestoneExisting = mock(GHMilestone.class);
+        when(ghMilestoneExisting.getTitle()).thenReturn("v1.0.0");
+        var ghMilestoneCreated = mock(GHMilestone.class);
+        when(ghMilestoneCreated.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestoneExisting)));
+        when(ghRepositoryMock.createMilestone("v1.0.0", "x")).thenReturn(ghMilestoneCreated);
+
+        Files.writeString(
+                tempDir.resolve("001.ndjson"),
+                "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"state\":\"deleted\"}\n"
+                        + "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"description\":\"x\"}\n");
+
+        assertThat(this.command.consumeMilestones(tempDir)).isEqualTo(1);
+
+        var inOrder = inOrder(ghMilestoneExisting, ghRepositoryMock);
+        inOrder.verify(ghMilestoneExisting).delete();
+        inOrder.verify(ghRepositoryMock).createMilestone("v1.0.0", "x");
+        verify(ghMilestoneCreated, never()).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenImportMilestoneWithoutState_thenKeepExistingState() throws Exception {
+        var ghMilestoneExisting = mock(GHMilestone.class);
+        when(ghMilestoneExisting.getTitle()).thenReturn("v1.0.0");
+        when(ghMilestoneExisting.getState()).thenReturn(GHMilestoneState.CLOSED);
+
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestoneExisting)));
+
+        var reader =
+                new StringReader("{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\",\"description\":\"late\"}");
+
+        assertThat(this.command.importMilestones(reader, Optional.empty())).isEqualTo(1);
+
+        verify(ghMilestoneExisting).setDescription("late");
+        verify(ghMilestoneExisting, never()).reopen();
+        verify(ghMilestoneExisting, never()).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConsumeMilestonesFails_thenKeepClaimedQueueFile(@TempDir Path tempDir) throws Exception {
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenThrow(new IOException("unavailable"));
+
+        var queueFile = tempDir.resolve("queue.ndjson");
+        Files.writeString(queueFile, "{\"repo\":\"octocat/Hello-World\",\"title\":\"v1.0.0\"}\n");
+
+        assertThrows(IOException.class, () -> this.command.consumeMilestones(queueFile));
+
+        assertThat(queueFile).doesNotExist();
+        assertThat(tempDir.resolve("queue.ndjson.processing")).exists();
+        assertThat(ManageMilestoneBulkCommand.claimQueueFiles(queueFile))
+                .containsExactly(tempDir.resolve("queue.ndjson.processing"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCoalesceMilestoneRecords_thenLastWriterWinsPerField() {
+        var coalescedRecords = new LinkedHashMap<String, List<MilestoneRecord>>();
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords,
+                new MilestoneRecord("octocat/Hello-World", "v1.0.0", InputMilestoneState.OPEN, "first", "2022-01-01"));
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords,
+                new MilestoneRecord("Octocat/Hello-World", "v1.0.0", InputMilestoneState.CLOSED, null, null));
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords, new MilestoneRecord("octocat/Hello-World", "v1.0.0", null, "second", null));
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords, new MilestoneRecord("octocat/Hello-World", "v2.0.0", null, "other", null));
+
+        assertThat(coalescedRecords.values())
+                .containsExactly(
+                        List.of(new MilestoneRecord(
+                                "octocat/Hello-World", "v1.0.0", InputMilestoneState.CLOSED, "second", "2022-01-01")),
+                        List.of(new MilestoneRecord("octocat/Hello-World", "v2.0.0", null, "other", null)));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCoalesceMilestoneRecordsWithDeletion_thenDiscardPreviousFields() {
+        var coalescedRecords = new LinkedHashMap<String, List<MilestoneRecord>>();
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords, new MilestoneRecord("octocat/Hello-World", "v1.0.0", null, "first", "2022-01-01"));
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords,
+                new MilestoneRecord("octocat/Hello-World", "v1.0.0", InputMilestoneState.DELETED, null, null));
+
+        assertThat(coalescedRecords.values())
+                .containsExactly(List.of(
+                        new MilestoneRecord("octocat/Hello-World", "v1.0.0", InputMilestoneState.DELETED, null, null)));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCoalesceMilestoneRecordsUpdatedAfterDeletion_thenDeleteThenCreate() {
+        var coalescedRecords = new LinkedHashMap<String, List<MilestoneRecord>>();
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords, new MilestoneRecord("octocat/Hello-World", "v1.0.0", null, "first", "2022-01-01"));
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords,
+                new MilestoneRecord("octocat/Hello-World", "v1.0.0", InputMilestoneState.DELETED, null, null));
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords, new MilestoneRecord("octocat/Hello-World", "v1.0.0", null, "x", null));
+        ManageMilestoneBulkCommand.coalesceMilestoneRecord(
+                coalescedRecords, new MilestoneRecord("octocat/Hello-World", "v1.0.0", null, null, "2022-02-01"));
+
+        assertThat(coalescedRecords.values())
+                .containsExactly(List.of(
+                        new MilestoneRecord("octocat/Hello-World", "v1.0.0", InputMilestoneState.DELETED, null, null),
+                        new MilestoneRecord("octocat/Hello-World", "v1.0.0", null, "x", "2022-02-01")));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSnapshotMilestones_thenWriteSnapshotAndDelta(@TempDir Path tempDir) throws Exception {
+        var entry = new MilestoneSnapshot.Entry(1, "v1.0.0", "open", null, null, "2022-01-01T00:00:00Z");
+        var current = new MilestoneSnapshot();
+        current.setRepo("octocat/Hello-World");
+        current.setUpdatedAt("2022-01-01T00:00:00Z");
+        current.getPages().add(new MilestoneSnapshot.Page("\"etag\"", false, List.of(entry)));
+
+        var snapshotter = mock(MilestoneSnapshotter.class);
+        when(snapshotter.refresh(Mockito.any(MilestoneSnapshot.class))).thenReturn(current);
+
+        assertThat(this.command.snapshotMilestones(snapshotter, tempDir, List.of("octocat/Hello-World")))
+                .isEqualTo(1);
+
+        assertThat(tempDir.resolve("octocat/Hello-World.json")).exists();
+        assertThat(Files.readString(tempDir.resolve("delta.ndjson")))
+                .startsWith("{\"repo\":\"octocat/Hello-World\",\"change\":\"CREATED\"");
+
+        // Second run: the previous snapshot is loaded and nothing changed.
+        when(snapshotter.refresh(current)).thenReturn(current);
+        assertThat(this.command.snapshotMilestones(snapshotter, tempDir, List.of("octocat/Hello-World")))
+                .isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSnapshotMilestonesIntoNewDirectory_thenCreateDirectory(@TempDir Path tempDir) throws Exception {
+        var current = new MilestoneSnapshot();
+        current.setRepo("octocat/Hello-World");
+
+        var snapshotter = mock(MilestoneSnapshotter.class);
+        when(snapshotter.refresh(Mockito.any(MilestoneSnapshot.class))).thenReturn(current);
+
+        var directory = tempDir.resolve("snapshots");
+        assertThat(this.command.snapshotMilestones(snapshotter, directory, List.of("octocat/Hello-World"))).isZero();
+
+        assertThat(directory.resolve("delta.ndjson")).exists();
+        assertThat(directory.resolve("octocat/Hello-World.json")).exists();
+    }
+}
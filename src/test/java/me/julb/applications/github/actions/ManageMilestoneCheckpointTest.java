@@ -0,0 +1,146 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.ServerSocket;
+import java.util.concurrent.CompletionException;
+
+import org.crac.CheckpointException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import me.julb.sdk.github.actions.kit.GitHubActionsKit;
+import me.julb.sdk.github.actions.spi.GitHubActionProvider;
+
+/**
+ * Test class for {@link ManageMilestoneCheckpoint} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class ManageMilestoneCheckpointTest {
+
+    /**
+     * The class under test.
+     */
+    private ManageMilestoneCheckpoint command = null;
+
+    /**
+     * A mock for GitHub action kit.
+     */
+    @Mock
+    private GitHubActionsKit ghActionsKitMock;
+
+    /**
+     * A mock for the action.
+     */
+    @Mock
+    private GitHubActionProvider actionMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        command = spy(new ManageMilestoneCheckpoint());
+        command.setGhActionsKit(ghActionsKitMock);
+        command.setActionFactory(() -> actionMock);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecute_thenWarmUpCheckpointAndExecuteOnceRestored() throws Exception {
+        when(ghActionsKitMock.getGitHubApiUrl()).thenReturn(String.format("http://127.0.0.1:%d", freePort()));
+        doNothing().when(command).checkpointRestore();
+
+        command.execute(new String[] {"checkpoint", "3"});
+
+        verify(command).checkpointRestore();
+        verify(actionMock, times(4)).execute();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithRemoteApiUrl_thenFail() throws Exception {
+        when(ghActionsKitMock.getGitHubApiUrl()).thenReturn("https://api.github.com");
+
+        var args = new String[] {"checkpoint"};
+        assertThrows(IllegalArgumentException.class, () -> command.execute(args));
+        verify(command, never()).checkpointRestore();
+        verify(actionMock, never()).execute();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCheckpointFails_thenThrowCompletionException() throws Exception {
+        when(ghActionsKitMock.getGitHubApiUrl()).thenReturn(String.format("http://127.0.0.1:%d", freePort()));
+        doThrow(new CheckpointException()).when(command).checkpointRestore();
+
+        var args = new String[] {"checkpoint", "1"};
+        var e = assertThrows(CompletionException.class, () -> command.execute(args));
+        assertThat(e).hasCauseInstanceOf(CheckpointException.class);
+        verify(actionMock, times(1)).execute();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetWarmupIterations_thenReturnArgumentOrDefault() {
+        assertThat(command.getWarmupIterations(new String[] {"checkpoint"}))
+                .isEqualTo(ManageMilestoneCheckpoint.DEFAULT_WARMUP_ITERATIONS);
+        assertThat(command.getWarmupIterations(new String[] {"checkpoint", "5"})).isEqualTo(5);
+
+        var args = new String[] {"checkpoint", "0"};
+        assertThrows(IllegalArgumentException.class, () -> command.getWarmupIterations(args));
+    }
+
+    /**
+     * Gets a free port of the loopback interface.
+     * @return the port.
+     */
+    private static int freePort() throws Exception {
+        try (var serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+}
@@ -24,10 +24,14 @@
 package me.julb.applications.github.actions;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -35,23 +39,48 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.TimeZone;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.kohsuke.github.GHIssue;
+import org.kohsuke.github.GHIssueQueryBuilder;
+import org.kohsuke.github.GHIssueSearchBuilder;
 import org.kohsuke.github.GHIssueState;
 import org.kohsuke.github.GHMilestone;
 import org.kohsuke.github.GHMilestoneState;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GitHub;
 import org.kohsuke.github.LocalPagedIterable;
+import org.kohsuke.github.PagedSearchIterable;
+import org.kohsuke.github.connector.GitHubConnector;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -269,6 +298,121 @@ class ManageMilestoneGitHubActionTest {
         verify(this.ghActionsKitMock).setOutput(OutputVars.NUMBER.key(), 123);
     }
 
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithSelector_thenResolvedMilestoneUpdated() throws Exception {
+        var spy = spy(this.githubAction);
+
+        var ghMilestoneExisting = Mockito.mock(GHMilestone.class);
+        when(ghMilestoneExisting.getNumber()).thenReturn(123);
+        when(ghMilestoneExisting.getTitle()).thenReturn("v1.2.0");
+
+        lenient().when(this.ghActionsKitMock.getInput("title")).thenReturn(Optional.of("@next-due"));
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        doReturn("@next-due").when(spy).getInputTitle();
+        doReturn(InputMilestoneState.CLOSED).when(spy).getInputState();
+        doReturn(Optional.empty()).when(spy).getInputDescription();
+        doReturn(Optional.empty()).when(spy).getInputDueOn();
+        doReturn(Optional.empty()).when(spy).getInputRolloverTo();
+
+        doNothing().when(spy).connectApi();
+
+        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        doReturn(Optional.of(ghMilestoneExisting)).when(spy).resolveGHMilestone(MilestoneSelector.NEXT_DUE);
+        doReturn(ghMilestoneExisting)
+                .when(spy)
+                .createGHMilestone(
+                        "v1.2.0",
+                        GHMilestoneState.CLOSED,
+                        Optional.empty(),
+                        Optional.empty(),
+                        Optional.of(ghMilestoneExisting));
+
+        spy.execute();
+
+        verify(spy, never()).getGHMilestone("@next-due");
+        verify(this.ghRepositoryMock, never()).listMilestones(GHIssueState.ALL);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.NUMBER.key(), 123);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.TITLE.key(), "v1.2.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithSelectorNotResolved_thenFail() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn("@latest-open").when(spy).getInputTitle();
+        doReturn(InputMilestoneState.OPEN).when(spy).getInputState();
+        doReturn(Optional.empty()).when(spy).getInputDescription();
+        doReturn(Optional.empty()).when(spy).getInputDueOn();
+        doNothing().when(spy).startPrefetch();
+        doNothing().when(spy).awaitGHRepository();
+        doReturn(Optional.empty()).when(spy).resolveGHMilestone(MilestoneSelector.LATEST_OPEN);
+
+        var e = assertThrows(CompletionException.class, spy::execute);
+        assertThat(e).hasCauseInstanceOf(NoSuchElementException.class);
+        verify(spy, never())
+                .createGHMilestone(
+                        "@latest-open", GHMilestoneState.OPEN, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResolveNextDue_thenReturnFirstMilestoneWithDueDate() throws Exception {
+        var ghMilestoneUndated = Mockito.mock(GHMilestone.class);
+        var ghMilestoneNextDue = Mockito.mock(GHMilestone.class);
+        var ghMilestoneLaterDue = Mockito.mock(GHMilestone.class);
+        when(ghMilestoneNextDue.getDueOn()).thenReturn(ManageMilestoneGitHubAction.parseDueOn("2022-01-01"));
+        when(ghRepositoryMock.listMilestones(GHIssueState.OPEN))
+                .thenReturn(new LocalPagedIterable<>(
+                        List.of(ghMilestoneUndated, ghMilestoneNextDue, ghMilestoneLaterDue)));
+
+        assertThat(this.githubAction.resolveGHMilestone(MilestoneSelector.NEXT_DUE)).contains(ghMilestoneNextDue);
+        verify(ghMilestoneLaterDue, never()).getDueOn();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResolveLatestOpen_thenReturnMilestoneCreatedLast() throws Exception {
+        var ghMilestoneOlder = Mockito.mock(GHMilestone.class);
+        var ghMilestoneLatest = Mockito.mock(GHMilestone.class);
+        when(ghMilestoneOlder.getNumber()).thenReturn(3);
+        when(ghMilestoneLatest.getNumber()).thenReturn(7);
+        when(ghRepositoryMock.listMilestones(GHIssueState.OPEN))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestoneLatest, ghMilestoneOlder)));
+
+        assertThat(this.githubAction.resolveGHMilestone(MilestoneSelector.LATEST_OPEN)).contains(ghMilestoneLatest);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResolveWithoutOpenMilestone_thenReturnEmpty() throws Exception {
+        when(ghRepositoryMock.listMilestones(GHIssueState.OPEN)).thenReturn(new LocalPagedIterable<>(List.of()));
+
+        assertThat(this.githubAction.resolveGHMilestone(MilestoneSelector.NEXT_DUE)).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSelectorOfTitle_thenReturnSelectorOfKnownKeysOnly() {
+        assertThat(MilestoneSelector.of("@next-due")).contains(MilestoneSelector.NEXT_DUE);
+        assertThat(MilestoneSelector.of("@latest-open")).contains(MilestoneSelector.LATEST_OPEN);
+        assertThat(MilestoneSelector.of("@v1.0.0")).isEmpty();
+        assertThat(MilestoneSelector.of("v1.0.0")).isEmpty();
+    }
+
     /**
      * Test method.
      */
@@ -451,6 +595,7 @@ class ManageMilestoneGitHubActionTest {
 
         verify(this.ghApiMock).getRepository("octocat/Hello-World");
         verify(this.ghActionsKitMock).setEmptyOutput(OutputVars.NUMBER.key());
+        verify(this.ghActionsKitMock).setEmptyOutput(OutputVars.PROGRESS.key());
     }
 
     /**
@@ -508,219 +653,1396 @@ class ManageMilestoneGitHubActionTest {
      * Test method.
      */
     @Test
-    void whenGetGHMilestoneExist_thenReturnRef() throws Exception {
-        var ghMilestone1 = Mockito.mock(GHMilestone.class);
-        when(ghMilestone1.getTitle()).thenReturn("v0.0.0");
+    void whenIsRateLimitPacedSingleMilestone_thenReturnFalse() throws Exception {
+        when(ghActionsKitMock.getInput("rollover_to")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("assign_query")).thenReturn(Optional.empty());
 
-        var ghMilestone2 = Mockito.mock(GHMilestone.class);
-        when(ghMilestone2.getTitle()).thenReturn("v1.0.0");
+        assertThat(this.githubAction.isRateLimitPaced()).isFalse();
+    }
 
-        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
-                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestone1, ghMilestone2)));
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsRateLimitPacedRollover_thenReturnTrue() throws Exception {
+        when(ghActionsKitMock.getInput("rollover_to")).thenReturn(Optional.of("v1.1.0"));
 
-        assertThat(this.githubAction.getGHMilestone("v1.0.0")).isPresent().contains(ghMilestone2);
+        assertThat(this.githubAction.isRateLimitPaced()).isTrue();
+    }
 
-        verify(ghRepositoryMock).listMilestones(GHIssueState.ALL);
-        verify(ghMilestone1).getTitle();
-        verify(ghMilestone2).getTitle();
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsRateLimitPacedAssign_thenReturnTrue() throws Exception {
+        when(ghActionsKitMock.getInput("rollover_to")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("assign_query")).thenReturn(Optional.of("label:bug"));
+
+        assertThat(this.githubAction.isRateLimitPaced()).isTrue();
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGetGHMilestoneDoesNotExist_thenReturnEmpty() throws Exception {
-        when(ghRepositoryMock.listMilestones(GHIssueState.ALL)).thenReturn(new LocalPagedIterable<>(List.of()));
+    void whenIsRateLimitPacedBulk_thenReturnTrue() throws Exception {
+        this.githubAction.setBulk(true);
 
-        assertThat(this.githubAction.getGHMilestone("v1.0.0")).isEmpty();
+        assertThat(this.githubAction.isRateLimitPaced()).isTrue();
+        verify(ghActionsKitMock, never()).getInput(Mockito.anyString());
+    }
 
-        verify(ghRepositoryMock).listMilestones(GHIssueState.ALL);
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateAuthorizationProviderWithoutApp_thenUseGitHubToken() throws Exception {
+        when(ghActionsKitMock.getInput("app_id")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getRequiredEnv("GITHUB_TOKEN")).thenReturn("token");
+
+        assertThat(this.githubAction
+                        .createAuthorizationProvider("https://api.github.com", Mockito.mock(GitHubConnector.class))
+                        .getEncodedAuthorization())
+                .isEqualTo("token token");
+
+        verify(ghActionsKitMock).getRequiredEnv("GITHUB_TOKEN");
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGetGHMilestoneNull_thenThrowNullPointerException() throws Exception {
-        assertThrows(NullPointerException.class, () -> this.githubAction.getGHMilestone(null));
+    void whenCreateAuthorizationProviderWithApp_thenUseAppInstallation() throws Exception {
+        var keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        var privateKeyPem = GitHubAppAuthorizationProviderTest.pem(
+                "PRIVATE KEY", keyPairGenerator.generateKeyPair().getPrivate().getEncoded());
+
+        when(ghActionsKitMock.getInput("app_id")).thenReturn(Optional.of("123"));
+        when(ghActionsKitMock.getInput("app_installation_id")).thenReturn(Optional.of("456"));
+        when(ghActionsKitMock.getRequiredInput("app_private_key")).thenReturn(privateKeyPem);
+        when(ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+
+        assertThat(this.githubAction.createAuthorizationProvider(
+                        "https://api.github.com", Mockito.mock(GitHubConnector.class)))
+                .isInstanceOf(GitHubAppAuthorizationProvider.class);
+
+        verify(ghActionsKitMock, never()).getRequiredEnv("GITHUB_TOKEN");
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenCreateGHMilestoneOpenEmptyMilestone_thenOpenMilestone() throws Exception {
-        var ghMilestoneMock = mock(GHMilestone.class);
-        when(ghRepositoryMock.createMilestone("v1.0.0", null)).thenReturn(ghMilestoneMock);
-        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.OPEN);
+    void whenGetInputTimeoutPresent_thenReturnValue() throws Exception {
+        when(ghActionsKitMock.getInput("timeout")).thenReturn(Optional.of("PT10M"));
 
-        this.githubAction.createGHMilestone(
-                "v1.0.0", GHMilestoneState.OPEN, Optional.empty(), Optional.empty(), Optional.empty());
+        assertThat(this.githubAction.getInputTimeout()).contains(Duration.ofMinutes(10));
+    }
 
-        verify(ghActionsKitMock).notice(Mockito.anyString());
-        verify(ghRepositoryMock).createMilestone("v1.0.0", null);
-        verify(ghMilestoneMock, never()).reopen();
-        verify(ghMilestoneMock, never()).close();
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputTimeoutInvalid_thenThrowIllegalArgumentException() throws Exception {
+        when(ghActionsKitMock.getInput("timeout")).thenReturn(Optional.of("10"));
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getInputTimeout());
+
+        when(ghActionsKitMock.getInput("timeout")).thenReturn(Optional.of("PT0S"));
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getInputTimeout());
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenCreateGHMilestoneOpenExistingOpenMilestone_thenOpenMilestone() throws Exception {
-        var ghMilestoneMock = mock(GHMilestone.class);
-        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.OPEN);
+    void whenGetInputHedgeDelayPresent_thenReturnValue() throws Exception {
+        when(ghActionsKitMock.getInput("hedge_delay")).thenReturn(Optional.of("PT0.5S"));
 
-        var dueOn = new Date();
+        assertThat(this.githubAction.getInputHedgeDelay()).contains(Duration.ofMillis(500));
+    }
 
-        this.githubAction.createGHMilestone(
-                "v1.0.0",
-                GHMilestoneState.OPEN,
-                Optional.of("description"),
-                Optional.of(dueOn),
-                Optional.of(ghMilestoneMock));
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateConnectorWithHedging_thenReturnHedgedConnector() throws Exception {
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("rate_limit_budget_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("circuit_breaker_threshold")).thenReturn(Optional.empty());
+        try (var hedgedReader = new HedgedReader(Optional.of(Duration.ofSeconds(1)), RunDeadline.unbounded())) {
+            this.githubAction.setHedgedReader(hedgedReader);
+
+            assertThat(this.githubAction.createConnector()).isInstanceOf(HedgedGitHubConnector.class);
+        }
+    }
 
-        verify(ghActionsKitMock).notice(Mockito.anyString());
-        verify(ghMilestoneMock).setDueOn(dueOn);
-        verify(ghMilestoneMock).setDescription("description");
-        verify(ghMilestoneMock, never()).reopen();
-        verify(ghMilestoneMock, never()).close();
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateConnectorWithCircuitBreaker_thenReturnCircuitBreaker() throws Exception {
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("rate_limit_budget_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("circuit_breaker_threshold")).thenReturn(Optional.of("50"));
+        when(ghActionsKitMock.getInput("circuit_breaker_slow_call")).thenReturn(Optional.of("PT2S"));
+
+        assertThat(this.githubAction.createConnector()).isInstanceOf(CircuitBreakerGitHubConnector.class);
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenCreateGHMilestoneCloseExistingOpenMilestone_thenCloseMilestone() throws Exception {
-        var ghMilestoneMock = mock(GHMilestone.class);
-        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.OPEN);
+    void whenCreateConnectorWithoutCircuitBreaker_thenReturnDeadlineConnector() throws Exception {
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("rate_limit_budget_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("circuit_breaker_threshold")).thenReturn(Optional.empty());
 
-        var dueOn = new Date();
+        assertThat(this.githubAction.createConnector()).isNotInstanceOf(CircuitBreakerGitHubConnector.class);
+    }
 
-        this.githubAction.createGHMilestone(
-                "v1.0.0",
-                GHMilestoneState.CLOSED,
-                Optional.of("description"),
-                Optional.of(dueOn),
-                Optional.of(ghMilestoneMock));
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateConnectorWithMetricsFile_thenReturnMetricsConnector() throws Exception {
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("rate_limit_budget_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.of("milestone.prom"));
+        when(ghActionsKitMock.getInput("circuit_breaker_threshold")).thenReturn(Optional.empty());
 
-        verify(ghActionsKitMock, times(2)).notice(Mockito.anyString());
-        verify(ghMilestoneMock).setDueOn(dueOn);
-        verify(ghMilestoneMock).setDescription("description");
-        verify(ghMilestoneMock, never()).reopen();
-        verify(ghMilestoneMock).close();
+        assertThat(this.githubAction.createConnector()).isInstanceOf(MetricsGitHubConnector.class);
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenCreateGHMilestoneOpenExistingClosedMilestone_thenOpenMilestone() throws Exception {
-        var ghMilestoneMock = mock(GHMilestone.class);
-        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.CLOSED);
+    void whenCreateConnectorWithCassetteRecord_thenReturnRecordingConnector() throws Exception {
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.of("cassette.json"));
+        when(ghActionsKitMock.getEnumInput("cassette_mode", InputCassetteMode.class))
+                .thenReturn(Optional.of(InputCassetteMode.RECORD));
+        when(ghActionsKitMock.getGitHubApiUrl()).thenReturn("https://api.github.com");
+        when(ghActionsKitMock.getInput("rate_limit_budget_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("circuit_breaker_threshold")).thenReturn(Optional.empty());
 
-        var dueOn = new Date();
+        assertThat(this.githubAction.createConnector()).isInstanceOf(CassetteRecordingGitHubConnector.class);
+    }
 
-        this.githubAction.createGHMilestone(
-                "v1.0.0",
-                GHMilestoneState.OPEN,
-                Optional.of("description"),
-                Optional.of(dueOn),
-                Optional.of(ghMilestoneMock));
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateConnectorWithRateLimitBudgetFile_thenReturnSharedBudgetConnector() throws Exception {
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("rate_limit_budget_file")).thenReturn(Optional.of("rate-limit.budget"));
+        when(ghActionsKitMock.getInput("app_id")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getRequiredEnv("GITHUB_TOKEN")).thenReturn("token");
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("circuit_breaker_threshold")).thenReturn(Optional.empty());
 
-        verify(ghActionsKitMock, times(2)).notice(Mockito.anyString());
-        verify(ghMilestoneMock).setDueOn(dueOn);
-        verify(ghMilestoneMock).setDescription("description");
-        verify(ghMilestoneMock).reopen();
-        verify(ghMilestoneMock, never()).close();
+        assertThat(this.githubAction.createConnector()).isInstanceOf(SharedBudgetGitHubConnector.class);
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenCreateGHMilestoneCloseExistingClosedMilestone_thenCloseMilestone() throws Exception {
-        var ghMilestoneMock = mock(GHMilestone.class);
-        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.CLOSED);
+    void whenGetRateLimitBudgetKeyWithToken_thenReturnTokenHash() throws Exception {
+        when(ghActionsKitMock.getInput("app_id")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getRequiredEnv("GITHUB_TOKEN")).thenReturn("token");
 
-        var dueOn = new Date();
+        assertThat(this.githubAction.getRateLimitBudgetKey())
+                .isEqualTo("token-3c469e9d6c5875d3")
+                .doesNotContain("token-token");
+    }
 
-        this.githubAction.createGHMilestone(
-                "v1.0.0",
-                GHMilestoneState.CLOSED,
-                Optional.of("description"),
-                Optional.of(dueOn),
-                Optional.of(ghMilestoneMock));
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetRateLimitBudgetKeyWithAppInstallation_thenReturnInstallationId() throws Exception {
+        when(ghActionsKitMock.getInput("app_id")).thenReturn(Optional.of("123"));
+        when(ghActionsKitMock.getInput("app_installation_id")).thenReturn(Optional.of("456"));
 
-        verify(ghActionsKitMock).notice(Mockito.anyString());
-        verify(ghMilestoneMock).setDueOn(dueOn);
-        verify(ghMilestoneMock).setDescription("description");
-        verify(ghMilestoneMock, never()).reopen();
-        verify(ghMilestoneMock, never()).close();
+        assertThat(this.githubAction.getRateLimitBudgetKey()).isEqualTo("installation-456");
+        verify(ghActionsKitMock, never()).getRequiredEnv("GITHUB_TOKEN");
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenCreateGHMilestoneNull_thenThrowNullPointerException() throws Exception {
-        var emptyStringOptional = Optional.<String>empty();
-        var emptyDateOptional = Optional.<Date>empty();
-        var emptyMilestoneOptional = Optional.<GHMilestone>empty();
-        assertThrows(
-                NullPointerException.class,
-                () -> this.githubAction.createGHMilestone(
-                        null, GHMilestoneState.OPEN, emptyStringOptional, emptyDateOptional, emptyMilestoneOptional));
-        assertThrows(
-                NullPointerException.class,
-                () -> this.githubAction.createGHMilestone(
-                        "v1.0.0", null, emptyStringOptional, emptyDateOptional, emptyMilestoneOptional));
-        assertThrows(
-                NullPointerException.class,
-                () -> this.githubAction.createGHMilestone(
-                        "v1.0.0", GHMilestoneState.OPEN, null, emptyDateOptional, emptyMilestoneOptional));
-        assertThrows(
-                NullPointerException.class,
-                () -> this.githubAction.createGHMilestone(
-                        "v1.0.0", GHMilestoneState.OPEN, emptyStringOptional, null, emptyMilestoneOptional));
-        assertThrows(
-                NullPointerException.class,
-                () -> this.githubAction.createGHMilestone(
-                        "v1.0.0", GHMilestoneState.OPEN, emptyStringOptional, emptyDateOptional, null));
+    void whenGetRateLimitBudgetKeyWithAppRepositoryInstallation_thenReturnAppIdAndOwner() throws Exception {
+        when(ghActionsKitMock.getInput("app_id")).thenReturn(Optional.of("123"));
+        when(ghActionsKitMock.getInput("app_installation_id")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+
+        assertThat(this.githubAction.getRateLimitBudgetKey()).isEqualTo("app-123-octocat");
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenDeleteGHMilestonePresent_thenDeleteGhMilestone() throws Exception {
-        var ghMilestone = Mockito.mock(GHMilestone.class);
+    void whenGetApiUrlWithCassetteReplay_thenReturnReplayServerUrl(@TempDir Path tempDir) throws Exception {
+        var cassetteFile = tempDir.resolve("cassette.json");
+        new ApiCassette("https://api.github.com").write(cassetteFile);
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.of(cassetteFile.toString()));
+        when(ghActionsKitMock.getEnumInput("cassette_mode", InputCassetteMode.class))
+                .thenReturn(Optional.of(InputCassetteMode.REPLAY));
+
+        try {
+            assertThat(this.githubAction.getApiUrl()).startsWith("http://").doesNotContain("api.github.com");
+        } finally {
+            this.githubAction.closeCassette();
+        }
+
+        verify(ghActionsKitMock, never()).getGitHubApiUrl();
+    }
 
-        assertDoesNotThrow(() -> {
-            this.githubAction.deleteGHMilestone(Optional.of(ghMilestone));
-        });
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetApiUrlWithoutCassette_thenReturnGitHubApiUrl() throws Exception {
+        when(ghActionsKitMock.getInput("cassette_file")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getGitHubApiUrl()).thenReturn("https://api.github.com");
 
-        verify(ghActionsKitMock).notice(Mockito.anyString());
-        verify(ghMilestone).delete();
+        assertThat(this.githubAction.getApiUrl()).isEqualTo("https://api.github.com");
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenDeleteGHMilestoneEmpty_thenLogMessage() {
-        assertDoesNotThrow(() -> {
-            this.githubAction.deleteGHMilestone(Optional.empty());
+    void whenRecordingWithJfrFile_thenDumpActionEvents(@TempDir Path tempDir) throws Exception {
+        var jfrFile = tempDir.resolve("profile/run.jfr");
+        when(ghActionsKitMock.getInput("jfr_file")).thenReturn(Optional.of(jfrFile.toString()));
+
+        this.githubAction.startRecording();
+        this.githubAction.recordWriteDecision("state", "v1.0.0", false);
+        this.githubAction.dumpRecording();
+
+        assertThat(RecordingFile.readAllEvents(jfrFile)).anySatisfy((RecordedEvent event) -> {
+            assertThat(event.getEventType().getName()).isEqualTo("me.julb.milestone.WriteDecision");
+            assertThat(event.getString("field")).isEqualTo("state");
+            assertThat(event.getString("target")).isEqualTo("v1.0.0");
+            assertThat(event.getBoolean("performed")).isFalse();
         });
-
-        verify(ghActionsKitMock).notice(Mockito.anyString());
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenDeleteGHMilestoneNull_thenThrowNullPointerException() throws Exception {
-        assertThrows(NullPointerException.class, () -> this.githubAction.deleteGHMilestone(null));
+    void whenRecordingWithoutJfrFile_thenDoNothing() throws Exception {
+        when(ghActionsKitMock.getInput("jfr_file")).thenReturn(Optional.empty());
+
+        this.githubAction.startRecording();
+        assertDoesNotThrow(() -> this.githubAction.dumpRecording());
+
+        verify(ghActionsKitMock, never()).debug(Mockito.anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenWriteMetricsWithMetricsFile_thenWriteOpenMetrics(@TempDir Path tempDir) throws Exception {
+        var metricsFile = tempDir.resolve("milestone.prom");
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.of(metricsFile.toString()));
+        when(ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        var deadline = RunDeadline.unbounded();
+        deadline.setPhaseListener(this.githubAction.getMetrics()::recordPhase);
+        this.githubAction.setDeadline(deadline);
+
+        this.githubAction.deleteGHMilestone(Optional.empty());
+        this.githubAction.writeMetrics();
+
+        assertThat(Files.readString(metricsFile))
+                .contains("writes_total{repository=\"octocat/Hello-World\",result=\"skipped\"} 1\n")
+                .contains("phase_duration_seconds_count{repository=\"octocat/Hello-World\",phase=\"startup\"} 1\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenWriteMetricsWithoutMetricsFile_thenDoNothing() throws Exception {
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.empty());
+
+        assertDoesNotThrow(() -> this.githubAction.writeMetrics());
+        verify(ghActionsKitMock, never()).getGitHubRepository();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputCircuitBreakerSlowCallNotProvided_thenReturnDefaultValue() throws Exception {
+        when(ghActionsKitMock.getInput("circuit_breaker_slow_call")).thenReturn(Optional.empty());
+
+        assertThat(this.githubAction.getInputCircuitBreakerSlowCall()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConnectApiDeadlineExceeded_thenThrowRunDeadlineExceededException() throws Exception {
+        this.githubAction.setDeadline(new RunDeadline(Optional.of(Duration.ofMillis(1)), Clock.systemUTC()));
+        Thread.sleep(10);
+
+        var exception = assertThrows(RunDeadlineExceededException.class, () -> this.githubAction.connectApi());
+        assertThat(exception.getPhase()).isEqualTo("connect");
+
+        verify(ghApiMock, never()).checkApiUrlValidity();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteCallTimesOut_thenFailWithPhase() throws Exception {
+        var spy = spy(this.githubAction);
+        spy.setDeadline(new RunDeadline(Optional.of(Duration.ofMillis(100)), Clock.systemUTC()));
+
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        doReturn("v1.0.0").when(spy).getInputTitle();
+        doReturn(InputMilestoneState.OPEN).when(spy).getInputState();
+        doReturn(Optional.empty()).when(spy).getInputDescription();
+        doReturn(Optional.empty()).when(spy).getInputDueOn();
+        doNothing().when(spy).connectApi();
+        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            throw new SocketTimeoutException("Read timed out");
+        });
+
+        var exception = assertThrows(CompletionException.class, spy::execute);
+
+        assertThat(exception.getCause())
+                .isInstanceOf(RunDeadlineExceededException.class)
+                .hasMessage("timeout of PT0.1S exceeded during phase: repository")
+                .hasCauseInstanceOf(SocketTimeoutException.class);
+        verify(spy, never()).getGHMilestone("v1.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenForEachConcurrentlyDeadlineExceeded_thenCancelOutstandingOperations() throws Exception {
+        this.githubAction.setDeadline(new RunDeadline(Optional.of(Duration.ofMillis(200)), Clock.systemUTC()));
+        var interruptedCount = new AtomicInteger();
+
+        var start = System.nanoTime();
+        assertThrows(
+                RunDeadlineExceededException.class,
+                () -> this.githubAction.forEachConcurrently(List.of(1, 2, 3, 4, 5, 6, 7, 8), (Integer item) -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interruptedCount.incrementAndGet();
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                }));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        Thread.sleep(100);
+        assertThat(interruptedCount).hasValue(ManageMilestoneGitHubAction.WRITE_PARALLELISM);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenForEachConcurrently_thenTakeItemsAsOperationsComplete() throws Exception {
+        var inFlight = new AtomicInteger();
+        var maxTakenAhead = new AtomicInteger();
+        var items = IntStream.range(0, 50).boxed().toList();
+        Iterable<Integer> countingItems = () -> new Iterator<>() {
+            private final Iterator<Integer> iterator = items.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                maxTakenAhead.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return iterator.next();
+            }
+        };
+
+        var count = this.githubAction.forEachConcurrently(countingItems, (Integer item) -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            inFlight.decrementAndGet();
+            return item % 2 == 0;
+        });
+
+        assertThat(count).isEqualTo(25);
+        assertThat(maxTakenAhead.get()).isLessThanOrEqualTo(ManageMilestoneGitHubAction.WRITE_PARALLELISM + 1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputAppInstallationIdInvalid_thenThrowNumberFormatException() throws Exception {
+        when(ghActionsKitMock.getInput("app_installation_id")).thenReturn(Optional.of("abc"));
+
+        assertThrows(NumberFormatException.class, () -> this.githubAction.getInputAppInstallationId());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteInputInvalid_thenPrefetchCancelled() throws Exception {
+        var spy = spy(this.githubAction);
+        var connecting = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+
+        doAnswer(invocation -> {
+                    connecting.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                })
+                .when(spy)
+                .connectApi();
+        doAnswer(invocation -> {
+                    connecting.await();
+                    throw new IllegalArgumentException("title is required");
+                })
+                .when(spy)
+                .getInputTitle();
+
+        var exception = assertThrows(CompletionException.class, spy::execute);
+
+        assertThat(exception).hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(ghApiMock, never()).getRepository(Mockito.anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListGHMilestonesPrefetched_thenPrefetchConsumedOnce() throws Exception {
+        var spy = spy(this.githubAction);
+
+        var ghMilestone = Mockito.mock(GHMilestone.class);
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        doNothing().when(spy).connectApi();
+        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestone)));
+
+        spy.startPrefetch();
+        spy.awaitGHRepository();
+
+        assertThat(spy.listGHMilestones()).containsExactly(ghMilestone);
+        verify(spy, times(1)).fetchGHMilestones();
+
+        assertThat(spy.listGHMilestones()).containsExactly(ghMilestone);
+        verify(spy, times(2)).fetchGHMilestones();
+        verify(spy, times(1)).connectApi();
+
+        spy.cancelPrefetch();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAwaitGHRepositoryPrefetchFailed_thenThrowCause() throws Exception {
+        var spy = spy(this.githubAction);
+        doThrow(new IOException("connection refused")).when(spy).connectApi();
+
+        spy.startPrefetch();
+
+        var exception = assertThrows(IOException.class, spy::awaitGHRepository);
+        assertThat(exception).hasMessage("connection refused");
+
+        spy.cancelPrefetch();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetGHMilestoneExist_thenReturnRef() throws Exception {
+        var ghMilestone1 = Mockito.mock(GHMilestone.class);
+        when(ghMilestone1.getTitle()).thenReturn("v0.0.0");
+
+        var ghMilestone2 = Mockito.mock(GHMilestone.class);
+        when(ghMilestone2.getTitle()).thenReturn("v1.0.0");
+
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestone1, ghMilestone2)));
+
+        assertThat(this.githubAction.getGHMilestone("v1.0.0")).isPresent().contains(ghMilestone2);
+
+        verify(ghRepositoryMock).listMilestones(GHIssueState.ALL);
+        verify(ghMilestone1).getTitle();
+        verify(ghMilestone2).getTitle();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetGHMilestoneAmbiguous_thenThrowIllegalStateException() throws Exception {
+        var ghMilestone1 = Mockito.mock(GHMilestone.class);
+        when(ghMilestone1.getTitle()).thenReturn("v1.0.0");
+
+        var ghMilestone2 = Mockito.mock(GHMilestone.class);
+        when(ghMilestone2.getTitle()).thenReturn("V1.0.0");
+
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestone1, ghMilestone2)));
+
+        assertThrows(IllegalStateException.class, () -> this.githubAction.getGHMilestone("v1.0.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetGHMilestoneDoesNotExist_thenReturnEmpty() throws Exception {
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL)).thenReturn(new LocalPagedIterable<>(List.of()));
+
+        assertThat(this.githubAction.getGHMilestone("v1.0.0")).isEmpty();
+
+        verify(ghRepositoryMock).listMilestones(GHIssueState.ALL);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetGHMilestoneNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> this.githubAction.getGHMilestone(null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateGHMilestoneOpenEmptyMilestone_thenOpenMilestone() throws Exception {
+        var ghMilestoneMock = mock(GHMilestone.class);
+        when(ghRepositoryMock.createMilestone("v1.0.0", null)).thenReturn(ghMilestoneMock);
+        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        this.githubAction.createGHMilestone(
+                "v1.0.0", GHMilestoneState.OPEN, Optional.empty(), Optional.empty(), Optional.empty());
+
+        verify(ghActionsKitMock).notice(Mockito.anyString());
+        verify(ghRepositoryMock).createMilestone("v1.0.0", null);
+        verify(ghMilestoneMock, never()).reopen();
+        verify(ghMilestoneMock, never()).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateGHMilestoneOpenExistingOpenMilestone_thenOpenMilestone() throws Exception {
+        var ghMilestoneMock = mock(GHMilestone.class);
+        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        var dueOn = new Date();
+
+        this.githubAction.createGHMilestone(
+                "v1.0.0",
+                GHMilestoneState.OPEN,
+                Optional.of("description"),
+                Optional.of(dueOn),
+                Optional.of(ghMilestoneMock));
+
+        verify(ghActionsKitMock).notice(Mockito.anyString());
+        verify(ghMilestoneMock).setDueOn(dueOn);
+        verify(ghMilestoneMock).setDescription("description");
+        verify(ghMilestoneMock, never()).reopen();
+        verify(ghMilestoneMock, never()).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateGHMilestoneCloseExistingOpenMilestone_thenCloseMilestone() throws Exception {
+        var ghMilestoneMock = mock(GHMilestone.class);
+        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.OPEN);
+
+        var dueOn = new Date();
+
+        this.githubAction.createGHMilestone(
+                "v1.0.0",
+                GHMilestoneState.CLOSED,
+                Optional.of("description"),
+                Optional.of(dueOn),
+                Optional.of(ghMilestoneMock));
+
+        verify(ghActionsKitMock, times(2)).notice(Mockito.anyString());
+        verify(ghMilestoneMock).setDueOn(dueOn);
+        verify(ghMilestoneMock).setDescription("description");
+        verify(ghMilestoneMock, never()).reopen();
+        verify(ghMilestoneMock).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateGHMilestoneOpenExistingClosedMilestone_thenOpenMilestone() throws Exception {
+        var ghMilestoneMock = mock(GHMilestone.class);
+        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.CLOSED);
+
+        var dueOn = new Date();
+
+        this.githubAction.createGHMilestone(
+                "v1.0.0",
+                GHMilestoneState.OPEN,
+                Optional.of("description"),
+                Optional.of(dueOn),
+                Optional.of(ghMilestoneMock));
+
+        verify(ghActionsKitMock, times(2)).notice(Mockito.anyString());
+        verify(ghMilestoneMock).setDueOn(dueOn);
+        verify(ghMilestoneMock).setDescription("description");
+        verify(ghMilestoneMock).reopen();
+        verify(ghMilestoneMock, never()).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateGHMilestoneCloseExistingClosedMilestone_thenCloseMilestone() throws Exception {
+        var ghMilestoneMock = mock(GHMilestone.class);
+        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.CLOSED);
+
+        var dueOn = new Date();
+
+        this.githubAction.createGHMilestone(
+                "v1.0.0",
+                GHMilestoneState.CLOSED,
+                Optional.of("description"),
+                Optional.of(dueOn),
+                Optional.of(ghMilestoneMock));
+
+        verify(ghActionsKitMock).notice(Mockito.anyString());
+        verify(ghMilestoneMock).setDueOn(dueOn);
+        verify(ghMilestoneMock).setDescription("description");
+        verify(ghMilestoneMock, never()).reopen();
+        verify(ghMilestoneMock, never()).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateGHMilestoneNull_thenThrowNullPointerException() throws Exception {
+        var emptyStringOptional = Optional.<String>empty();
+        var emptyDateOptional = Optional.<Date>empty();
+        var emptyMilestoneOptional = Optional.<GHMilestone>empty();
+        assertThrows(
+                NullPointerException.class,
+                () -> this.githubAction.createGHMilestone(
+                        null, GHMilestoneState.OPEN, emptyStringOptional, emptyDateOptional, emptyMilestoneOptional));
+        assertThrows(
+                NullPointerException.class,
+                () -> this.githubAction.createGHMilestone(
+                        "v1.0.0", null, emptyStringOptional, emptyDateOptional, emptyMilestoneOptional));
+        assertThrows(
+                NullPointerException.class,
+                () -> this.githubAction.createGHMilestone(
+                        "v1.0.0", GHMilestoneState.OPEN, null, emptyDateOptional, emptyMilestoneOptional));
+        assertThrows(
+                NullPointerException.class,
+                () -> this.githubAction.createGHMilestone(
+                        "v1.0.0", GHMilestoneState.OPEN, emptyStringOptional, null, emptyMilestoneOptional));
+        assertThrows(
+                NullPointerException.class,
+                () -> this.githubAction.createGHMilestone(
+                        "v1.0.0", GHMilestoneState.OPEN, emptyStringOptional, emptyDateOptional, null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDeleteGHMilestonePresent_thenDeleteGhMilestone() throws Exception {
+        var ghMilestone = Mockito.mock(GHMilestone.class);
+
+        assertDoesNotThrow(() -> {
+            this.githubAction.deleteGHMilestone(Optional.of(ghMilestone));
+        });
+
+        verify(ghActionsKitMock).notice(Mockito.anyString());
+        verify(ghMilestone).delete();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDeleteGHMilestoneEmpty_thenLogMessage() {
+        assertDoesNotThrow(() -> {
+            this.githubAction.deleteGHMilestone(Optional.empty());
+        });
+
+        verify(ghActionsKitMock).notice(Mockito.anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDeleteGHMilestoneNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> this.githubAction.deleteGHMilestone(null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputRolloverToPresent_thenReturnValue() throws Exception {
+        when(this.ghActionsKitMock.getInput("rollover_to")).thenReturn(Optional.of("v1.1.0"));
+
+        assertThat(this.githubAction.getInputRolloverTo()).isEqualTo(Optional.of("v1.1.0"));
+
+        verify(this.ghActionsKitMock).getInput("rollover_to");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteCloseMilestoneWithRollover_thenIssuesRolledOverAndProgressRead() throws Exception {
+        var spy = spy(this.githubAction);
+
+        var ghMilestoneExisting = Mockito.mock(GHMilestone.class);
+        when(ghMilestoneExisting.getNumber()).thenReturn(123);
+        var ghMilestoneRefreshed = Mockito.mock(GHMilestone.class);
+        when(ghMilestoneRefreshed.getNumber()).thenReturn(123);
+        when(ghMilestoneRefreshed.getOpenIssues()).thenReturn(0);
+        when(ghMilestoneRefreshed.getClosedIssues()).thenReturn(3);
+
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        doReturn("v1.0.0").when(spy).getInputTitle();
+        doReturn(InputMilestoneState.CLOSED).when(spy).getInputState();
+        doReturn(Optional.empty()).when(spy).getInputDescription();
+        doReturn(Optional.empty()).when(spy).getInputDueOn();
+        doReturn(Optional.of("v1.1.0")).when(spy).getInputRolloverTo();
+
+        doNothing().when(spy).connectApi();
+
+        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        doReturn(Optional.of(ghMilestoneExisting)).when(spy).getGHMilestone("v1.0.0");
+        doReturn(ghMilestoneExisting)
+                .when(spy)
+                .createGHMilestone(
+                        "v1.0.0",
+                        GHMilestoneState.CLOSED,
+                        Optional.empty(),
+                        Optional.empty(),
+                        Optional.of(ghMilestoneExisting));
+        doReturn(2).when(spy).rolloverGHMilestone(ghMilestoneExisting, "v1.1.0");
+        when(ghRepositoryMock.getMilestone(123)).thenReturn(ghMilestoneRefreshed);
+
+        spy.execute();
+
+        verify(spy).getInputRolloverTo();
+        verify(spy).rolloverGHMilestone(ghMilestoneExisting, "v1.1.0");
+        verify(this.ghActionsKitMock).setOutput(OutputVars.NUMBER.key(), 123);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.OPEN_ISSUES.key(), 0);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.CLOSED_ISSUES.key(), 3);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.PROGRESS.key(), 100);
+        verify(ghMilestoneExisting, never()).getOpenIssues();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRolloverGHMilestone_thenOpenIssuesMoved() throws Exception {
+        var ghMilestoneSource = mock(GHMilestone.class);
+        when(ghMilestoneSource.getNumber()).thenReturn(3);
+        var ghMilestoneTarget = mock(GHMilestone.class);
+        when(ghMilestoneTarget.getTitle()).thenReturn("v1.1.0");
+
+        var ghIssue1 = mock(GHIssue.class);
+        var ghIssue2 = mock(GHIssue.class);
+
+        var ghIssueQueryMock = mock(GHIssueQueryBuilder.ForRepository.class, Mockito.RETURNS_SELF);
+        when(ghRepositoryMock.queryIssues()).thenReturn(ghIssueQueryMock);
+        when(ghIssueQueryMock.list())
+                .thenReturn(new LocalPagedIterable<>(List.of(ghIssue1, ghIssue2)), new LocalPagedIterable<>(List.of()));
+
+        var spy = spy(this.githubAction);
+        doReturn(Optional.of(ghMilestoneTarget)).when(spy).getGHMilestone("v1.1.0");
+
+        assertThat(spy.rolloverGHMilestone(ghMilestoneSource, "v1.1.0")).isEqualTo(2);
+
+        verify(ghIssueQueryMock, times(2)).milestone("3");
+        verify(ghIssueQueryMock, times(2)).state(GHIssueState.OPEN);
+        verify(ghIssue1).setMilestone(ghMilestoneTarget);
+        verify(ghIssue2).setMilestone(ghMilestoneTarget);
+        verify(ghActionsKitMock).notice(Mockito.anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRolloverGHMilestoneTargetNotExists_thenThrowNoSuchElementException() throws Exception {
+        var ghMilestoneSource = mock(GHMilestone.class);
+
+        var spy = spy(this.githubAction);
+        doReturn(Optional.empty()).when(spy).getGHMilestone("v1.1.0");
+
+        assertThrows(NoSuchElementException.class, () -> spy.rolloverGHMilestone(ghMilestoneSource, "v1.1.0"));
+
+        verify(ghRepositoryMock, never()).queryIssues();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAssignGHIssuesFails_thenThrowIOException() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        var ghIssue = mock(GHIssue.class);
+        doThrow(new IOException("boom")).when(ghIssue).setMilestone(ghMilestone);
+
+        var issues = List.of(ghIssue);
+        assertThrows(IOException.class, () -> this.githubAction.assignGHIssues(issues, ghMilestone));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRolloverGHMilestoneNull_thenThrowNullPointerException() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        assertThrows(NullPointerException.class, () -> this.githubAction.rolloverGHMilestone(null, "v1.1.0"));
+        assertThrows(NullPointerException.class, () -> this.githubAction.rolloverGHMilestone(ghMilestone, null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputAssignQueryPresent_thenReturnValue() throws Exception {
+        when(this.ghActionsKitMock.getInput("assign_query")).thenReturn(Optional.of("is:pr is:merged"));
+
+        assertThat(this.githubAction.getInputAssignQuery()).isEqualTo(Optional.of("is:pr is:merged"));
+
+        verify(this.ghActionsKitMock).getInput("assign_query");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteOpenMilestoneWithAssignQuery_thenIssuesAssignedAndProgressRead() throws Exception {
+        var spy = spy(this.githubAction);
+
+        var ghMilestoneExisting = Mockito.mock(GHMilestone.class);
+        when(ghMilestoneExisting.getNumber()).thenReturn(123);
+        var ghMilestoneRefreshed = Mockito.mock(GHMilestone.class);
+        when(ghMilestoneRefreshed.getNumber()).thenReturn(123);
+        when(ghMilestoneRefreshed.getOpenIssues()).thenReturn(6);
+        when(ghMilestoneRefreshed.getClosedIssues()).thenReturn(2);
+
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        doReturn("v1.0.0").when(spy).getInputTitle();
+        doReturn(InputMilestoneState.OPEN).when(spy).getInputState();
+        doReturn(Optional.empty()).when(spy).getInputDescription();
+        doReturn(Optional.empty()).when(spy).getInputDueOn();
+        doReturn(Optional.of("is:pr is:merged")).when(spy).getInputAssignQuery();
+
+        doNothing().when(spy).connectApi();
+
+        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        doReturn(Optional.of(ghMilestoneExisting)).when(spy).getGHMilestone("v1.0.0");
+        doReturn(ghMilestoneExisting)
+                .when(spy)
+                .createGHMilestone(
+                        "v1.0.0",
+                        GHMilestoneState.OPEN,
+                        Optional.empty(),
+                        Optional.empty(),
+                        Optional.of(ghMilestoneExisting));
+        doReturn(5).when(spy).assignGHMilestoneFromQuery(ghMilestoneExisting, "is:pr is:merged");
+        when(ghRepositoryMock.getMilestone(123)).thenReturn(ghMilestoneRefreshed);
+
+        spy.execute();
+
+        verify(spy).assignGHMilestoneFromQuery(ghMilestoneExisting, "is:pr is:merged");
+        verify(this.ghActionsKitMock).setOutput(OutputVars.ASSIGNED.key(), 5);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.NUMBER.key(), 123);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.OPEN_ISSUES.key(), 6);
+        verify(this.ghActionsKitMock).setOutput(OutputVars.PROGRESS.key(), 25);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenAssignGHMilestoneFromQuery_thenSearchRestrictedToRepository() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        var ghIssueSearchBuilder = mock(GHIssueSearchBuilder.class);
+        var pagedSearchIterable = (PagedSearchIterable<GHIssue>) mock(PagedSearchIterable.class);
+
+        when(ghRepositoryMock.getFullName()).thenReturn("octocat/Hello-World");
+        when(ghApiMock.searchIssues()).thenReturn(ghIssueSearchBuilder);
+        when(ghIssueSearchBuilder.q("repo:octocat/Hello-World is:pr is:merged")).thenReturn(ghIssueSearchBuilder);
+        when(ghIssueSearchBuilder.list()).thenReturn(pagedSearchIterable);
+
+        var spy = spy(this.githubAction);
+        doReturn(3).when(spy).assignGHIssues(pagedSearchIterable, ghMilestone);
+
+        assertThat(spy.assignGHMilestoneFromQuery(ghMilestone, "is:pr is:merged")).isEqualTo(3);
+
+        verify(ghIssueSearchBuilder).q("repo:octocat/Hello-World is:pr is:merged");
+        verify(spy).assignGHIssues(pagedSearchIterable, ghMilestone);
+        verify(ghActionsKitMock).notice(Mockito.anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAssignGHIssuesAlreadyAssigned_thenSkipIssue() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        when(ghMilestone.getNumber()).thenReturn(123);
+
+        var ghMilestoneOther = mock(GHMilestone.class);
+        when(ghMilestoneOther.getNumber()).thenReturn(456);
+
+        var ghIssueAssigned = mock(GHIssue.class);
+        when(ghIssueAssigned.getMilestone()).thenReturn(ghMilestone);
+        var ghIssueOther = mock(GHIssue.class);
+        when(ghIssueOther.getMilestone()).thenReturn(ghMilestoneOther);
+        var ghIssueUnassigned = mock(GHIssue.class);
+
+        assertThat(this.githubAction.assignGHIssues(
+                        List.of(ghIssueAssigned, ghIssueOther, ghIssueUnassigned), ghMilestone))
+                .isEqualTo(2);
+
+        verify(ghIssueAssigned, never()).setMilestone(ghMilestone);
+        verify(ghIssueOther).setMilestone(ghMilestone);
+        verify(ghIssueUnassigned).setMilestone(ghMilestone);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenProgressOf_thenReturnClosedPercentage() {
+        assertThat(ManageMilestoneGitHubAction.progressOf(1, 3)).isEqualTo(75);
+        assertThat(ManageMilestoneGitHubAction.progressOf(2, 1)).isEqualTo(33);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenProgressOfNoIssues_thenProgressZero() {
+        assertThat(ManageMilestoneGitHubAction.progressOf(0, 0)).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSetMilestoneOutputsNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(
+                NullPointerException.class,
+                () -> this.githubAction.setMilestoneOutputs(
+                        null, GHMilestoneState.OPEN, Optional.empty(), Optional.empty()));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSetMilestoneOutputs_thenOutputsSetFromWrittenValues() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        when(ghMilestone.getNumber()).thenReturn(12);
+        when(ghMilestone.getTitle()).thenReturn("v1.0.0");
+        when(ghMilestone.getHtmlUrl()).thenReturn(new URL("https://github.com/octocat/Hello-World/milestone/12"));
+        when(ghMilestone.getOpenIssues()).thenReturn(1);
+        when(ghMilestone.getClosedIssues()).thenReturn(3);
+
+        this.githubAction.setMilestoneOutputs(
+                ghMilestone,
+                GHMilestoneState.CLOSED,
+                Optional.of("description"),
+                Optional.of(ManageMilestoneGitHubAction.parseDueOn("2022-01-01")));
+
+        verify(ghActionsKitMock).setOutput(OutputVars.URL.key(), "https://github.com/octocat/Hello-World/milestone/12");
+        verify(ghActionsKitMock).setOutput(OutputVars.STATE.key(), "closed");
+        verify(ghActionsKitMock).setOutput(OutputVars.DUE_ON.key(), "2022-01-01");
+        verify(ghActionsKitMock)
+                .setOutput(
+                        OutputVars.MILESTONE.key(),
+                        "{\"number\":12,\"title\":\"v1.0.0\",\"description\":\"description\",\"state\":\"closed\","
+                                + "\"due_on\":\"2022-01-01\","
+                                + "\"url\":\"https://github.com/octocat/Hello-World/milestone/12\","
+                                + "\"open_issues\":1,\"closed_issues\":3,\"progress\":75}");
+        verify(ghActionsKitMock).setOutput(OutputVars.OPEN_ISSUES.key(), 1);
+        verify(ghActionsKitMock).setOutput(OutputVars.CLOSED_ISSUES.key(), 3);
+        verify(ghActionsKitMock).setOutput(OutputVars.PROGRESS.key(), 75);
+        verify(ghMilestone).getOpenIssues();
+        verify(ghMilestone).getClosedIssues();
+        verify(ghMilestone, never()).getDueOn();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSetMilestoneOutputsWithoutWrittenValues_thenOutputsSetFromMilestone() throws Exception {
+        var ghMilestone = mock(GHMilestone.class);
+        when(ghMilestone.getTitle()).thenReturn("v1.0.0");
+        when(ghMilestone.getDescription()).thenReturn("existing");
+
+        this.githubAction.setMilestoneOutputs(ghMilestone, GHMilestoneState.OPEN, Optional.empty(), Optional.empty());
+
+        verify(ghActionsKitMock).setOutput(OutputVars.URL.key(), "");
+        verify(ghActionsKitMock).setOutput(OutputVars.DUE_ON.key(), "");
+        verify(ghActionsKitMock)
+                .setOutput(
+                        OutputVars.MILESTONE.key(),
+                        "{\"number\":0,\"title\":\"v1.0.0\",\"description\":\"existing\",\"state\":\"open\","
+                                + "\"due_on\":null,\"url\":\"\",\"open_issues\":0,\"closed_issues\":0,\"progress\":0}");
+        verify(ghActionsKitMock).setOutput(OutputVars.PROGRESS.key(), 0);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFormatDueOn_thenReturnDate() {
+        assertThat(ManageMilestoneGitHubAction.formatDueOn(ManageMilestoneGitHubAction.parseDueOn("2022-03-15")))
+                .isEqualTo("2022-03-15");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputManifestPresent_thenReturnValue() throws Exception {
+        when(this.ghActionsKitMock.getInput("manifest")).thenReturn(Optional.of(".github/milestones.yml"));
+
+        assertThat(this.githubAction.getInputManifest()).contains(Path.of(".github/milestones.yml"));
+
+        verify(this.ghActionsKitMock).getInput("manifest");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputPruneNotProvided_thenReturnFalse() throws Exception {
+        when(this.ghActionsKitMock.getInput("prune")).thenReturn(Optional.empty());
+
+        assertThat(this.githubAction.getInputPrune()).isFalse();
+
+        verify(this.ghActionsKitMock).getInput("prune");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputPruneProvided_thenReturnValue() throws Exception {
+        when(this.ghActionsKitMock.getInput("prune")).thenReturn(Optional.of("true"));
+
+        assertThat(this.githubAction.getInputPrune()).isTrue();
+
+        verify(this.ghActionsKitMock).getInput("prune");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithManifest_thenMilestonesReconciled() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(Optional.of(Path.of("milestones.yml"))).when(spy).getInputManifest();
+        doReturn(true).when(spy).getInputPrune();
+        doNothing().when(spy).startPrefetch();
+        doNothing().when(spy).reconcileGHMilestones(Path.of("milestones.yml"), true);
+
+        spy.execute();
+
+        verify(spy).reconcileGHMilestones(Path.of("milestones.yml"), true);
+        verify(spy, never()).getInputTitle();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadManifest_thenReturnEntries(@TempDir Path tempDir) throws Exception {
+        var manifestPath = tempDir.resolve("milestones.yml");
+        Files.writeString(
+                manifestPath,
+                String.join(
+                        "\n",
+                        "- title: v1.0.0",
+                        "  state: closed",
+                        "- title: v1.1.0",
+                        "  description: some description",
+                        "  due_on: \"2022-01-01\""));
+
+        assertThat(this.githubAction.readManifest(manifestPath))
+                .containsExactly(
+                        new MilestoneManifestEntry("v1.0.0", InputMilestoneState.CLOSED, null, null),
+                        new MilestoneManifestEntry(
+                                "v1.1.0", InputMilestoneState.OPEN, "some description", "2022-01-01"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadManifestDuplicateTitle_thenThrowIllegalArgumentException(@TempDir Path tempDir) throws Exception {
+        var manifestPath = tempDir.resolve("milestones.yml");
+        Files.writeString(manifestPath, String.join("\n", "- title: v1.0.0", "- title: V1.0.0"));
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.readManifest(manifestPath));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPlanGHMilestoneChanges_thenReturnDifferencesOnly() throws Exception {
+        var ghMilestoneUnchanged = mock(GHMilestone.class);
+        when(ghMilestoneUnchanged.getTitle()).thenReturn("v1.0.0");
+        when(ghMilestoneUnchanged.getState()).thenReturn(GHMilestoneState.OPEN);
+        when(ghMilestoneUnchanged.getDescription()).thenReturn("description");
+
+        var ghMilestoneClosed = mock(GHMilestone.class);
+        when(ghMilestoneClosed.getTitle()).thenReturn("v1.1.0");
+        when(ghMilestoneClosed.getState()).thenReturn(GHMilestoneState.CLOSED);
+
+        var ghMilestoneUndeclared = mock(GHMilestone.class);
+        when(ghMilestoneUndeclared.getTitle()).thenReturn("v0.9.0");
+
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(
+                        List.of(ghMilestoneUnchanged, ghMilestoneClosed, ghMilestoneUndeclared)));
+
+        var desiredMilestones = List.of(
+                new MilestoneManifestEntry("v1.0.0", InputMilestoneState.OPEN, "description", null),
+                new MilestoneManifestEntry("v1.1.0", InputMilestoneState.OPEN, null, null),
+                new MilestoneManifestEntry("v2.0.0", InputMilestoneState.OPEN, null, null),
+                new MilestoneManifestEntry("v3.0.0", InputMilestoneState.DELETED, null, null));
+
+        var changes = this.githubAction.planGHMilestoneChanges(desiredMilestones, true);
+
+        assertThat(changes).extracting(MilestoneChange::getType, MilestoneChange::getTitle)
+                .containsExactly(
+                        tuple(MilestoneChangeType.UPDATE, "v1.1.0"),
+                        tuple(MilestoneChangeType.CREATE, "v2.0.0"),
+                        tuple(MilestoneChangeType.DELETE, "v0.9.0"));
+        verify(ghRepositoryMock).listMilestones(GHIssueState.ALL);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPlanGHMilestoneChangesWithoutPrune_thenKeepUndeclared() throws Exception {
+        var ghMilestoneUndeclared = mock(GHMilestone.class);
+        when(ghMilestoneUndeclared.getTitle()).thenReturn("v0.9.0");
+
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestoneUndeclared)));
+
+        assertThat(this.githubAction.planGHMilestoneChanges(List.of(), false)).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPlanScheduledMilestoneAlreadyClosedOnDueDate_thenNotReopened() throws Exception {
+        var ghMilestoneClosed = mock(GHMilestone.class);
+        when(ghMilestoneClosed.getTitle()).thenReturn("Sprint 2026-10-23");
+        when(ghMilestoneClosed.getDueOn()).thenReturn(ManageMilestoneGitHubAction.parseDueOn("2026-10-23"));
+
+        when(ghRepositoryMock.listMilestones(GHIssueState.ALL))
+                .thenReturn(new LocalPagedIterable<>(List.of(ghMilestoneClosed)));
+
+        var schedule = new MilestoneSchedule(
+                "Sprint {date}", LocalDate.parse("2026-10-23"), Period.ofWeeks(2), Period.ofDays(7), Optional.empty());
+
+        var desiredMilestones = schedule.toMilestones(LocalDate.parse("2026-10-23"));
+
+        assertThat(this.githubAction.planGHMilestoneChanges(desiredMilestones, false)).isEmpty();
+        verify(ghMilestoneClosed, never()).getState();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToGHMilestoneState_thenDesiredOrExistingOrOpen() {
+        var ghMilestoneClosed = mock(GHMilestone.class);
+        when(ghMilestoneClosed.getState()).thenReturn(GHMilestoneState.CLOSED);
+
+        assertThat(ManageMilestoneGitHubAction.toGHMilestoneState(
+                        new MilestoneManifestEntry("v1.0.0", null, null, null), Optional.of(ghMilestoneClosed)))
+                .isEqualTo(GHMilestoneState.CLOSED);
+        assertThat(ManageMilestoneGitHubAction.toGHMilestoneState(
+                        new MilestoneManifestEntry("v1.0.0", null, null, null), Optional.empty()))
+                .isEqualTo(GHMilestoneState.OPEN);
+        assertThat(ManageMilestoneGitHubAction.toGHMilestoneState(
+                        new MilestoneManifestEntry("v1.0.0", InputMilestoneState.OPEN, null, null),
+                        Optional.of(ghMilestoneClosed)))
+                .isEqualTo(GHMilestoneState.OPEN);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenApplyGHMilestoneChanges_thenChangesApplied() throws Exception {
+        var ghMilestoneExisting = mock(GHMilestone.class);
+        var ghMilestoneCreated = mock(GHMilestone.class);
+
+        var spy = spy(this.githubAction);
+        doReturn(ghMilestoneCreated)
+                .when(spy)
+                .createGHMilestone(
+                        "v2.0.0",
+                        GHMilestoneState.OPEN,
+                        Optional.of("description"),
+                        Optional.of(ManageMilestoneGitHubAction.parseDueOn("2022-01-01")),
+                        Optional.empty());
+        doNothing().when(spy).deleteGHMilestone(Optional.of(ghMilestoneExisting));
+
+        var changes = List.of(
+                new MilestoneChange(
+                        MilestoneChangeType.CREATE,
+                        "v2.0.0",
+                        Optional.of(new MilestoneManifestEntry(
+                                "v2.0.0", InputMilestoneState.OPEN, "description", "2022-01-01")),
+                        Optional.empty()),
+                new MilestoneChange(
+                        MilestoneChangeType.DELETE, "v0.9.0", Optional.empty(), Optional.of(ghMilestoneExisting)));
+
+        assertThat(spy.applyGHMilestoneChanges(changes)).isEqualTo(2);
+
+        verify(spy)
+                .createGHMilestone(
+                        "v2.0.0",
+                        GHMilestoneState.OPEN,
+                        Optional.of("description"),
+                        Optional.of(ManageMilestoneGitHubAction.parseDueOn("2022-01-01")),
+                        Optional.empty());
+        verify(spy).deleteGHMilestone(Optional.of(ghMilestoneExisting));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFormatGHMilestoneChanges_thenReturnJson() throws Exception {
+        var changes = List.of(new MilestoneChange(
+                MilestoneChangeType.CREATE, "v2.0.0", Optional.empty(), Optional.empty()));
+
+        assertThat(this.githubAction.formatGHMilestoneChanges(changes))
+                .isEqualTo("[{\"action\":\"create\",\"title\":\"v2.0.0\"}]");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateGHMilestoneUnchangedDescription_thenSkipUpdate() throws Exception {
+        var ghMilestoneMock = mock(GHMilestone.class);
+        when(ghMilestoneMock.getState()).thenReturn(GHMilestoneState.OPEN);
+        when(ghMilestoneMock.getDescription()).thenReturn("description");
+
+        this.githubAction.createGHMilestone(
+                "v1.0.0",
+                GHMilestoneState.OPEN,
+                Optional.of("description"),
+                Optional.empty(),
+                Optional.of(ghMilestoneMock));
+
+        verify(ghMilestoneMock, never()).setDescription(Mockito.anyString());
+        verify(ghMilestoneMock, never()).setDueOn(Mockito.any(Date.class));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputScheduleInputs_thenReturnValues() throws Exception {
+        when(this.ghActionsKitMock.getInput("schedule_title")).thenReturn(Optional.of("Sprint {date}"));
+        when(this.ghActionsKitMock.getRequiredInput("schedule_start")).thenReturn("2026-10-23");
+        when(this.ghActionsKitMock.getRequiredInput("schedule_cadence")).thenReturn("P2W");
+        when(this.ghActionsKitMock.getInput("schedule_horizon")).thenReturn(Optional.empty());
+
+        assertThat(this.githubAction.getInputScheduleTitle()).contains("Sprint {date}");
+        assertThat(this.githubAction.getInputScheduleStart()).isEqualTo(LocalDate.parse("2026-10-23"));
+        assertThat(this.githubAction.getInputScheduleCadence()).isEqualTo(Period.ofWeeks(2));
+        assertThat(this.githubAction.getInputScheduleHorizon()).isEqualTo(Period.ofMonths(3));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputScheduleCadenceInvalid_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getRequiredInput("schedule_cadence")).thenReturn("2 weeks");
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getInputScheduleCadence());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithSchedule_thenMilestonesReconciled() throws Exception {
+        var spy = spy(this.githubAction);
+
+        var start = LocalDate.now().plusDays(1);
+        doReturn(Optional.of("Sprint {date}")).when(spy).getInputScheduleTitle();
+        doReturn(start).when(spy).getInputScheduleStart();
+        doReturn(Period.ofWeeks(2)).when(spy).getInputScheduleCadence();
+        doReturn(Period.ofDays(7)).when(spy).getInputScheduleHorizon();
+        doReturn(Optional.empty()).when(spy).getInputDescription();
+        doNothing().when(spy).startPrefetch();
+        doNothing().when(spy).reconcileGHMilestones(Mockito.<List<MilestoneManifestEntry>>any(), Mockito.eq(false));
+
+        spy.execute();
+
+        verify(spy).reconcileGHMilestones(Mockito.<List<MilestoneManifestEntry>>any(), Mockito.eq(false));
+        verify(spy, never()).getInputTitle();
     }
 }
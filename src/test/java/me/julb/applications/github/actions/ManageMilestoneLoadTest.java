@@ -0,0 +1,484 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.HttpException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.julb.sdk.github.actions.kit.GitHubActionsKit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Load and soak tests of the concurrent executions and batches against a local {@link GitHubApiStub} injecting
+ * latency, server errors and secondary rate limits. <br>
+ * They report the throughput, the p50 and p99 latencies, the error rate and the heap growth in
+ * <code>target/load-test</code>, and fail on an unexpected error, an error rate, a heap or thread growth, or a
+ * throughput regression beyond the thresholds. They run with the <code>load-test</code> profile only.
+ * @author Julb.
+ */
+@Tag("load")
+class ManageMilestoneLoadTest {
+
+    /**
+     * The number of repositories the runs are spread on.
+     */
+    private static final int REPOSITORY_COUNT = 8;
+
+    /**
+     * The number of milestone titles per repository.
+     */
+    private static final int TITLE_COUNT = 16;
+
+    /**
+     * The number of records per batch.
+     */
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * The number of threads tolerated above the concurrency at the end of the soak.
+     */
+    private static final int THREAD_SLACK = 16;
+
+    /**
+     * The error class of the failures not caused by an injected fault nor a concurrent creation.
+     */
+    private static final String UNEXPECTED = "unexpected";
+
+    /**
+     * The number of concurrent runs.
+     */
+    private final int concurrency = Integer.getInteger("load.concurrency", 32);
+
+    /**
+     * The number of runs per round.
+     */
+    private final int runs = Integer.getInteger("load.runs", 500);
+
+    /**
+     * The soak duration.
+     */
+    private final Duration soakDuration = Duration.parse(System.getProperty("load.soakDuration", "PT1M"));
+
+    /**
+     * The maximum ratio of failed runs.
+     */
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.15"));
+
+    /**
+     * The maximum throughput regression, against the baseline or the first round of the soak.
+     */
+    private final double maxRegression = Double.parseDouble(System.getProperty("load.maxRegression", "0.2"));
+
+    /**
+     * The maximum heap growth over the soak, in bytes.
+     */
+    private final long maxHeapGrowth = Long.getLong("load.maxHeapGrowthMb", 32) * 1024 * 1024;
+
+    /**
+     * The directory of the reports of a previous run, to detect throughput regressions.
+     */
+    private final Optional<Path> baselineDirectory = Optional.ofNullable(System.getProperty("load.baseline"))
+            .filter(baseline -> !baseline.isBlank())
+            .map(Path::of);
+
+    /**
+     * The directory of the reports.
+     */
+    private final Path reportDirectory = Path.of(System.getProperty("load.reportDirectory", "target/load-test"));
+
+    /**
+     * The JSON mapper.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The GitHub API stub.
+     */
+    private GitHubApiStub stub = null;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = GitHubApiStub.start();
+        stub.setLatency(Duration.ofMillis(Long.getLong("load.latencyMs", 10)));
+        stub.setServerErrorRate(Double.parseDouble(System.getProperty("load.serverErrorRate", "0.01")));
+        stub.setSecondaryRateLimitRate(
+                Double.parseDouble(System.getProperty("load.secondaryRateLimitRate", "0.005")));
+    }
+
+    /**
+     * Tear down method.
+     */
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConcurrentExecutions_thenWithinThresholds() throws Exception {
+        var round = runRound(this::executeAction, runs);
+
+        report("executions", round.toReport());
+        assertWithinThresholds("executions", round);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConcurrentBatches_thenWithinThresholds() throws Exception {
+        var round = runRound(this::importBatch, Math.max(concurrency, runs / BATCH_SIZE));
+
+        report("batches", round.toReport());
+        assertWithinThresholds("batches", round);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSoak_thenNoLeakNorThroughputDecay() throws Exception {
+        // Warm up so that the classes, the pools and the stub milestones are in place before the baseline.
+        runRound(this::executeAction, runs);
+        var heapBefore = usedHeapAfterGc();
+        var threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        var start = System.nanoTime();
+        var first = runRound(this::executeAction, runs);
+        var last = first;
+        var rounds = 1;
+        var failures = first.getFailureCount();
+        var errors = new TreeMap<>(first.getErrors());
+        while (Duration.ofNanos(System.nanoTime() - start).compareTo(soakDuration) < 0) {
+            last = runRound(this::executeAction, runs);
+            rounds++;
+            failures += last.getFailureCount();
+            last.getErrors().forEach((errorClass, count) -> errors.merge(errorClass, count, Long::sum));
+        }
+
+        var heapAfter = usedHeapAfterGc();
+        var threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        var soakReport = new LinkedHashMap<String, Object>();
+        soakReport.put("duration_seconds", Duration.ofNanos(System.nanoTime() - start).toSeconds());
+        soakReport.put("rounds", rounds);
+        soakReport.put("runs", (long) rounds * runs);
+        soakReport.put("error_rate", (double) failures / ((long) rounds * runs));
+        soakReport.put("errors", errors);
+        soakReport.put("heap_before_bytes", heapBefore);
+        soakReport.put("heap_after_bytes", heapAfter);
+        soakReport.put("threads_before", threadsBefore);
+        soakReport.put("threads_after", threadsAfter);
+        soakReport.put("first_round", first.toReport());
+        soakReport.put("last_round", last.toReport());
+        report("soak", soakReport);
+
+        assertThat(errors).as("unexpected errors").doesNotContainKey(UNEXPECTED);
+        assertThat(heapAfter - heapBefore).as("heap growth").isLessThanOrEqualTo(maxHeapGrowth);
+        assertThat(threadsAfter - threadsBefore).as("thread growth").isLessThanOrEqualTo(concurrency + THREAD_SLACK);
+        assertThat(last.getThroughput())
+                .as("throughput of the last round against the first one")
+                .isGreaterThanOrEqualTo(first.getThroughput() * (1 - maxRegression));
+    }
+
+    /**
+     * Runs a round of runs, with at most {@link #concurrency} concurrent runs.
+     * @param run the run, given its index.
+     * @param count the number of runs.
+     * @return the round result.
+     * @throws InterruptedException if interrupted.
+     */
+    private RoundResult runRound(IntConsumer run, int count) throws InterruptedException {
+        var latencies = new long[count];
+        var errors = new ConcurrentHashMap<String, LongAdder>();
+        var executor = Executors.newFixedThreadPool(concurrency);
+        var start = System.nanoTime();
+        try {
+            for (var i = 0; i < count; i++) {
+                var index = i;
+                executor.execute(() -> {
+                    var runStart = System.nanoTime();
+                    try {
+                        run.accept(index);
+                    } catch (RuntimeException e) {
+                        errors.computeIfAbsent(classify(e), key -> new LongAdder()).increment();
+                    }
+                    latencies[index] = System.nanoTime() - runStart;
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.MINUTES)).as("round completed").isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        var errorCounts = new TreeMap<String, Long>();
+        errors.forEach((errorClass, adder) -> errorCounts.put(errorClass, adder.sum()));
+        Arrays.sort(latencies);
+        return new RoundResult(elapsed, latencies, errorCounts);
+    }
+
+    /**
+     * Executes the action, creating or updating a milestone.
+     * @param index the run index.
+     */
+    private void executeAction(int index) {
+        var ghAction = new ManageMilestoneGitHubAction();
+        ghAction.setGhActionsKit(ghActionsKit(
+                repositoryName(index), String.format("v%d.0.0", index % TITLE_COUNT), "run " + index));
+        ghAction.execute();
+    }
+
+    /**
+     * Imports a batch of milestone records spread on the repositories.
+     * @param index the batch index.
+     */
+    private void importBatch(int index) {
+        var ndjson = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> String.format(
+                        "{\"repo\":\"%s\",\"title\":\"v%d.0.0\",\"description\":\"batch %d\"}",
+                        repositoryName(i), i % TITLE_COUNT, index))
+                .collect(joining("\n"));
+        try {
+            var command = new ManageMilestoneBulkCommand();
+            command.setGhActionsKit(ghActionsKit(repositoryName(index), null, null));
+            command.connectApi();
+            command.importMilestones(new StringReader(ndjson), Optional.empty());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds a GitHub action kit pointing to the stub.
+     * @param repositoryName the repository full name.
+     * @param title the "title" input, or <code>null</code> if none.
+     * @param description the "description" input, or <code>null</code> if none.
+     * @return the GitHub action kit.
+     */
+    private GitHubActionsKit ghActionsKit(String repositoryName, String title, String description) {
+        // Stub only: the invocations are not recorded, so that the kit does not grow with the run.
+        var ghActionsKit = mock(GitHubActionsKit.class, withSettings().stubOnly());
+        when(ghActionsKit.getGitHubApiUrl()).thenReturn(stub.getUrl());
+        when(ghActionsKit.getGitHubRepository()).thenReturn(repositoryName);
+        when(ghActionsKit.getRequiredEnv("GITHUB_TOKEN")).thenReturn("token");
+        if (title != null) {
+            when(ghActionsKit.getRequiredInput("title")).thenReturn(title);
+            when(ghActionsKit.getInput("title")).thenReturn(Optional.of(title));
+        }
+        if (description != null) {
+            when(ghActionsKit.getInput("description")).thenReturn(Optional.of(description));
+        }
+        return ghActionsKit;
+    }
+
+    /**
+     * Gets the repository full name of a run.
+     * @param index the run index.
+     * @return the repository full name.
+     */
+    private static String repositoryName(int index) {
+        return String.format("octocat/repository-%d", index % REPOSITORY_COUNT);
+    }
+
+    /**
+     * Classifies a failure by the HTTP status that caused it.
+     * @param e the failure.
+     * @return the error class.
+     */
+    static String classify(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpException httpException) {
+                var responseCode = httpException.getResponseCode();
+                if (responseCode >= 500) {
+                    return "server_error";
+                } else if (responseCode == 403 || responseCode == 429) {
+                    return "rate_limited";
+                } else if (responseCode == 422) {
+                    // Two concurrent runs created the same milestone.
+                    return "conflict";
+                }
+            }
+        }
+        return UNEXPECTED;
+    }
+
+    /**
+     * Asserts that a round has no unexpected error, an error rate below the threshold, and a throughput not regressed
+     * beyond the threshold against the baseline if any.
+     * @param name the report name.
+     * @param round the round result.
+     * @throws IOException if the baseline cannot be read.
+     */
+    private void assertWithinThresholds(String name, RoundResult round) throws IOException {
+        assertThat(round.getErrors()).as("unexpected errors").doesNotContainKey(UNEXPECTED);
+        assertThat(round.getErrorRate()).as("error rate").isLessThanOrEqualTo(maxErrorRate);
+
+        var baselineReport = baselineDirectory.map(directory -> directory.resolve(name + ".json"));
+        if (baselineReport.isPresent() && Files.exists(baselineReport.get())) {
+            var baselineThroughput =
+                    objectMapper.readTree(baselineReport.get().toFile()).get("throughput").asDouble();
+            assertThat(round.getThroughput())
+                    .as("throughput against the baseline %s", baselineReport.get())
+                    .isGreaterThanOrEqualTo(baselineThroughput * (1 - maxRegression));
+        }
+    }
+
+    /**
+     * Writes a report as JSON in the report directory.
+     * @param name the report name.
+     * @param content the report content.
+     * @throws IOException if an error occurs.
+     */
+    private void report(String name, Map<String, Object> content) throws IOException {
+        Files.createDirectories(reportDirectory);
+        Files.writeString(
+                reportDirectory.resolve(name + ".json"),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(content));
+    }
+
+    /**
+     * Gets the heap used once the garbage collector has run.
+     * @return the heap used, in bytes.
+     */
+    private static long usedHeapAfterGc() {
+        var memory = ManagementFactory.getMemoryMXBean();
+        for (var i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * The result of a round of runs.
+     * @author Julb.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static class RoundResult {
+
+        /**
+         * The round duration.
+         */
+        private final Duration elapsed;
+
+        /**
+         * The sorted latencies of the runs, in nanoseconds.
+         */
+        private final long[] latencies;
+
+        /**
+         * The number of failed runs by error class.
+         */
+        private final Map<String, Long> errors;
+
+        /**
+         * Gets the number of failed runs.
+         * @return the number of failed runs.
+         */
+        long getFailureCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * Gets the ratio of failed runs.
+         * @return the ratio of failed runs.
+         */
+        double getErrorRate() {
+            return (double) getFailureCount() / latencies.length;
+        }
+
+        /**
+         * Gets the throughput.
+         * @return the number of runs per second.
+         */
+        double getThroughput() {
+            return latencies.length / (elapsed.toNanos() / 1e9);
+        }
+
+        /**
+         * Gets a latency percentile, with the nearest-rank method.
+         * @param percentile the percentile, between <code>0</code> and <code>100</code>.
+         * @return the latency, in milliseconds.
+         */
+        double getLatencyMillis(int percentile) {
+            var rank = (int) Math.ceil(percentile / 100.0 * latencies.length);
+            return latencies[Math.max(rank - 1, 0)] / 1e6;
+        }
+
+        /**
+         * Builds the report of the round.
+         * @return the report.
+         */
+        Map<String, Object> toReport() {
+            var report = new LinkedHashMap<String, Object>();
+            report.put("runs", latencies.length);
+            report.put("elapsed_seconds", elapsed.toMillis() / 1e3);
+            report.put("throughput", getThroughput());
+            report.put("p50_ms", getLatencyMillis(50));
+            report.put("p99_ms", getLatencyMillis(99));
+            report.put("error_rate", getErrorRate());
+            report.put("errors", errors);
+            return report;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URL;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test class for {@link MetricsGitHubConnector} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class MetricsGitHubConnectorTest {
+
+    /**
+     * The class under test.
+     */
+    private MetricsGitHubConnector connector = null;
+
+    /**
+     * The metrics.
+     */
+    private ActionMetrics metrics = null;
+
+    /**
+     * A mock for the connector.
+     */
+    @Mock
+    private GitHubConnector delegateMock;
+
+    /**
+     * A mock for the request.
+     */
+    @Mock
+    private GitHubConnectorRequest requestMock;
+
+    /**
+     * A mock for the response.
+     */
+    @Mock
+    private GitHubConnectorResponse responseMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        metrics = new ActionMetrics();
+        connector = new MetricsGitHubConnector(delegateMock, metrics);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendListing_thenRecordCallPageAndRateLimit() throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.statusCode()).thenReturn(200);
+        when(responseMock.header("X-RateLimit-Remaining")).thenReturn("4999");
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+
+        assertThat(metrics.toOpenMetrics("octocat/Hello-World"))
+                .contains("method=\"GET\",endpoint=\"/repos/{owner}/{repo}/milestones\",status=\"200\"} 1\n")
+                .contains("api_pages_total{repository=\"octocat/Hello-World\","
+                        + "endpoint=\"/repos/{owner}/{repo}/milestones\"} 1\n")
+                .contains("rate_limit_remaining{repository=\"octocat/Hello-World\"} 4999\n")
+                .contains("result=\"performed\"} 0\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendWrite_thenRecordWritePerformed() throws Exception {
+        when(requestMock.method()).thenReturn("PATCH");
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones/12"));
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.statusCode()).thenReturn(200);
+
+        connector.send(requestMock);
+
+        assertThat(metrics.toOpenMetrics("octocat/Hello-World"))
+                .contains("method=\"PATCH\",endpoint=\"/repos/{owner}/{repo}/milestones/{number}\",status=\"200\"} 1\n")
+                .contains("result=\"performed\"} 1\n")
+                .doesNotContain("api_pages_total{");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendTokenMinting_thenRecordNoWritePerformed() throws Exception {
+        when(requestMock.method()).thenReturn("POST");
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/app/installations/42/access_tokens"));
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.statusCode()).thenReturn(201);
+
+        connector.send(requestMock);
+
+        assertThat(metrics.toOpenMetrics("octocat/Hello-World"))
+                .contains("method=\"POST\",endpoint=\"/app/installations/{number}/access_tokens\",status=\"201\"} 1\n")
+                .contains("result=\"performed\"} 0\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendAgainAfterFailure_thenRecordRetry() throws Exception {
+        when(requestMock.method()).thenReturn("GET");
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World"));
+        when(delegateMock.send(requestMock)).thenThrow(new IOException("reset")).thenReturn(responseMock);
+        when(responseMock.statusCode()).thenReturn(200);
+
+        assertThrows(IOException.class, () -> connector.send(requestMock));
+        connector.send(requestMock);
+
+        assertThat(metrics.toOpenMetrics("octocat/Hello-World"))
+                .contains("endpoint=\"/repos/{owner}/{repo}\",status=\"0\"} 1\n")
+                .contains("endpoint=\"/repos/{owner}/{repo}\",status=\"200\"} 1\n")
+                .contains("api_retries_total{repository=\"octocat/Hello-World\"} 1\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToEndpoint_thenReplacePathParameters() {
+        assertThat(MetricsGitHubConnector.toEndpoint("/repos/octocat/Hello-World/milestones/42"))
+                .isEqualTo("/repos/{owner}/{repo}/milestones/{number}");
+        assertThat(MetricsGitHubConnector.toEndpoint("/api/v3/repos/octocat/Hello-World/issues/7/labels"))
+                .isEqualTo("/api/v3/repos/{owner}/{repo}/issues/{number}/labels");
+        assertThat(MetricsGitHubConnector.toEndpoint("/search/issues")).isEqualTo("/search/issues");
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link MilestoneImportCheckpoint} class. <br>
+ * @author Julb.
+ */
+class MilestoneImportCheckpointTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCompleteOutOfOrder_thenWatermarkWaitsForPreviousRecords() throws Exception {
+        var checkpoint = new MilestoneImportCheckpoint(Optional.empty(), 0);
+
+        checkpoint.complete(1);
+        checkpoint.complete(2);
+        assertThat(checkpoint.getWatermark()).isZero();
+
+        checkpoint.complete(0);
+        assertThat(checkpoint.getWatermark()).isEqualTo(3);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSaveAndLoad_thenWatermarkRestored(@TempDir Path tempDir) throws Exception {
+        var checkpointPath = Optional.of(tempDir.resolve("import.checkpoint"));
+
+        var checkpoint = MilestoneImportCheckpoint.load(checkpointPath);
+        assertThat(checkpoint.getWatermark()).isZero();
+
+        checkpoint.complete(0);
+        checkpoint.complete(1);
+        checkpoint.save();
+
+        assertThat(Files.readString(checkpointPath.get())).isEqualTo("2");
+        assertThat(MilestoneImportCheckpoint.load(checkpointPath).getWatermark()).isEqualTo(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCompleteSaveInterval_thenCheckpointSaved(@TempDir Path tempDir) throws Exception {
+        var checkpointPath = Optional.of(tempDir.resolve("import.checkpoint"));
+        var checkpoint = new MilestoneImportCheckpoint(checkpointPath, 0);
+
+        for (var i = 0; i < MilestoneImportCheckpoint.SAVE_INTERVAL; i++) {
+            checkpoint.complete(i);
+        }
+
+        assertThat(Files.readString(checkpointPath.get()))
+                .isEqualTo(Integer.toString(MilestoneImportCheckpoint.SAVE_INTERVAL));
+    }
+}
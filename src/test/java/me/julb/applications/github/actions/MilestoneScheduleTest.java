@@ -0,0 +1,112 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link MilestoneSchedule} class. <br>
+ * @author Julb.
+ */
+class MilestoneScheduleTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToMilestones_thenReturnFutureMilestonesWithinHorizon() throws Exception {
+        var schedule = new MilestoneSchedule(
+                "Sprint {year}-{week}",
+                LocalDate.parse("2026-09-25"),
+                Period.ofWeeks(2),
+                Period.ofMonths(1),
+                Optional.of("description"));
+
+        assertThat(schedule.toMilestones(LocalDate.parse("2026-10-18")))
+                .containsExactly(
+                        new MilestoneManifestEntry(
+                                "Sprint 2026-43", null, "description", "2026-10-23"),
+                        new MilestoneManifestEntry(
+                                "Sprint 2026-45", null, "description", "2026-11-06"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToMilestonesWithoutDescription_thenDescriptionUnset() throws Exception {
+        var schedule = new MilestoneSchedule(
+                "Sprint {date}", LocalDate.parse("2026-10-23"), Period.ofWeeks(2), Period.ofDays(7), Optional.empty());
+
+        assertThat(schedule.toMilestones(LocalDate.parse("2026-10-18")))
+                .containsExactly(
+                        new MilestoneManifestEntry("Sprint 2026-10-23", null, null, "2026-10-23"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToMilestonesZeroCadence_thenThrowIllegalArgumentException() throws Exception {
+        var schedule = new MilestoneSchedule(
+                "Sprint {date}", LocalDate.parse("2026-10-23"), Period.ZERO, Period.ofDays(7), Optional.empty());
+        var today = LocalDate.parse("2026-10-18");
+
+        assertThrows(IllegalArgumentException.class, () -> schedule.toMilestones(today));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToMilestonesDuplicateTitle_thenThrowIllegalArgumentException() throws Exception {
+        var schedule = new MilestoneSchedule(
+                "Sprint", LocalDate.parse("2026-10-23"), Period.ofWeeks(1), Period.ofMonths(1), Optional.empty());
+        var today = LocalDate.parse("2026-10-18");
+
+        assertThrows(IllegalArgumentException.class, () -> schedule.toMilestones(today));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFormatTitle_thenPlaceholdersReplaced() throws Exception {
+        var schedule = new MilestoneSchedule(
+                "{year}-{week} ({date})",
+                LocalDate.parse("2026-10-23"),
+                Period.ofWeeks(1),
+                Period.ofMonths(1),
+                Optional.empty());
+
+        assertThat(schedule.formatTitle(LocalDate.parse("2027-01-01"))).isEqualTo("2026-53 (2027-01-01)");
+    }
+}
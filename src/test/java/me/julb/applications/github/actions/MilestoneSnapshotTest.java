@@ -0,0 +1,82 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link MilestoneSnapshot} class. <br>
+ * @author Julb.
+ */
+class MilestoneSnapshotTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDiff_thenReturnChangesSinceWatermark() throws Exception {
+        var unchanged = new MilestoneSnapshot.Entry(1, "v1.0.0", "closed", null, null, "2022-01-01T00:00:00Z");
+        var updatedBefore = new MilestoneSnapshot.Entry(2, "v1.1.0", "open", null, null, "2022-01-02T00:00:00Z");
+        var updatedAfter = new MilestoneSnapshot.Entry(2, "v1.1.0", "closed", null, null, "2022-01-03T00:00:00Z");
+        var deleted = new MilestoneSnapshot.Entry(3, "v0.9.0", "closed", null, null, "2022-01-01T00:00:00Z");
+        var created = new MilestoneSnapshot.Entry(4, "v2.0.0", "open", null, null, "2022-01-03T00:00:00Z");
+
+        var previous = new MilestoneSnapshot();
+        previous.setRepo("octocat/Hello-World");
+        previous.setUpdatedAt("2022-01-02T00:00:00Z");
+        previous.getPages().add(new MilestoneSnapshot.Page("etag1", false, List.of(unchanged, updatedBefore, deleted)));
+
+        var current = new MilestoneSnapshot();
+        current.setRepo("octocat/Hello-World");
+        current.setUpdatedAt("2022-01-03T00:00:00Z");
+        current.getPages().add(new MilestoneSnapshot.Page("etag2", false, List.of(unchanged, updatedAfter, created)));
+
+        assertThat(current.diff(previous))
+                .extracting(MilestoneSnapshot.Change::getChange, MilestoneSnapshot.Change::getMilestone)
+                .containsExactly(
+                        tuple(MilestoneSnapshot.ChangeType.UPDATED, updatedAfter),
+                        tuple(MilestoneSnapshot.ChangeType.CREATED, created),
+                        tuple(MilestoneSnapshot.ChangeType.DELETED, deleted));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDiffWithEmptyPrevious_thenAllCreated() throws Exception {
+        var entry = new MilestoneSnapshot.Entry(1, "v1.0.0", "open", null, null, "2022-01-01T00:00:00Z");
+
+        var current = new MilestoneSnapshot();
+        current.getPages().add(new MilestoneSnapshot.Page("etag", false, List.of(entry)));
+
+        assertThat(current.diff(new MilestoneSnapshot()))
+                .extracting(MilestoneSnapshot.Change::getChange)
+                .containsExactly(MilestoneSnapshot.ChangeType.CREATED);
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.authorization.AuthorizationProvider;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test class for {@link MilestoneSnapshotter} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class MilestoneSnapshotterTest {
+
+    /**
+     * The class under test.
+     */
+    private MilestoneSnapshotter snapshotter = null;
+
+    /**
+     * A mock for the connector.
+     */
+    @Mock
+    private GitHubConnector connectorMock;
+
+    /**
+     * A mock for the authorization provider.
+     */
+    @Mock
+    private AuthorizationProvider authorizationProviderMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        snapshotter = new MilestoneSnapshotter(
+                connectorMock, "https://api.github.com", authorizationProviderMock, new ObjectMapper());
+        when(authorizationProviderMock.getEncodedAuthorization()).thenReturn("token abcd");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRefreshUnchangedPage_thenReusePreviousPage() throws Exception {
+        var entry = new MilestoneSnapshot.Entry(1, "v1.0.0", "open", null, null, "2022-01-01T00:00:00Z");
+        var previous = new MilestoneSnapshot();
+        previous.setRepo("octocat/Hello-World");
+        previous.getPages().add(new MilestoneSnapshot.Page("\"etag1\"", false, List.of(entry)));
+
+        when(connectorMock.send(any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0), 304, Map.of(), ""));
+
+        var snapshot = snapshotter.refresh(previous);
+
+        assertThat(snapshot.getPages()).containsExactlyElementsOf(previous.getPages());
+        assertThat(snapshot.getUpdatedAt()).isEqualTo("2022-01-01T00:00:00Z");
+
+        var requestCaptor = ArgumentCaptor.forClass(GitHubConnectorRequest.class);
+        verify(connectorMock).send(requestCaptor.capture());
+        assertThat(requestCaptor.getValue().method()).isEqualTo("GET");
+        assertThat(requestCaptor.getValue().url())
+                .hasToString(
+                        "https://api.github.com/repos/octocat/Hello-World/milestones?state=all&per_page=100&page=1");
+        assertThat(requestCaptor.getValue().header("if-none-match")).isEqualTo("\"etag1\"");
+        assertThat(requestCaptor.getValue().header("Authorization")).isEqualTo("token abcd");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRefreshWithoutPrevious_thenListAllPages() throws Exception {
+        var previous = new MilestoneSnapshot();
+        previous.setRepo("octocat/Hello-World");
+
+        when(connectorMock.send(any()))
+                .thenAnswer(invocation -> response(
+                        invocation.getArgument(0),
+                        200,
+                        Map.of("ETag", List.of("\"etag1\""), "Link", List.of("<https://next>; rel=\"next\"")),
+                        "[{\"number\":1,\"title\":\"v1.0.0\",\"updated_at\":\"2022-01-01T00:00:00Z\"}]"))
+                .thenAnswer(invocation -> response(
+                        invocation.getArgument(0),
+                        200,
+                        Map.of("ETag", List.of("\"etag2\"")),
+                        "[{\"number\":2,\"title\":\"v2.0.0\",\"updated_at\":\"2022-01-02T00:00:00Z\"}]"));
+
+        var snapshot = snapshotter.refresh(previous);
+
+        assertThat(snapshot.getPages())
+                .extracting(MilestoneSnapshot.Page::getEtag)
+                .containsExactly("\"etag1\"", "\"etag2\"");
+        assertThat(snapshot.getMilestones()).extracting(MilestoneSnapshot.Entry::getNumber).containsExactly(1, 2);
+        assertThat(snapshot.getUpdatedAt()).isEqualTo("2022-01-02T00:00:00Z");
+        verify(connectorMock, times(2)).send(any());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRefreshFails_thenThrowIOException() throws Exception {
+        var previous = new MilestoneSnapshot();
+        previous.setRepo("octocat/Hello-World");
+
+        when(connectorMock.send(any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0), 500, Map.of(), ""));
+
+        assertThrows(IOException.class, () -> snapshotter.refresh(previous));
+    }
+
+    /**
+     * Builds a response.
+     * @param request the request.
+     * @param statusCode the status code.
+     * @param headers the headers.
+     * @param body the body.
+     * @return the response.
+     */
+    private static GitHubConnectorResponse response(
+            GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, String body) {
+        return new BufferedGitHubConnectorResponse(
+                request, statusCode, headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
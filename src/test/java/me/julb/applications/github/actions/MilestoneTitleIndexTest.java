@@ -0,0 +1,104 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHMilestone;
+
+/**
+ * Test class for {@link MilestoneTitleIndex} class. <br>
+ * @author Julb.
+ */
+class MilestoneTitleIndexTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNormalizeNormalizedAscii_thenReturnSameInstance() {
+        var title = "v1.0.0 sprint";
+        assertThat(MilestoneTitleIndex.normalize(title)).isSameAs(title);
+        assertThat(MilestoneTitleIndex.normalize("")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNormalize_thenFoldCaseAndStrip() {
+        assertThat(MilestoneTitleIndex.normalize("  Sprint 1\t")).isEqualTo("sprint 1");
+        assertThat(MilestoneTitleIndex.normalize("STRASSE")).isEqualTo(MilestoneTitleIndex.normalize("Straße"));
+        assertThat(MilestoneTitleIndex.normalize("ΟΔΟΣ")).isEqualTo(MilestoneTitleIndex.normalize("οδος"));
+        assertThat(MilestoneTitleIndex.normalize("Café")).isEqualTo(MilestoneTitleIndex.normalize("CAFÉ"));
+        assertThat(MilestoneTitleIndex.normalize(" v1 ")).isEqualTo("v1");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGet_thenReturnMilestone() {
+        var ghMilestone1 = milestone("v1.0.0");
+        var ghMilestone2 = milestone("Sprint 1");
+
+        var titleIndex = new MilestoneTitleIndex(List.of(ghMilestone1, ghMilestone2));
+
+        assertThat(titleIndex.get("V1.0.0")).contains(ghMilestone1);
+        assertThat(titleIndex.get(" sprint 1 ")).contains(ghMilestone2);
+        assertThat(titleIndex.get("v2.0.0")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetAmbiguousTitle_thenThrowIllegalStateException() {
+        var titleIndex =
+                new MilestoneTitleIndex(List.of(milestone("v1.0.0"), milestone("V1.0.0 "), milestone("v2.0.0")));
+
+        var exception = assertThrows(IllegalStateException.class, () -> titleIndex.get("v1.0.0"));
+
+        assertThat(exception).hasMessage("ambiguous milestone title: v1.0.0 matches 'v1.0.0', 'V1.0.0 '");
+        assertThrows(IllegalStateException.class, () -> titleIndex.keyOf("V1.0.0"));
+        assertThat(titleIndex.get("v2.0.0")).isPresent();
+    }
+
+    /**
+     * Creates a milestone mock.
+     * @param title the milestone title.
+     * @return the milestone mock.
+     */
+    private static GHMilestone milestone(String title) {
+        var ghMilestone = mock(GHMilestone.class);
+        when(ghMilestone.getTitle()).thenReturn(title);
+        return ghMilestone;
+    }
+}
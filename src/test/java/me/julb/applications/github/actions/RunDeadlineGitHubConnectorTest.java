@@ -0,0 +1,200 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.kohsuke.github.extras.HttpClientGitHubConnector;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test class for {@link RunDeadlineGitHubConnector} class. <br>
+ * @author Julb.
+ */
+class RunDeadlineGitHubConnectorTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUnbounded_thenSendThroughDelegate() throws Exception {
+        var requestMock = mock(GitHubConnectorRequest.class);
+        var responseMock = mock(GitHubConnectorResponse.class);
+        var connector = new RunDeadlineGitHubConnector(RunDeadline.unbounded(), request -> responseMock);
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExpired_thenThrowRunDeadlineExceededExceptionWithoutSending() throws Exception {
+        var deadline = new RunDeadline(Optional.of(Duration.ofMillis(1)), Clock.systemUTC());
+        Thread.sleep(10);
+        var sent = new AtomicBoolean();
+        var connector = new RunDeadlineGitHubConnector(deadline, request -> {
+            sent.set(true);
+            return null;
+        });
+
+        assertThrows(RunDeadlineExceededException.class, () -> connector.send(mock(GitHubConnectorRequest.class)));
+        assertThat(sent).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenServerStalls_thenThrowRunDeadlineExceededExceptionAtDeadline() throws Exception {
+        try (var serverSocket = new ServerSocket(0)) {
+            var deadline = new RunDeadline(Optional.of(Duration.ofMillis(200)), Clock.systemUTC());
+
+            // The server accepts the connection but never answers.
+            var httpClient = HttpClient.newHttpClient();
+            var httpRequest = HttpRequest.newBuilder(
+                            URI.create(String.format("http://127.0.0.1:%d/", serverSocket.getLocalPort())))
+                    .build();
+            GitHubConnector stalledConnector = request -> {
+                try {
+                    httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                    return null;
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("interrupted");
+                }
+            };
+            var connector = new RunDeadlineGitHubConnector(deadline, stalledConnector);
+
+            var start = System.nanoTime();
+            var e = assertThrows(
+                    RunDeadlineExceededException.class, () -> connector.send(mock(GitHubConnectorRequest.class)));
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+            assertThat(e).hasCauseInstanceOf(InterruptedIOException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenServerStallsAfterHeaders_thenThrowRunDeadlineExceededExceptionAtDeadline() throws Exception {
+        // The server answers the headers and the beginning of the body, then stalls.
+        var httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, 100);
+            exchange.getResponseBody().write("[{".getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseBody().flush();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.start();
+        try {
+            var deadline = new RunDeadline(Optional.of(Duration.ofMillis(500)), Clock.systemUTC());
+            var connector = new RunDeadlineGitHubConnector(deadline, new HttpClientGitHubConnector());
+            var request = new MilestoneSnapshotter.PageRequest(
+                    new URL(String.format("http://127.0.0.1:%d/", httpServer.getAddress().getPort())), Map.of());
+
+            var start = System.nanoTime();
+            assertThrows(RunDeadlineExceededException.class, () -> connector.send(request));
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+            assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBounded_thenServeBodyReadWithinDeadline() throws Exception {
+        var requestMock = mock(GitHubConnectorRequest.class);
+        var responseMock = mock(GitHubConnectorResponse.class);
+        when(responseMock.statusCode()).thenReturn(200);
+        when(responseMock.allHeaders())
+                .thenReturn(Map.of("ETag", List.of("\"abc\""), "Content-Encoding", List.of("gzip")));
+        when(responseMock.bodyStream())
+                .thenReturn(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)));
+        var deadline = new RunDeadline(Optional.of(Duration.ofSeconds(30)), Clock.systemUTC());
+        var connector = new RunDeadlineGitHubConnector(deadline, request -> responseMock);
+
+        try (var response = connector.send(requestMock)) {
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.header("ETag")).isEqualTo("\"abc\"");
+            assertThat(response.header("Content-Encoding")).isNull();
+            assertThat(new String(response.bodyStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("[]");
+        }
+        verify(responseMock).close();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDelegateFailsBeforeDeadline_thenRethrowFailure() throws Exception {
+        var deadline = new RunDeadline(Optional.of(Duration.ofSeconds(30)), Clock.systemUTC());
+        var connector = new RunDeadlineGitHubConnector(deadline, request -> {
+            throw new IOException("connection refused");
+        });
+
+        var e = assertThrows(IOException.class, () -> connector.send(mock(GitHubConnectorRequest.class)));
+        assertThat(e).isNotInstanceOf(RunDeadlineExceededException.class).hasMessage("connection refused");
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+}
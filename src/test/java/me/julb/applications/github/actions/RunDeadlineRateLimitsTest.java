@@ -0,0 +1,211 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * Test class for {@link RunDeadlineRateLimits} class. <br>
+ * @author Julb.
+ */
+class RunDeadlineRateLimitsTest {
+
+    /**
+     * The current time.
+     */
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+    /**
+     * The clock.
+     */
+    private Clock clock;
+
+    /**
+     * The run deadline.
+     */
+    private RunDeadline deadline;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        deadline = new RunDeadline(Optional.of(Duration.ofSeconds(5)), Clock.systemUTC());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUntilReset_thenDelayWithMarginOrZero() throws Exception {
+        assertThat(RunDeadlineRateLimits.untilReset(NOW.plusSeconds(10), clock))
+                .isEqualTo(Duration.ofSeconds(10).plus(RunDeadlineRateLimits.RESET_MARGIN));
+        assertThat(RunDeadlineRateLimits.untilReset(NOW.minusSeconds(10), clock)).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCheckRateLimitAboveThreshold_thenDoNotWait() throws Exception {
+        var rateLimitRecordMock = mock(GHRateLimit.Record.class);
+        when(rateLimitRecordMock.getRemaining()).thenReturn(500);
+
+        var checker = new RunDeadlineRateLimits.Checker(100, deadline, clock);
+
+        assertThat(checker.checkRateLimit(rateLimitRecordMock, 0)).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCheckRateLimitResetPassed_thenDoNotWait() throws Exception {
+        var rateLimitRecordMock = mock(GHRateLimit.Record.class);
+        when(rateLimitRecordMock.getRemaining()).thenReturn(10);
+        when(rateLimitRecordMock.getResetDate()).thenReturn(Date.from(NOW.minusSeconds(60)));
+
+        var checker = new RunDeadlineRateLimits.Checker(100, deadline, clock);
+
+        assertThat(checker.checkRateLimit(rateLimitRecordMock, 0)).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCheckRateLimitResetAfterDeadline_thenThrowRunDeadlineExceededException() throws Exception {
+        var rateLimitRecordMock = mock(GHRateLimit.Record.class);
+        when(rateLimitRecordMock.getRemaining()).thenReturn(10);
+        when(rateLimitRecordMock.getResetDate()).thenReturn(Date.from(NOW.plus(Duration.ofMinutes(40))));
+
+        var checker = new RunDeadlineRateLimits.Checker(100, deadline, clock);
+
+        var start = System.nanoTime();
+        var e = assertThrows(UncheckedIOException.class, () -> checker.checkRateLimit(rateLimitRecordMock, 0));
+        assertThat(e).hasCauseInstanceOf(RunDeadlineExceededException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCheckRateLimitUnbounded_thenWaitForReset() throws Exception {
+        var rateLimitRecordMock = mock(GHRateLimit.Record.class);
+        when(rateLimitRecordMock.getRemaining()).thenReturn(10);
+        when(rateLimitRecordMock.getResetDate()).thenReturn(Date.from(NOW));
+
+        var checker = new RunDeadlineRateLimits.Checker(100, RunDeadline.unbounded(), clock);
+
+        assertThat(checker.checkRateLimit(rateLimitRecordMock, 0)).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPrimaryLimitResetAfterDeadline_thenThrowRunDeadlineExceededException() throws Exception {
+        var responseMock = mock(GitHubConnectorResponse.class);
+        when(responseMock.header("X-RateLimit-Reset"))
+                .thenReturn(String.valueOf(NOW.plus(Duration.ofMinutes(40)).getEpochSecond()));
+
+        var handler = new RunDeadlineRateLimits.PrimaryLimitHandler(deadline, clock);
+
+        assertThrows(RunDeadlineExceededException.class, () -> handler.onError(responseMock));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPrimaryLimitResetPassed_thenDoNotWait() throws Exception {
+        var responseMock = mock(GitHubConnectorResponse.class);
+        when(responseMock.header("X-RateLimit-Reset"))
+                .thenReturn(String.valueOf(NOW.minusSeconds(60).getEpochSecond()));
+
+        var handler = new RunDeadlineRateLimits.PrimaryLimitHandler(deadline, clock);
+
+        var start = System.nanoTime();
+        handler.onError(responseMock);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSecondaryLimitRetryAfterDeadline_thenThrowRunDeadlineExceededException() throws Exception {
+        var responseMock = mock(GitHubConnectorResponse.class);
+        when(responseMock.header("Retry-After")).thenReturn("120");
+
+        var handler = new RunDeadlineRateLimits.SecondaryLimitHandler(deadline);
+
+        assertThrows(RunDeadlineExceededException.class, () -> handler.onError(responseMock));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSecondaryLimitWithoutRetryAfter_thenWaitDefaultBoundedByDeadline() throws Exception {
+        var responseMock = mock(GitHubConnectorResponse.class);
+        when(responseMock.header("Retry-After")).thenReturn(null);
+
+        var handler = new RunDeadlineRateLimits.SecondaryLimitHandler(deadline);
+
+        assertThrows(RunDeadlineExceededException.class, () -> handler.onError(responseMock));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSecondaryLimitRetryAfterZero_thenDoNotWait() throws Exception {
+        var responseMock = mock(GitHubConnectorResponse.class);
+        when(responseMock.header("Retry-After")).thenReturn("0");
+
+        var handler = new RunDeadlineRateLimits.SecondaryLimitHandler(deadline);
+
+        handler.onError(responseMock);
+        assertThat(deadline.isExceeded()).isFalse();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link RunDeadline} class. <br>
+ * @author Julb.
+ */
+class RunDeadlineTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUnbounded_thenNeverExceeded() throws Exception {
+        var deadline = RunDeadline.unbounded();
+
+        assertThat(deadline.isExceeded()).isFalse();
+        assertThat(deadline.remaining()).isEmpty();
+        assertDoesNotThrow(() -> deadline.enterPhase("connect"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBoundedNotExpired_thenReturnRemaining() throws Exception {
+        var now = Instant.parse("2022-01-01T08:00:00Z");
+        var deadline = new RunDeadline(Optional.of(Duration.ofMinutes(5)), Clock.fixed(now, ZoneOffset.UTC));
+
+        assertThat(deadline.isExceeded()).isFalse();
+        assertThat(deadline.remaining()).contains(Duration.ofMinutes(5));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBoundedExpired_thenThrowWithPhase() throws Exception {
+        var deadline = new RunDeadline(Optional.of(Duration.ofMillis(1)), Clock.systemUTC());
+        Thread.sleep(10);
+
+        assertThat(deadline.isExceeded()).isTrue();
+        var exception = assertThrows(RunDeadlineExceededException.class, () -> deadline.enterPhase("lookup"));
+        assertThat(exception.getPhase()).isEqualTo("lookup");
+        assertThat(exception.getMessage()).isEqualTo("timeout of PT0.001S exceeded during phase: lookup");
+        assertThrows(RunDeadlineExceededException.class, deadline::remaining);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEnterPhase_thenNotifyDurationOfEndedPhase() throws Exception {
+        var now = new AtomicReference<>(Instant.parse("2022-01-01T00:00:00Z"));
+        var clock = mock(Clock.class);
+        when(clock.instant()).thenAnswer(invocation -> now.get());
+
+        var endedPhases = new ArrayList<String>();
+        var deadline = new RunDeadline(Optional.empty(), clock);
+        deadline.setPhaseListener((phase, duration) -> endedPhases.add(phase + ":" + duration.toMillis()));
+
+        now.set(now.get().plusMillis(100));
+        deadline.enterPhase("connect");
+        now.set(now.get().plusMillis(250));
+        deadline.endPhase();
+
+        assertThat(endedPhases).isEqualTo(List.of("startup:100", "connect:250"));
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test class for {@link SharedBudgetGitHubConnector} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class SharedBudgetGitHubConnectorTest {
+
+    /**
+     * The class under test.
+     */
+    private SharedBudgetGitHubConnector connector = null;
+
+    /**
+     * The waits notified.
+     */
+    private List<String> waits = new ArrayList<>();
+
+    /**
+     * A mock for the connector.
+     */
+    @Mock
+    private GitHubConnector delegateMock;
+
+    /**
+     * A mock for the budget.
+     */
+    @Mock
+    private SharedRateLimitBudget budgetMock;
+
+    /**
+     * A mock for the request.
+     */
+    @Mock
+    private GitHubConnectorRequest requestMock;
+
+    /**
+     * A mock for the response.
+     */
+    @Mock
+    private GitHubConnectorResponse responseMock;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        connector = new SharedBudgetGitHubConnector(delegateMock, budgetMock, RunDeadline.unbounded(), waits::add);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSend_thenObserveRateLimitHeaders() throws Exception {
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ZERO);
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.header(anyString())).thenReturn(null);
+        when(responseMock.header("X-RateLimit-Remaining")).thenReturn("4321");
+        when(responseMock.header("X-RateLimit-Reset")).thenReturn("1767225600");
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+
+        verify(budgetMock).observe("core", "core", 4321, Instant.ofEpochSecond(1767225600));
+        verify(budgetMock, never()).release(anyString());
+        assertThat(waits).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendWithoutRateLimitHeaders_thenReleaseReservation() throws Exception {
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ZERO);
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.header(anyString())).thenReturn(null);
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+
+        verify(budgetMock).release("core");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSendFails_thenReleaseReservationAndRethrow() throws Exception {
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ZERO);
+        when(delegateMock.send(requestMock)).thenThrow(new IOException("reset"));
+
+        assertThrows(IOException.class, () -> connector.send(requestMock));
+
+        verify(budgetMock).release("core");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSecondaryRateLimit_thenBlockBudget() throws Exception {
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ZERO);
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.header(anyString())).thenReturn(null);
+        when(responseMock.header("Retry-After")).thenReturn("60");
+        when(responseMock.statusCode()).thenReturn(403);
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+
+        verify(budgetMock).release("core");
+        verify(budgetMock).block("core", Duration.ofSeconds(60));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResourceHeader_thenObserveResource() throws Exception {
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ZERO);
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.header(anyString())).thenReturn(null);
+        when(responseMock.header("X-RateLimit-Remaining")).thenReturn("29");
+        when(responseMock.header("X-RateLimit-Reset")).thenReturn("1767225600");
+        when(responseMock.header("X-RateLimit-Resource")).thenReturn("integration_manifest");
+
+        connector.send(requestMock);
+
+        verify(budgetMock).observe("core", "integration_manifest", 29, Instant.ofEpochSecond(1767225600));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResourceHeaderWithoutRateLimitHeaders_thenReleaseReservedResource() throws Exception {
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ZERO);
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.header(anyString())).thenReturn(null);
+        when(responseMock.header("X-RateLimit-Resource")).thenReturn("integration_manifest");
+
+        connector.send(requestMock);
+
+        verify(budgetMock).release("core");
+        verify(budgetMock, never()).release("integration_manifest");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBudgetExhausted_thenWaitAndReserveAgain() throws Exception {
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ofMillis(20), Duration.ZERO);
+        when(delegateMock.send(requestMock)).thenReturn(responseMock);
+        when(responseMock.header(anyString())).thenReturn(null);
+
+        assertThat(connector.send(requestMock)).isSameAs(responseMock);
+
+        assertThat(waits).singleElement().asString().contains("20 ms").contains("core");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenWaitExceedsDeadline_thenThrowRunDeadlineExceeded() throws Exception {
+        connector = new SharedBudgetGitHubConnector(
+                delegateMock,
+                budgetMock,
+                new RunDeadline(Optional.of(Duration.ofSeconds(30)), Clock.systemUTC()),
+                waits::add);
+        when(requestMock.url()).thenReturn(new URL("https://api.github.com/repos/octocat/Hello-World/milestones"));
+        when(budgetMock.reserve("core")).thenReturn(Duration.ofMinutes(10));
+
+        assertThrows(RunDeadlineExceededException.class, () -> connector.send(requestMock));
+
+        verify(delegateMock, never()).send(requestMock);
+        assertThat(waits).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToResource_thenReturnRateLimitResource() {
+        assertThat(SharedBudgetGitHubConnector.toResource("/repos/octocat/Hello-World/milestones"))
+                .isEqualTo("core");
+        assertThat(SharedBudgetGitHubConnector.toResource("/search/issues")).isEqualTo("search");
+        assertThat(SharedBudgetGitHubConnector.toResource("/graphql")).isEqualTo("graphql");
+        assertThat(SharedBudgetGitHubConnector.toResource("/api/v3/search/issues")).isEqualTo("search");
+    }
+}
@@ -0,0 +1,400 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link SharedRateLimitBudget} class. <br>
+ * @author Julb.
+ */
+class SharedRateLimitBudgetTest {
+
+    /**
+     * The current time.
+     */
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    /**
+     * The reset time of the window.
+     */
+    private static final Instant RESET = NOW.plusSeconds(600);
+
+    /**
+     * The credential key.
+     */
+    private static final String KEY = "token-3c469e9d6c5875d3";
+
+    /**
+     * The expiry time of a reservation made now.
+     */
+    private static final Instant EXPIRY = NOW.plus(SharedRateLimitBudget.RESERVATION_TIMEOUT);
+
+    /**
+     * The state file.
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The class under test.
+     */
+    private SharedRateLimitBudget budget = null;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        budget = budgetAt(NOW);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReserveWithoutObservation_thenReserveWithoutWaiting() throws Exception {
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(Files.readString(tempDir.resolve("budget"))).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReserveAboveFloor_thenCountReservation() throws Exception {
+        budget.observe("core", 100, RESET);
+
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(budget.reserve("core")).isZero();
+
+        assertThat(Files.readString(tempDir.resolve("budget")))
+                .isEqualTo(String.format(
+                        "%s core 100 %d 0 %d,%d\n",
+                        KEY,
+                        RESET.getEpochSecond(),
+                        EXPIRY.getEpochSecond(),
+                        EXPIRY.getEpochSecond()));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReserveAtFloor_thenWaitUntilReset() throws Exception {
+        budget.observe("core", 12, RESET);
+
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(budget.reserve("core"))
+                .isEqualTo(Duration.between(NOW, RESET).plus(SharedRateLimitBudget.RESET_MARGIN));
+        assertThat(budget.reserve("search")).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenObserveSameWindow_thenKeepLowestRemainingAndReleaseReservation() throws Exception {
+        budget.observe("core", 100, RESET);
+        budget.reserve("core");
+        budget.reserve("core");
+
+        budget.observe("core", 98, RESET);
+        budget.observe("core", 99, RESET);
+
+        assertThat(states())
+                .containsEntry("core", state(98, RESET));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenObserveNewWindow_thenReplaceState() throws Exception {
+        budget.observe("core", 11, RESET);
+        budget.reserve("core");
+
+        budget.observe("core", 5000, RESET.plusSeconds(3600));
+
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(states())
+                .containsEntry(
+                        "core",
+                        new SharedRateLimitBudget.ResourceState(
+                                5000, RESET.plusSeconds(3600), new ArrayList<>(List.of(EXPIRY)), Instant.EPOCH));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenObserveEarlierWindow_thenReleaseReservationOnly() throws Exception {
+        budget.observe("core", 100, RESET);
+        budget.reserve("core");
+
+        budget.observe("core", 4999, RESET.minusSeconds(3600));
+
+        assertThat(states())
+                .containsEntry("core", state(100, RESET));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenObserveOtherResource_thenReleaseReservedResource() throws Exception {
+        budget.observe("core", 100, RESET);
+        budget.reserve("core");
+
+        budget.observe("core", "integration_manifest", 29, RESET);
+
+        assertThat(states())
+                .containsEntry("core", state(100, RESET))
+                .containsEntry("integration_manifest", state(29, RESET));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReserveAfterReset_thenDropStaleState() throws Exception {
+        budget.observe("core", 10, RESET);
+
+        assertThat(budgetAt(RESET).reserve("core")).isZero();
+        assertThat(Files.readString(tempDir.resolve("budget"))).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRelease_thenFreeReservation() throws Exception {
+        budget.observe("core", 11, RESET);
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(budget.reserve("core")).isPositive();
+
+        budget.release("core");
+
+        assertThat(budget.reserve("core")).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBlock_thenWaitForAllRuns() throws Exception {
+        budget.block("core", Duration.ofSeconds(30));
+
+        assertThat(budgetAt(NOW.plusSeconds(10)).reserve("core")).isEqualTo(Duration.ofSeconds(20));
+        assertThat(budgetAt(NOW.plusSeconds(30)).reserve("core")).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBlockKnownResource_thenKeepRemainingCalls() throws Exception {
+        budget.observe("core", 100, RESET);
+        budget.block("core", Duration.ofSeconds(60));
+        budget.block("core", Duration.ofSeconds(30));
+
+        assertThat(budget.reserve("core")).isEqualTo(Duration.ofSeconds(60));
+        assertThat(budgetAt(NOW.plusSeconds(60)).reserve("core")).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReserveConcurrently_thenCountAllReservations() throws Exception {
+        budget.observe("core", 1000, RESET);
+
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 100; i++) {
+                executor.submit(() -> budgetAt(NOW).reserve("core"));
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(states().get("core").getReservations()).hasSize(100);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReserveOtherCredential_thenKeepSeparateBudgets() throws Exception {
+        budget.observe("core", 11, RESET);
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(budget.reserve("core")).isPositive();
+
+        var otherBudget = new SharedRateLimitBudget(
+                tempDir.resolve("budget"), "installation-456", 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        assertThat(otherBudget.reserve("core")).isZero();
+        otherBudget.observe("core", 5000, RESET);
+
+        assertThat(SharedRateLimitBudget.parse(Files.readString(tempDir.resolve("budget"))))
+                .containsOnlyKeys(KEY, "installation-456")
+                .containsEntry("installation-456", Map.of("core", state(5000, RESET)));
+        assertThat(budget.reserve("core")).isPositive();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReservationExpires_thenFreeReservation() throws Exception {
+        budget.observe("core", 11, RESET);
+        assertThat(budget.reserve("core")).isZero();
+        assertThat(budget.reserve("core")).isPositive();
+
+        // The run holding the reservation never observes nor releases it.
+        assertThat(budgetAt(EXPIRY).reserve("core")).isZero();
+        assertThat(states().get("core").getReservations())
+                .containsExactly(EXPIRY.plus(SharedRateLimitBudget.RESERVATION_TIMEOUT));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUpdateAfterOtherCredentialWindow_thenDropOtherCredential() throws Exception {
+        var otherBudget = new SharedRateLimitBudget(
+                tempDir.resolve("budget"), "token-0000000000000000", 10, Clock.fixed(NOW, ZoneOffset.UTC));
+        otherBudget.observe("core", 100, NOW.plusSeconds(60));
+
+        budgetAt(NOW.plusSeconds(60)).observe("core", 100, RESET);
+
+        assertThat(SharedRateLimitBudget.parse(Files.readString(tempDir.resolve("budget")))).containsOnlyKeys(KEY);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateWithWhitespaceKey_thenThrowIllegalArgumentException() {
+        var file = tempDir.resolve("budget");
+        var clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+        assertThrows(IllegalArgumentException.class, () -> new SharedRateLimitBudget(file, "token a", 10, clock));
+        assertThrows(IllegalArgumentException.class, () -> new SharedRateLimitBudget(file, "", 10, clock));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenParseMalformedLines_thenIgnoreThem() {
+        var statesByKey = SharedRateLimitBudget.parse(String.format(
+                "%s core 10 1767225600 0 1767225720\n%s search ten 1767225600 0 -\n\n%s graphql 1\n"
+                        + "%s core 10 1767225600 0 1767225720,x\ncore 10 1767225600 1 0\n",
+                KEY,
+                KEY,
+                KEY,
+                "installation-456"));
+
+        assertThat(statesByKey)
+                .containsOnlyKeys(KEY)
+                .containsEntry(
+                        KEY,
+                        Map.of(
+                                "core",
+                                new SharedRateLimitBudget.ResourceState(
+                                        10,
+                                        Instant.ofEpochSecond(1767225600),
+                                        List.of(Instant.ofEpochSecond(1767225720)),
+                                        Instant.EPOCH)));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFormat_thenParseBack() {
+        var statesByKey = SharedRateLimitBudget.parse(String.format(
+                "%s core 10 %d 0 -\n%s search 5 %d %d %d,%d\ninstallation-456 core 4000 %d 0 -\n",
+                KEY,
+                RESET.getEpochSecond(),
+                KEY,
+                RESET.getEpochSecond(),
+                NOW.getEpochSecond(),
+                EXPIRY.getEpochSecond(),
+                EXPIRY.getEpochSecond(),
+                RESET.getEpochSecond()));
+
+        assertThat(statesByKey).containsOnlyKeys(KEY, "installation-456");
+        assertThat(statesByKey.get(KEY).get("search").getReservations()).hasSize(2);
+        assertThat(SharedRateLimitBudget.parse(SharedRateLimitBudget.format(statesByKey))).isEqualTo(statesByKey);
+    }
+
+    /**
+     * Creates a budget on the state file at the given time.
+     * @param instant the current time.
+     * @return the budget.
+     */
+    private SharedRateLimitBudget budgetAt(Instant instant) {
+        return new SharedRateLimitBudget(tempDir.resolve("budget"), KEY, 10, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    /**
+     * Reads the states of the credential from the state file.
+     * @return the states by resource.
+     * @throws IOException if the state file cannot be read.
+     */
+    private Map<String, SharedRateLimitBudget.ResourceState> states() throws IOException {
+        return SharedRateLimitBudget.parse(Files.readString(tempDir.resolve("budget"))).get(KEY);
+    }
+
+    /**
+     * Creates a state without reservation nor block.
+     * @param remaining the remaining calls.
+     * @param reset the reset time.
+     * @return the state.
+     */
+    private static SharedRateLimitBudget.ResourceState state(long remaining, Instant reset) {
+        return new SharedRateLimitBudget.ResourceState(remaining, reset, new ArrayList<>(), Instant.EPOCH);
+    }
+}
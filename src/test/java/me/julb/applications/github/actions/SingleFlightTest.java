@@ -0,0 +1,185 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link SingleFlight} class. <br>
+ * @author Julb.
+ */
+class SingleFlightTest {
+
+    /**
+     * The number of concurrent callers.
+     */
+    private static final int CALLERS = 8;
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConcurrentReadsOfSameKey_thenCallOnceAndShareResult() throws Exception {
+        var singleFlight = new SingleFlight();
+        var attemptCount = new AtomicInteger();
+        var release = new CountDownLatch(1);
+
+        var results = readConcurrently(singleFlight, release, () -> {
+            attemptCount.incrementAndGet();
+            release.await();
+            return new Object();
+        });
+
+        assertThat(attemptCount).hasValue(1);
+        var first = results.get(0).get();
+        for (Future<Object> result : results) {
+            assertThat(result.get()).isSameAs(first);
+        }
+        assertThat(singleFlight.getCallCount()).isEqualTo(CALLERS);
+        assertThat(singleFlight.getSharedCount()).isEqualTo(CALLERS - 1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConcurrentReadFails_thenFailEveryWaiter() throws Exception {
+        var singleFlight = new SingleFlight();
+        var attemptCount = new AtomicInteger();
+        var release = new CountDownLatch(1);
+
+        var results = readConcurrently(singleFlight, release, () -> {
+            attemptCount.incrementAndGet();
+            release.await();
+            throw new IOException("repository unavailable");
+        });
+
+        assertThat(attemptCount).hasValue(1);
+        for (Future<Object> result : results) {
+            var e = assertThrows(ExecutionException.class, result::get);
+            assertThat(e).hasCauseInstanceOf(IOException.class).hasRootCauseMessage("repository unavailable");
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadsOfDifferentKeys_thenCallEach() throws Exception {
+        var singleFlight = new SingleFlight();
+        var attemptCount = new AtomicInteger();
+
+        singleFlight.read(attemptCount::incrementAndGet, "octocat/Hello-World", "milestones", "all");
+        singleFlight.read(attemptCount::incrementAndGet, "octocat/Hello-World", "milestones", "open");
+        singleFlight.read(attemptCount::incrementAndGet, "octocat/Spoon-Knife", "milestones", "all");
+
+        assertThat(attemptCount).hasValue(3);
+        assertThat(singleFlight.getSharedCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSequentialReadsOfSameKey_thenCallEach() throws Exception {
+        var singleFlight = new SingleFlight();
+        var attemptCount = new AtomicInteger();
+
+        assertThat(singleFlight.read(attemptCount::incrementAndGet, "octocat/Hello-World", "repository"))
+                .isEqualTo(1);
+        assertThat(singleFlight.read(attemptCount::incrementAndGet, "octocat/Hello-World", "repository"))
+                .isEqualTo(2);
+
+        assertThat(singleFlight.getSharedCount()).isZero();
+    }
+
+    /**
+     * Reads the same key from concurrent callers, releasing the call once all the callers are waiting.
+     * @param singleFlight the single flight.
+     * @param release the latch releasing the call.
+     * @param call the call.
+     * @return the results of the callers.
+     * @throws Exception if an error occurs.
+     */
+    private static List<Future<Object>> readConcurrently(
+            SingleFlight singleFlight, CountDownLatch release, InterruptibleReadCall call) throws Exception {
+        var executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            var results = new ArrayList<Future<Object>>();
+            for (var i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.read(
+                        () -> {
+                            try {
+                                return call.read();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IOException(e);
+                            }
+                        },
+                        "octocat/Hello-World",
+                        "milestones",
+                        "all")));
+            }
+
+            // Wait for all the other callers to share the call in flight.
+            while (singleFlight.getSharedCount() < CALLERS - 1) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A read call which may be interrupted.
+     */
+    @FunctionalInterface
+    interface InterruptibleReadCall {
+        /**
+         * Runs the call.
+         * @return the result.
+         * @throws IOException if an error occurs.
+         * @throws InterruptedException if interrupted.
+         */
+        Object read() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,513 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.benchmark;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.spi.ToolProvider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import me.julb.applications.github.actions.GitHubApiStub;
+
+/**
+ * A benchmark of the cold start of the action across launch modes. <br>
+ * Each launch mode runs the action repeatedly in a new process against a local {@link GitHubApiStub}, and measures
+ * the time until the outputs are written, the wall time, the peak RSS and the number of classes loaded. The time
+ * until the outputs are written is read from the modification time of the output file written by the process, the
+ * wall time from the exit of the process, and the peak RSS is sampled at a coarse interval so as not to perturb the
+ * run. The results are written to a JSON report. Usage:
+ *
+ * <pre>
+ * ColdStartBenchmark jar=target/app-shaded.jar [iterations=10] [modes=jar,cds,jlink,native] [native=target/app]
+ *     [work=target/cold-start-benchmark] [report=target/cold-start-benchmark/report.json]
+ * </pre>
+ *
+ * @author Julb.
+ */
+public class ColdStartBenchmark {
+
+    /**
+     * The JVM options of the action, as in the Dockerfile.
+     */
+    static final List<String> JVM_OPTIONS = List.of(
+            "--add-opens",
+            "java.base/java.net=ALL-UNNAMED",
+            "--add-opens",
+            "java.base/sun.net.www.protocol.https=ALL-UNNAMED");
+
+    /**
+     * The maximum duration of a run.
+     */
+    static final Duration RUN_TIMEOUT = Duration.ofMinutes(1);
+
+    /**
+     * The interval between two samples of the peak RSS of a run.
+     */
+    static final Duration PEAK_RSS_SAMPLING_INTERVAL = Duration.ofMillis(100);
+
+    /**
+     * The launch modes.
+     */
+    enum LaunchMode {
+        /**
+         * The shaded jar.
+         */
+        JAR,
+
+        /**
+         * The shaded jar with an application CDS archive.
+         */
+        CDS,
+
+        /**
+         * The shaded jar on a runtime reduced with jlink.
+         */
+        JLINK,
+
+        /**
+         * A native executable.
+         */
+        NATIVE;
+    }
+
+    /**
+     * The GitHub API stub.
+     */
+    private final GitHubApiStub stub;
+
+    /**
+     * The shaded jar.
+     */
+    private final Path jar;
+
+    /**
+     * The native executable, or {@link Optional#empty()} if not built.
+     */
+    private final Optional<Path> nativeExecutable;
+
+    /**
+     * The working directory.
+     */
+    private final Path workDirectory;
+
+    /**
+     * The number of measured runs by launch mode.
+     */
+    private final int iterations;
+
+    /**
+     * Default constructor.
+     * @param stub the GitHub API stub.
+     * @param jar the shaded jar.
+     * @param nativeExecutable the native executable, or {@link Optional#empty()} if not built.
+     * @param workDirectory the working directory.
+     * @param iterations the number of measured runs by launch mode.
+     */
+    ColdStartBenchmark(
+            GitHubApiStub stub, Path jar, Optional<Path> nativeExecutable, Path workDirectory, int iterations) {
+        this.stub = stub;
+        this.jar = jar;
+        this.nativeExecutable = nativeExecutable;
+        this.workDirectory = workDirectory;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Main method.
+     * @param args the <code>key=value</code> arguments.
+     * @throws Exception if an error occurs.
+     */
+    public static void main(String[] args) throws Exception {
+        var options = new HashMap<String, String>();
+        for (String arg : args) {
+            var separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException(String.format("argument is not key=value: %s", arg));
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        var jar = Path.of(Optional.ofNullable(options.get("jar"))
+                .orElseThrow(() -> new IllegalArgumentException("jar argument is required.")));
+        var workDirectory = Path.of(options.getOrDefault("work", "target/cold-start-benchmark"));
+        var report = Path.of(options.getOrDefault("report", workDirectory.resolve("report.json").toString()));
+        var iterations = Integer.parseInt(options.getOrDefault("iterations", "10"));
+        var modes = new ArrayList<LaunchMode>();
+        for (String mode : options.getOrDefault("modes", "jar,cds,jlink,native").split(",")) {
+            modes.add(LaunchMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)));
+        }
+
+        var nativeExecutable = Optional.ofNullable(options.get("native"))
+                .filter(path -> !path.isBlank())
+                .map(Path::of);
+
+        Files.createDirectories(workDirectory);
+        try (var stub = GitHubApiStub.start()) {
+            var benchmark = new ColdStartBenchmark(stub, jar, nativeExecutable, workDirectory, iterations);
+
+            var results = new ArrayList<Map<String, Object>>();
+            for (LaunchMode mode : modes) {
+                System.out.printf("cold start benchmark: %s%n", mode.name().toLowerCase(Locale.ROOT));
+                results.add(benchmark.run(mode));
+            }
+
+            var reportContent = new LinkedHashMap<String, Object>();
+            reportContent.put("date", Instant.now().toString());
+            reportContent.put("java_version", System.getProperty("java.version"));
+            reportContent.put(
+                    "os", String.format("%s %s", System.getProperty("os.name"), System.getProperty("os.arch")));
+            reportContent.put("iterations", iterations);
+            reportContent.put("modes", results);
+
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), reportContent);
+            System.out.printf("cold start benchmark: report written to %s%n", report);
+        }
+    }
+
+    /**
+     * Benchmarks a launch mode.
+     * @param mode the launch mode.
+     * @return the results.
+     * @throws IOException if an error occurs.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    Map<String, Object> run(LaunchMode mode) throws IOException, InterruptedException {
+        var result = new LinkedHashMap<String, Object>();
+        result.put("mode", mode.name().toLowerCase(Locale.ROOT));
+        if (mode == LaunchMode.NATIVE && nativeExecutable.filter(Files::isExecutable).isEmpty()) {
+            result.put("skipped", "no native executable: set native=<path> to the native-image build of the action.");
+            return result;
+        }
+
+        var command = prepareCommand(mode);
+        result.put("command", command);
+
+        // The first run warms up the file system caches and is not measured.
+        runOnce(command);
+
+        var timesToOutput = new ArrayList<Long>();
+        var wallTimes = new ArrayList<Long>();
+        var peakRssValues = new ArrayList<Long>();
+        for (var i = 0; i < iterations; i++) {
+            var measure = runOnce(command);
+            timesToOutput.add(measure.timeToOutputMillis);
+            wallTimes.add(measure.wallMillis);
+            if (measure.peakRssKilobytes >= 0) {
+                peakRssValues.add(measure.peakRssKilobytes);
+            }
+        }
+        result.put("time_to_output_ms", summarize(timesToOutput));
+        result.put("wall_ms", summarize(wallTimes));
+        result.put("peak_rss_kb", peakRssValues.isEmpty() ? null : summarize(peakRssValues));
+        result.put("classes_loaded", mode == LaunchMode.NATIVE ? null : countLoadedClasses(command));
+        return result;
+    }
+
+    /**
+     * Prepares the command of the launch mode, building the CDS archive or the jlink runtime if needed.
+     * @param mode the launch mode.
+     * @return the command.
+     * @throws IOException if an error occurs.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    List<String> prepareCommand(LaunchMode mode) throws IOException, InterruptedException {
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var command = new ArrayList<String>();
+        switch (mode) {
+            case JAR:
+                command.add(java);
+                command.addAll(JVM_OPTIONS);
+                break;
+            case CDS:
+                var archive = workDirectory.resolve("app.jsa");
+                if (Files.notExists(archive)) {
+                    var trainingCommand = new ArrayList<String>(List.of(java));
+                    trainingCommand.addAll(JVM_OPTIONS);
+                    trainingCommand.add(String.format("-XX:ArchiveClassesAtExit=%s", archive));
+                    trainingCommand.addAll(List.of("-jar", jar.toString()));
+                    runOnce(trainingCommand);
+                }
+                command.add(java);
+                command.addAll(JVM_OPTIONS);
+                command.add(String.format("-XX:SharedArchiveFile=%s", archive));
+                break;
+            case JLINK:
+                command.add(createJlinkRuntime().resolve("bin").resolve("java").toString());
+                command.addAll(JVM_OPTIONS);
+                break;
+            case NATIVE:
+                command.add(nativeExecutable.orElseThrow().toString());
+                return command;
+            default:
+                throw new IllegalArgumentException(String.format("unknown launch mode: %s", mode));
+        }
+        command.addAll(List.of("-jar", jar.toString()));
+        return command;
+    }
+
+    /**
+     * Creates a runtime with the modules required by the jar, unless already created.
+     * @return the runtime directory.
+     */
+    Path createJlinkRuntime() {
+        var runtime = workDirectory.resolve("jlink-runtime");
+        if (Files.exists(runtime)) {
+            return runtime;
+        }
+
+        var modules = runTool(
+                        "jdeps",
+                        "--print-module-deps",
+                        "--ignore-missing-deps",
+                        "--multi-release",
+                        "17",
+                        jar.toString())
+                .strip();
+        runTool(
+                "jlink",
+                "--add-modules",
+                // The TLS cipher suites of the GitHub API require the elliptic curves provider.
+                modules + ",jdk.crypto.ec",
+                "--strip-debug",
+                "--no-header-files",
+                "--no-man-pages",
+                "--output",
+                runtime.toString());
+        return runtime;
+    }
+
+    /**
+     * Runs a JDK tool.
+     * @param name the tool name.
+     * @param args the tool arguments.
+     * @return the tool output.
+     */
+    static String runTool(String name, String... args) {
+        var tool = ToolProvider.findFirst(name)
+                .orElseThrow(() -> new IllegalStateException(String.format("JDK tool not found: %s", name)));
+        var output = new ByteArrayOutputStream();
+        var exitCode = tool.run(new PrintStream(output, true, StandardCharsets.UTF_8), System.err, args);
+        if (exitCode != 0) {
+            throw new IllegalStateException(String.format("%s failed with exit code %d", name, exitCode));
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Counts the classes loaded by a run.
+     * @param command the command.
+     * @return the number of classes loaded.
+     * @throws IOException if an error occurs.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    long countLoadedClasses(List<String> command) throws IOException, InterruptedException {
+        var classLoadLog = workDirectory.resolve("class-load.log");
+        Files.deleteIfExists(classLoadLog);
+
+        // The log is enabled in a separate run to leave the timed runs unaffected.
+        var loggingCommand = new ArrayList<String>(command);
+        loggingCommand.add(1, String.format("-Xlog:class+load=info:file=%s", classLoadLog));
+        runOnce(loggingCommand);
+
+        try (var lines = Files.lines(classLoadLog)) {
+            return lines.count();
+        }
+    }
+
+    /**
+     * Runs the action once in a new process.
+     * @param command the command.
+     * @return the measure.
+     * @throws IOException if an error occurs.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    Measure runOnce(List<String> command) throws IOException, InterruptedException {
+        stub.reset();
+        var outputFile = workDirectory.resolve("github-output");
+        Files.deleteIfExists(outputFile);
+        Files.createFile(outputFile);
+
+        var processBuilder = new ProcessBuilder(command).redirectErrorStream(true);
+        var environment = processBuilder.environment();
+        environment.put("INPUT_TITLE", "v1.0.0");
+        environment.put("GITHUB_TOKEN", "benchmark");
+        environment.put("GITHUB_REPOSITORY", "octocat/Hello-World");
+        environment.put("GITHUB_API_URL", stub.getUrl());
+        environment.put("GITHUB_OUTPUT", outputFile.toString());
+
+        var start = Instant.now();
+        var startNanos = System.nanoTime();
+        var process = processBuilder.start();
+        var exit = process.onExit().thenApply(exited -> System.nanoTime());
+
+        // Drain the output, to show it if the run fails.
+        var outputLines = Collections.synchronizedList(new ArrayList<String>());
+        var reader = new Thread(() -> {
+            try (var lines =
+                    new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    outputLines.add(line);
+                }
+            } catch (IOException e) {
+                outputLines.add(e.toString());
+            }
+        });
+        reader.start();
+
+        // Sample the peak RSS, a high-water mark, at a coarse interval until the process exits.
+        var peakRssKilobytes = -1L;
+        var deadline = startNanos + RUN_TIMEOUT.toNanos();
+        long end;
+        while (true) {
+            peakRssKilobytes = Math.max(peakRssKilobytes, readPeakRssKilobytes(process.pid()));
+            try {
+                end = exit.get(PEAK_RSS_SAMPLING_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException e) {
+                if (System.nanoTime() > deadline) {
+                    process.destroyForcibly();
+                    throw new IllegalStateException(String.format("run timed out: %s", command));
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        reader.join();
+
+        if (process.exitValue() != 0 || !Files.readString(outputFile).contains("number")) {
+            throw new IllegalStateException(String.format(
+                    "run failed with exit code %d: %s%n%s",
+                    process.exitValue(),
+                    command,
+                    String.join(System.lineSeparator(), outputLines)));
+        }
+
+        // The output file is last modified by the child when it writes its outputs.
+        var outputAt = Files.getLastModifiedTime(outputFile).toInstant();
+        return new Measure(
+                Duration.between(start, outputAt).toMillis(),
+                TimeUnit.NANOSECONDS.toMillis(end - startNanos),
+                peakRssKilobytes);
+    }
+
+    /**
+     * Reads the peak RSS of a process, on Linux.
+     * @param pid the process ID.
+     * @return the peak RSS in kilobytes, or <code>-1</code> if not available.
+     */
+    static long readPeakRssKilobytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The process exited, or the platform has no procfs.
+        }
+        return -1;
+    }
+
+    /**
+     * Summarizes the values.
+     * @param values the values.
+     * @return the minimum, median, 90th percentile and maximum of the values.
+     */
+    static Map<String, Long> summarize(List<Long> values) {
+        var sortedValues = new ArrayList<Long>(values);
+        Collections.sort(sortedValues);
+
+        var summary = new LinkedHashMap<String, Long>();
+        summary.put("min", sortedValues.get(0));
+        summary.put("median", percentile(sortedValues, 50));
+        summary.put("p90", percentile(sortedValues, 90));
+        summary.put("max", sortedValues.get(sortedValues.size() - 1));
+        return summary;
+    }
+
+    /**
+     * Gets the percentile of the sorted values, with the nearest-rank method.
+     * @param sortedValues the sorted values.
+     * @param percentile the percentile, between 1 and 100.
+     * @return the percentile.
+     */
+    static long percentile(List<Long> sortedValues, int percentile) {
+        var rank = (int) Math.ceil(percentile / 100.0 * sortedValues.size());
+        return sortedValues.get(Math.max(0, rank - 1));
+    }
+
+    /**
+     * The measure of a run.
+     */
+    static class Measure {
+        /**
+         * The time until the outputs are written.
+         */
+        private final long timeToOutputMillis;
+
+        /**
+         * The time until the process exits.
+         */
+        private final long wallMillis;
+
+        /**
+         * The peak RSS, or <code>-1</code> if not available.
+         */
+        private final long peakRssKilobytes;
+
+        /**
+         * Default constructor.
+         * @param timeToOutputMillis the time until the outputs are written.
+         * @param wallMillis the time until the process exits.
+         * @param peakRssKilobytes the peak RSS, or <code>-1</code> if not available.
+         */
+        Measure(long timeToOutputMillis, long wallMillis, long peakRssKilobytes) {
+            this.timeToOutputMillis = timeToOutputMillis;
+            this.wallMillis = wallMillis;
+            this.peakRssKilobytes = peakRssKilobytes;
+        }
+    }
+}
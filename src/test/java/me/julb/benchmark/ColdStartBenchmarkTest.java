@@ -0,0 +1,68 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link ColdStartBenchmark} class. <br>
+ * @author Julb.
+ */
+class ColdStartBenchmarkTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSummarize_thenReturnNearestRankPercentiles() {
+        var summary = ColdStartBenchmark.summarize(List.of(10L, 1L, 9L, 2L, 8L, 3L, 7L, 4L, 6L, 5L));
+
+        assertThat(summary)
+                .containsEntry("min", 1L)
+                .containsEntry("median", 5L)
+                .containsEntry("p90", 9L)
+                .containsEntry("max", 10L);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSummarizeSingleValue_thenReturnValue() {
+        assertThat(ColdStartBenchmark.summarize(List.of(42L))).containsOnlyKeys("min", "median", "p90", "max")
+                .allSatisfy((key, value) -> assertThat(value).isEqualTo(42L));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPeakRssOfUnknownProcess_thenReturnMinusOne() {
+        assertThat(ColdStartBenchmark.readPeakRssKilobytes(-1)).isEqualTo(-1);
+    }
+}